@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks JMH da Questão 2 (Multiplicação de Matrizes).
+ * * Por que: no main cada kernel roda uma única vez, sem aquecimento, e o sequencial absorve a
+ * compilação do JIT. Aqui as medições são feitas em regime estacionário, em JVMs separadas,
+ * com média e intervalo de confiança calculados pelo JMH.
+ * * Os dados são gerados com semente fixa (GeradorMatrizes), então todas as execuções medem as mesmas matrizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MultiplicacaoMatrizesBenchmark {
+
+    private static final long SEMENTE = 42;
+
+    private static final MethodHandle GERAR = Reflexao.estatico("GeradorMatrizes", "gerar",
+            MethodType.methodType(long[][].class, int.class, int.class, long.class));
+    private static final MethodHandle SEMENTE_DERIVADA = Reflexao.estatico("GeradorMatrizes", "sementeDerivada",
+            MethodType.methodType(long.class, long.class, int.class));
+    private static final MethodHandle SEQUENCIAL = Reflexao.estatico("MultiplicacaoMatrizesLog", "multiplicarSequencial",
+            MethodType.methodType(long[][].class, long[][].class, long[][].class));
+    private static final MethodHandle PARALELO = Reflexao.estatico("MultiplicacaoMatrizesLog", "multiplicarParalelo",
+            MethodType.methodType(long[][].class, long[][].class, long[][].class, int.class));
+
+    /** Matrizes de entrada (n x n): geradas uma vez por tamanho. */
+    @State(Scope.Benchmark)
+    public static class Matrizes {
+        @Param({"256", "512", "1000"})
+        int n;
+
+        long[][] a;
+        long[][] b;
+
+        @Setup(Level.Trial)
+        public void gerar() throws Throwable {
+            a = (long[][]) GERAR.invokeExact(n, n, SEMENTE);
+            b = (long[][]) GERAR.invokeExact(n, n, (long) SEMENTE_DERIVADA.invokeExact(SEMENTE, 1));
+        }
+    }
+
+    /** Número de threads (faixas de linhas) da versão paralela. */
+    @State(Scope.Benchmark)
+    public static class Paralelismo {
+        @Param({"1", "2", "4", "8"})
+        int threads;
+    }
+
+    @Benchmark
+    public long[][] multiplicarSequencial(Matrizes m) throws Throwable {
+        return (long[][]) SEQUENCIAL.invokeExact(m.a, m.b);
+    }
+
+    @Benchmark
+    public long[][] multiplicarParalelo(Matrizes m, Paralelismo p) throws Throwable {
+        return (long[][]) PARALELO.invokeExact(m.a, m.b, p.threads);
+    }
+}
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks JMH da Questão 1 (Produto Escalar).
+ * * Por que: no main cada kernel roda uma única vez, sem aquecimento. O sequencial roda primeiro e
+ * absorve a compilação do JIT (por isso o T.Seq do mesmo tamanho varia de 0.069s a 0.118s no log).
+ * Aqui cada medição só começa depois das iterações de aquecimento, em JVMs separadas (forks),
+ * e o JMH reporta média e intervalo de confiança.
+ * * Os dados são gerados com semente fixa (GeradorVetores), então todas as execuções medem os mesmos vetores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xms2g", "-Xmx2g"})
+public class ProdutoEscalarBenchmark {
+
+    private static final long SEMENTE = 42;
+
+    private static final MethodHandle GERAR = Reflexao.estatico("GeradorVetores", "gerarLong",
+            MethodType.methodType(long[].class, int.class, long.class));
+    private static final MethodHandle SEMENTE_DERIVADA = Reflexao.estatico("GeradorVetores", "sementeDerivada",
+            MethodType.methodType(long.class, long.class, int.class));
+    private static final MethodHandle SEQUENCIAL = Reflexao.estatico("ProdutoEscalarLog", "calcularSequencial",
+            MethodType.methodType(long.class, long[].class, long[].class));
+    private static final MethodHandle PARALELO = Reflexao.estatico("ProdutoEscalarLog", "calcularParalelo",
+            MethodType.methodType(long.class, long[].class, long[].class, int.class));
+    // calcularParalelo(long[], long[], int, BackendExecucao), com o backend visto como Object
+    private static final MethodHandle PARALELO_BACKEND = Reflexao.estatico("ProdutoEscalarLog", "calcularParalelo",
+            MethodType.methodType(long.class, long[].class, long[].class, int.class, Reflexao.classe("BackendExecucao")))
+            .asType(MethodType.methodType(long.class, long[].class, long[].class, int.class, Object.class));
+
+    /** Vetores de entrada: gerados uma vez por tamanho. */
+    @State(Scope.Benchmark)
+    public static class Vetores {
+        @Param({"1000000", "10000000", "50000000"})
+        int tamanho;
+
+        long[] a;
+        long[] b;
+
+        @Setup(Level.Trial)
+        public void gerar() throws Throwable {
+            a = (long[]) GERAR.invokeExact(tamanho, SEMENTE);
+            b = (long[]) GERAR.invokeExact(tamanho, (long) SEMENTE_DERIVADA.invokeExact(SEMENTE, 1));
+        }
+    }
+
+    /** Configuração paralela: número de threads (fatias) e backend de execução. */
+    @State(Scope.Benchmark)
+    public static class Paralelismo {
+        @Param({"1", "2", "4", "8"})
+        int threads;
+
+        // DEDICADAS = WorkerThread nova por fatia (calcularParalelo original)
+        @Param({"DEDICADAS", "POOL_FIXO", "FORK_JOIN", "VIRTUAL"})
+        String backend;
+
+        Object instancia;
+
+        @Setup(Level.Trial)
+        public void criarBackend() throws Throwable {
+            if ("DEDICADAS".equals(backend)) return;
+            Class<?> classeTipo = Reflexao.classe("BackendExecucao$Tipo");
+            Object tipo = classeTipo.getMethod("valueOf", String.class).invoke(null, backend);
+            instancia = Reflexao.classe("BackendExecucao").getMethod("compartilhado", classeTipo).invoke(null, tipo);
+        }
+    }
+
+    @Benchmark
+    public long calcularSequencial(Vetores v) throws Throwable {
+        return (long) SEQUENCIAL.invokeExact(v.a, v.b);
+    }
+
+    @Benchmark
+    public long calcularParalelo(Vetores v, Paralelismo p) throws Throwable {
+        if (p.instancia == null) {
+            return (long) PARALELO.invokeExact(v.a, v.b, p.threads);
+        }
+        return (long) PARALELO_BACKEND.invokeExact(v.a, v.b, p.threads, p.instancia);
+    }
+}
@@ -0,0 +1,34 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Acesso às classes da questão, que estão no pacote default.
+ * Classes do pacote default não podem ser importadas de um pacote nomeado (e o JMH exige um
+ * pacote nomeado), então os métodos são obtidos como MethodHandle. Guardados em campos
+ * static final, eles são tratados como constantes pelo JIT e não acrescentam custo à medição.
+ */
+final class Reflexao {
+
+    private Reflexao() {
+    }
+
+    static Class<?> classe(String nome) {
+        try {
+            return Class.forName(nome);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Classe da questão não encontrada: " + nome, e);
+        }
+    }
+
+    static MethodHandle estatico(String classe, String metodo, MethodType tipo) {
+        try {
+            Class<?> c = classe(classe);
+            return MethodHandles.privateLookupIn(c, MethodHandles.lookup()).findStatic(c, metodo, tipo);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Método não encontrado: " + classe + "." + metodo + tipo, e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.StringJoiner;
+
+/**
+ * Sondagem do Hardware (e da JVM)
+ * * Objetivo: Descobrir automaticamente as características da máquina que influenciam o
+ * desempenho paralelo (núcleos, caches) e identificar o ambiente de cada resultado
+ * (modelo da CPU, versão da JVM, heap máximo e coletor de lixo), em vez de depender de o
+ * usuário digitar "Notebook Local" ou "PC Lab".
+ * * Fonte dos dados: Runtime, MXBeans da JVM, /proc/cpuinfo e /sys/devices/system/cpu/cpu0/cache (Linux).
+ * Em sistemas sem /proc e /sys o modelo fica como o os.arch e as caches como 0 (desconhecidas).
+ * * Cópia única em comum/, compilada junto com a Questão 1 e a Questão 2.
+ */
+public class InfoHardware {
+
+    private static final Path DIR_CACHE = Paths.get("/sys/devices/system/cpu/cpu0/cache");
+    private static final Path CPUINFO = Paths.get("/proc/cpuinfo");
+    private static final Path FREQ_MAXIMA = Paths.get("/sys/devices/system/cpu/cpu0/cpufreq/cpuinfo_max_freq");
+
+    private final int nucleos;
+    // Tamanhos em bytes (0 = desconhecido)
+    private final long cacheL1d;
+    private final long cacheL2;
+    private final long cacheL3;
+    private final String modeloCpu;
+    // Frequência em MHz (0 = desconhecida), usada na estimativa de desempenho de pico
+    private final double frequenciaMhz;
+    private final String jvm;
+    private final long heapMaximo;
+    private final String coletores;
+
+    private InfoHardware(int nucleos, long cacheL1d, long cacheL2, long cacheL3) {
+        this.nucleos = nucleos;
+        this.cacheL1d = cacheL1d;
+        this.cacheL2 = cacheL2;
+        this.cacheL3 = cacheL3;
+        this.modeloCpu = lerModeloCpu();
+        this.frequenciaMhz = lerFrequenciaMhz();
+        this.jvm = System.getProperty("java.vm.name") + " " + Runtime.version();
+        this.heapMaximo = Runtime.getRuntime().maxMemory();
+        this.coletores = lerColetores();
+    }
+
+    /** Lê as informações da máquina atual. */
+    public static InfoHardware sondar() {
+        long l1d = 0, l2 = 0, l3 = 0;
+        // Cada diretório indexN descreve um nível de cache (level, type, size)
+        for (int i = 0; i < 8; i++) {
+            Path dir = DIR_CACHE.resolve("index" + i);
+            if (!Files.isDirectory(dir)) continue;
+            String nivel = lerTexto(dir.resolve("level"));
+            String tipo = lerTexto(dir.resolve("type"));
+            long tamanho = converterTamanho(lerTexto(dir.resolve("size")));
+            if ("Instruction".equals(tipo)) continue;
+            switch (nivel) {
+                case "1": l1d = tamanho; break;
+                case "2": l2 = tamanho; break;
+                case "3": l3 = tamanho; break;
+                default: break;
+            }
+        }
+        return new InfoHardware(Runtime.getRuntime().availableProcessors(), l1d, l2, l3);
+    }
+
+    // Primeira linha "model name" do /proc/cpuinfo (x86) ou "Model"/"Hardware" (ARM)
+    private static String lerModeloCpu() {
+        String modelo = lerCampoCpuinfo("model name", "Model", "Hardware");
+        return modelo.isEmpty() ? System.getProperty("os.arch") : modelo;
+    }
+
+    // Frequência máxima do cpufreq (em kHz); sem cpufreq (ex: máquinas virtuais), o "cpu MHz" do /proc/cpuinfo
+    private static double lerFrequenciaMhz() {
+        try {
+            String maxima = lerTexto(FREQ_MAXIMA);
+            if (!maxima.isEmpty()) return Long.parseLong(maxima) / 1000.0;
+            String cpuMhz = lerCampoCpuinfo("cpu MHz");
+            return cpuMhz.isEmpty() ? 0 : Double.parseDouble(cpuMhz);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Valor da primeira linha "chave : valor" do /proc/cpuinfo com uma das chaves ("" se não houver)
+    private static String lerCampoCpuinfo(String... chaves) {
+        for (String linha : lerTexto(CPUINFO).split("\n")) {
+            int separador = linha.indexOf(':');
+            if (separador < 0) continue;
+            String chave = linha.substring(0, separador).trim();
+            for (String procurada : chaves) {
+                if (chave.equals(procurada)) return linha.substring(separador + 1).trim();
+            }
+        }
+        return "";
+    }
+
+    // Nomes dos coletores de lixo ativos (ex: "G1 Young Generation+G1 Old Generation")
+    private static String lerColetores() {
+        StringJoiner nomes = new StringJoiner("+");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            nomes.add(gc.getName());
+        }
+        return nomes.toString();
+    }
+
+    // Converte "48K", "2048K", "30M" para bytes
+    static long converterTamanho(String texto) {
+        if (texto.isEmpty()) return 0;
+        char unidade = Character.toUpperCase(texto.charAt(texto.length() - 1));
+        try {
+            switch (unidade) {
+                case 'K': return Long.parseLong(texto.substring(0, texto.length() - 1)) * 1024;
+                case 'M': return Long.parseLong(texto.substring(0, texto.length() - 1)) * 1024 * 1024;
+                case 'G': return Long.parseLong(texto.substring(0, texto.length() - 1)) * 1024 * 1024 * 1024;
+                default:  return Long.parseLong(texto);
+            }
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Lê um arquivo de texto curto (ex: do /sys). Retorna "" se não existir ou não puder ser lido.
+    static String lerTexto(Path arquivo) {
+        try {
+            return Files.readString(arquivo).trim();
+        } catch (IOException | SecurityException e) {
+            return "";
+        }
+    }
+
+    public int getNucleos() {
+        return nucleos;
+    }
+
+    public long getCacheL1d() {
+        return cacheL1d;
+    }
+
+    public long getCacheL2() {
+        return cacheL2;
+    }
+
+    public long getCacheL3() {
+        return cacheL3;
+    }
+
+    public String getModeloCpu() {
+        return modeloCpu;
+    }
+
+    public double getFrequenciaMhz() {
+        return frequenciaMhz;
+    }
+
+    public String getJvm() {
+        return jvm;
+    }
+
+    public long getHeapMaximo() {
+        return heapMaximo;
+    }
+
+    public String getColetores() {
+        return coletores;
+    }
+
+    /** Identificação curta da máquina, usada no lugar do antigo "Notebook Local"/"PC Lab". */
+    public String getResumo() {
+        return modeloCpu + " x" + nucleos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Núcleos: %d | L1d: %s | L2: %s | L3: %s",
+                nucleos, formatar(cacheL1d), formatar(cacheL2), formatar(cacheL3));
+    }
+
+    /** Descrição completa do ambiente (impressa no início de cada experimento). */
+    public String getDescricaoCompleta() {
+        return String.format("CPU: %s (%.0f MHz) | %s | JVM: %s | Heap máx: %d MB | GC: %s",
+                modeloCpu, frequenciaMhz, this, jvm, heapMaximo / (1024 * 1024), coletores);
+    }
+
+    private static String formatar(long bytes) {
+        if (bytes == 0) return "?";
+        if (bytes >= 1024 * 1024) return (bytes / (1024 * 1024)) + "MB";
+        return (bytes / 1024) + "KB";
+    }
+}
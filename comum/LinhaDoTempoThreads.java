@@ -0,0 +1,238 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Linha do Tempo das WorkerThreads (instrumentação opcional)
+ * * Problema: o paralelo só media o tempo de ponta a ponta; um speedup ruim podia vir da criação
+ * das threads, de uma fatia maior (o resto da divisão) ou da espera no join(), sem como saber.
+ * * Estratégia: ligada com -Dinstrumentar.threads=true (desligada, o custo é um teste de null por
+ * thread). Em cada execução paralela:
+ * - a thread principal marca a criação e o start() de cada WorkerThread;
+ * - a WorkerThread marca o início e o fim do run(), os elementos processados (posições do vetor
+ *   na Questão 1, células de C na Questão 2) e o tempo de CPU da própria thread (ThreadMXBean),
+ *   que separa cálculo de tempo fora da CPU;
+ * - no fim: fator de desbalanceamento (duração máxima / média) e o caminho crítico da thread que
+ *   terminou por último (criação das anteriores + latência de disparo + cálculo + join/redução).
+ * * As execuções ficam guardadas até relatar(): o relatório vai para o console e a linha do tempo
+ * para um JSON no formato Chrome Trace (abrir em chrome://tracing ou ui.perfetto.dev).
+ * * Uma só cópia, em comum/, para as duas questões.
+ */
+public class LinhaDoTempoThreads {
+
+    private static final boolean ATIVA = Boolean.getBoolean("instrumentar.threads");
+    private static final ThreadMXBean MX = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_DISPONIVEL = MX.isCurrentThreadCpuTimeSupported();
+    private static final List<LinhaDoTempoThreads> EXECUCOES = new ArrayList<>();
+
+    /** Marcas de uma WorkerThread; criação e disparo pela principal, o resto pela própria thread. */
+    public static final class Registro {
+        private final int indice;
+        private final long criadaNs = System.nanoTime();
+        private long disparadaNs;
+        // Escritos pela WorkerThread, lidos depois do join() (o join garante a visibilidade)
+        private long inicioNs, fimNs, cpuInicioNs, cpuNs = -1;
+        private long elementos;
+
+        private Registro(int indice) {
+            this.indice = indice;
+        }
+
+        /** Primeira linha do run(). */
+        public void inicio() {
+            if (CPU_DISPONIVEL) cpuInicioNs = MX.getCurrentThreadCpuTime();
+            inicioNs = System.nanoTime();
+        }
+
+        /** Última linha do run(). */
+        public void fim(long elementosProcessados) {
+            fimNs = System.nanoTime();
+            if (CPU_DISPONIVEL) cpuNs = MX.getCurrentThreadCpuTime() - cpuInicioNs;
+            elementos = elementosProcessados;
+        }
+
+        private long getDuracaoNs() {
+            return fimNs - inicioNs;
+        }
+    }
+
+    private final String rotulo;
+    private final Registro[] registros;
+    private final long inicioNs = System.nanoTime();
+    private long fimNs;
+
+    private LinhaDoTempoThreads(String rotulo, int threads) {
+        this.rotulo = rotulo;
+        this.registros = new Registro[threads];
+    }
+
+    /** Começa a linha do tempo de uma execução paralela; null se a instrumentação estiver desligada. */
+    public static LinhaDoTempoThreads iniciar(String rotulo, int threads) {
+        return ATIVA ? new LinhaDoTempoThreads(rotulo, threads) : null;
+    }
+
+    public static boolean isAtiva() {
+        return ATIVA;
+    }
+
+    /** Registro da thread 'indice', criado antes do new WorkerThread (marca o instante da criação). */
+    public Registro novoRegistro(int indice) {
+        return registros[indice] = new Registro(indice);
+    }
+
+    /** Dispara a thread, marcando o instante do start() se houver registro. */
+    public static void disparar(Thread thread, Registro registro) {
+        if (registro != null) registro.disparadaNs = System.nanoTime();
+        thread.start();
+    }
+
+    /** Depois do último join(): fecha a execução e a guarda para o relatório. */
+    public void concluir() {
+        fimNs = System.nanoTime();
+        synchronized (EXECUCOES) {
+            EXECUCOES.add(this);
+        }
+    }
+
+    // --- Análise ---
+
+    // Duração máxima do cálculo / média: 1.0 = perfeitamente balanceado
+    private double getDesbalanceamento() {
+        long soma = 0, max = 0;
+        for (Registro r : registros) {
+            soma += r.getDuracaoNs();
+            max = Math.max(max, r.getDuracaoNs());
+        }
+        return soma == 0 ? 1.0 : max / (soma / (double) registros.length);
+    }
+
+    private double getDesbalanceamentoElementos() {
+        long soma = 0, max = 0;
+        for (Registro r : registros) {
+            soma += r.elementos;
+            max = Math.max(max, r.elementos);
+        }
+        return soma == 0 ? 1.0 : max / (soma / (double) registros.length);
+    }
+
+    // A thread que terminou por último define o tempo total
+    private Registro getCritica() {
+        Registro critica = registros[0];
+        for (Registro r : registros) {
+            if (r.fimNs > critica.fimNs) critica = r;
+        }
+        return critica;
+    }
+
+    private static double ms(long ns) {
+        return ns / 1e6;
+    }
+
+    // Uma linha por execução: total, desbalanceamento e caminho crítico
+    private String getResumo() {
+        Registro c = getCritica();
+        return String.format(Locale.ROOT,
+                "total %.3f ms | desbalanceamento %.2f (elementos %.2f) | crítica #%d: criação das anteriores %.3f"
+                        + " + disparo %.3f + cálculo %.3f + join/redução %.3f ms",
+                ms(fimNs - inicioNs), getDesbalanceamento(), getDesbalanceamentoElementos(), c.indice,
+                ms(c.disparadaNs - inicioNs), ms(c.inicioNs - c.disparadaNs), ms(c.getDuracaoNs()), ms(fimNs - c.fimNs));
+    }
+
+    // Tabela por thread (instantes relativos ao início da execução)
+    private String getDetalhe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%6s %14s %12s %12s %10s %10s %12s %10s %9s%n", "thread", "elementos", "criação(ms)",
+                "disparo(ms)", "início(ms)", "fim(ms)", "duração(ms)", "CPU(ms)", "CPU/dur"));
+        for (Registro r : registros) {
+            double cpu = r.cpuNs < 0 ? Double.NaN : ms(r.cpuNs);
+            sb.append(String.format(Locale.ROOT, "%6d %14d %12.3f %12.3f %10.3f %10.3f %12.3f %10.3f %9.2f%n",
+                    r.indice, r.elementos, ms(r.criadaNs - inicioNs), ms(r.disparadaNs - inicioNs),
+                    ms(r.inicioNs - inicioNs), ms(r.fimNs - inicioNs), ms(r.getDuracaoNs()), cpu,
+                    cpu / ms(Math.max(1, r.getDuracaoNs()))));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Imprime o resumo de cada execução guardada e o detalhe da última, grava a linha do tempo em
+     * 'arquivoJson' (Chrome Trace) e esvazia a lista. Não faz nada se nada foi registrado.
+     */
+    public static void relatar(String arquivoJson) {
+        List<LinhaDoTempoThreads> execucoes;
+        synchronized (EXECUCOES) {
+            if (EXECUCOES.isEmpty()) return;
+            execucoes = new ArrayList<>(EXECUCOES);
+            EXECUCOES.clear();
+        }
+        LinhaDoTempoThreads ultima = execucoes.get(execucoes.size() - 1);
+        System.out.println("\n=== Linha do tempo das threads (" + ultima.rotulo + ", " + ultima.registros.length
+                + " threads, " + execucoes.size() + " execuções) ===");
+        if (!CPU_DISPONIVEL) System.out.println("(tempo de CPU por thread indisponível nesta JVM)");
+        for (int i = 0; i < execucoes.size(); i++) {
+            System.out.printf("Execução %d: %s%n", i + 1, execucoes.get(i).getResumo());
+        }
+        System.out.println("\nDetalhe da execução " + execucoes.size() + ":");
+        System.out.print(ultima.getDetalhe());
+        try {
+            exportarChromeTrace(execucoes, arquivoJson);
+            System.out.println("[!] Linha do tempo salva em '" + arquivoJson + "' (chrome://tracing ou ui.perfetto.dev)");
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar a linha do tempo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Formato Chrome Trace (JSON Array): cada execução é um "processo" (pid), a principal é a tid 0
+     * e cada WorkerThread a tid índice+1. Eventos "X" com ts/dur em microssegundos desde o início
+     * da primeira execução.
+     */
+    private static void exportarChromeTrace(List<LinhaDoTempoThreads> execucoes, String arquivo) throws IOException {
+        long origem = execucoes.get(0).inicioNs;
+        try (PrintWriter pw = new PrintWriter(new FileWriter(arquivo))) {
+            pw.println("{\"traceEvents\":[");
+            boolean primeiro = true;
+            for (int e = 0; e < execucoes.size(); e++) {
+                LinhaDoTempoThreads ex = execucoes.get(e);
+                int pid = e + 1;
+                primeiro = evento(pw, primeiro, String.format(Locale.ROOT,
+                        "{\"ph\":\"M\",\"pid\":%d,\"name\":\"process_name\",\"args\":{\"name\":\"%s #%d\"}}", pid, ex.rotulo, pid));
+                primeiro = evento(pw, primeiro, String.format(Locale.ROOT,
+                        "{\"ph\":\"M\",\"pid\":%d,\"tid\":0,\"name\":\"thread_name\",\"args\":{\"name\":\"principal\"}}", pid));
+                long ultimoDisparo = ex.inicioNs;
+                for (Registro r : ex.registros) ultimoDisparo = Math.max(ultimoDisparo, r.disparadaNs);
+                primeiro = evento(pw, primeiro, completo(pid, 0, "criação e disparo", "principal",
+                        ex.inicioNs - origem, ultimoDisparo - ex.inicioNs, ""));
+                primeiro = evento(pw, primeiro, completo(pid, 0, "join e redução", "principal",
+                        ultimoDisparo - origem, ex.fimNs - ultimoDisparo, ""));
+                for (Registro r : ex.registros) {
+                    int tid = r.indice + 1;
+                    primeiro = evento(pw, primeiro, String.format(Locale.ROOT,
+                            "{\"ph\":\"M\",\"pid\":%d,\"tid\":%d,\"name\":\"thread_name\",\"args\":{\"name\":\"worker %d\"}}",
+                            pid, tid, r.indice));
+                    primeiro = evento(pw, primeiro, completo(pid, tid, "disparo", "disparo",
+                            r.disparadaNs - origem, r.inicioNs - r.disparadaNs, ""));
+                    primeiro = evento(pw, primeiro, completo(pid, tid, "cálculo", "calculo",
+                            r.inicioNs - origem, r.getDuracaoNs(), String.format(Locale.ROOT,
+                                    "\"elementos\":%d,\"cpu_ms\":%.3f", r.elementos, r.cpuNs < 0 ? -1.0 : ms(r.cpuNs))));
+                }
+            }
+            pw.println("\n],\"displayTimeUnit\":\"ms\"}");
+        }
+    }
+
+    private static String completo(int pid, int tid, String nome, String categoria, long tsNs, long durNs, String args) {
+        return String.format(Locale.ROOT, "{\"ph\":\"X\",\"pid\":%d,\"tid\":%d,\"name\":\"%s\",\"cat\":\"%s\","
+                + "\"ts\":%.3f,\"dur\":%.3f,\"args\":{%s}}", pid, tid, nome, categoria, tsNs / 1e3, durNs / 1e3, args);
+    }
+
+    private static boolean evento(PrintWriter pw, boolean primeiro, String json) {
+        if (!primeiro) pw.println(",");
+        pw.print(json);
+        return false;
+    }
+}
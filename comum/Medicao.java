@@ -0,0 +1,143 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Medição com Repetições e Estatísticas
+ * * Problema: cada configuração era cronometrada uma única vez, então um pico de GC ou de outro
+ * processo virava "o resultado". Aqui cada configuração roda N vezes e o registro guarda a
+ * distribuição dos tempos (mínimo, mediana, p95, desvio padrão), além do tempo gasto em GC e
+ * dos bytes alocados durante as repetições.
+ * * Os bytes alocados são a soma de TODAS as threads da JVM (inclusive as trabalhadoras),
+ * via com.sun.management.ThreadMXBean.getTotalThreadAllocatedBytes.
+ * * Fica em comum/: as duas questões (e os benchmarks) compilam este mesmo arquivo.
+ */
+public class Medicao<T> {
+
+    /** Operação medida (sequencial ou paralela), que pode ser interrompida no join. */
+    @FunctionalInterface
+    public interface Calculo<T> {
+        T calcular() throws InterruptedException;
+    }
+
+    private final double[] tempos; // em segundos, na ordem de execução
+    private final T resultado;
+    private final boolean consistente;
+    private final long tempoGcMs;
+    private final long bytesAlocados;
+
+    private Medicao(double[] tempos, T resultado, boolean consistente, long tempoGcMs, long bytesAlocados) {
+        this.tempos = tempos;
+        this.resultado = resultado;
+        this.consistente = consistente;
+        this.tempoGcMs = tempoGcMs;
+        this.bytesAlocados = bytesAlocados;
+    }
+
+    /**
+     * Executa o cálculo 'repeticoes' vezes, cronometrando cada uma com System.nanoTime().
+     */
+    public static <T> Medicao<T> executar(int repeticoes, Calculo<T> calculo) throws InterruptedException {
+        int n = Math.max(1, repeticoes);
+        double[] tempos = new double[n];
+        T primeiro = null;
+        boolean consistente = true;
+
+        long gcAntes = tempoTotalGc();
+        long alocadoAntes = bytesAlocadosTotal();
+        for (int r = 0; r < n; r++) {
+            long inicio = System.nanoTime();
+            T resultado = calculo.calcular();
+            tempos[r] = (System.nanoTime() - inicio) / 1e9;
+            // Todas as repetições devem dar o mesmo resultado (dados e algoritmo são os mesmos).
+            // deepEquals compara o conteúdo quando o resultado é um array (ex: a matriz long[][]).
+            if (r == 0) primeiro = resultado;
+            else if (!Objects.deepEquals(primeiro, resultado)) consistente = false;
+        }
+        long tempoGc = tempoTotalGc() - gcAntes;
+        long alocado = bytesAlocadosTotal() - alocadoAntes;
+        return new Medicao<>(tempos, primeiro, consistente, tempoGc, alocado);
+    }
+
+    // Soma do tempo acumulado de todos os coletores (ms)
+    private static long tempoTotalGc() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long bytesAlocadosTotal() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean ext = (com.sun.management.ThreadMXBean) bean;
+            if (ext.isThreadAllocatedMemorySupported() && ext.isThreadAllocatedMemoryEnabled()) {
+                return ext.getTotalThreadAllocatedBytes();
+            }
+        }
+        return -1; // -1 = não suportado nesta JVM
+    }
+
+    // --- Estatísticas ---
+
+    public T getResultado() {
+        return resultado;
+    }
+
+    /** true se todas as repetições produziram o mesmo resultado. */
+    public boolean isConsistente() {
+        return consistente;
+    }
+
+    public int getRepeticoes() {
+        return tempos.length;
+    }
+
+    public double[] getTempos() {
+        return tempos.clone();
+    }
+
+    public double getMinimo() {
+        return ordenados()[0];
+    }
+
+    public double getMediana() {
+        double[] t = ordenados();
+        int meio = t.length / 2;
+        return (t.length % 2 == 1) ? t[meio] : (t[meio - 1] + t[meio]) / 2;
+    }
+
+    /** Percentil 95 pelo método do posto mais próximo (com poucas repetições, tende ao máximo). */
+    public double getP95() {
+        double[] t = ordenados();
+        int posto = (int) Math.ceil(0.95 * t.length);
+        return t[Math.max(0, posto - 1)];
+    }
+
+    /** Desvio padrão amostral (n - 1); 0 com uma única repetição. */
+    public double getDesvioPadrao() {
+        if (tempos.length < 2) return 0;
+        double media = 0;
+        for (double t : tempos) media += t;
+        media /= tempos.length;
+        double soma = 0;
+        for (double t : tempos) soma += (t - media) * (t - media);
+        return Math.sqrt(soma / (tempos.length - 1));
+    }
+
+    public long getTempoGcMs() {
+        return tempoGcMs;
+    }
+
+    public long getBytesAlocados() {
+        return bytesAlocados;
+    }
+
+    private double[] ordenados() {
+        double[] t = tempos.clone();
+        Arrays.sort(t);
+        return t;
+    }
+}
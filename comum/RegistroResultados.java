@@ -0,0 +1,174 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Registro Estruturado de Resultados (CSV e JSON Lines)
+ * * Problema: o log em texto livre usava o separador decimal do locale padrão (os arquivos
+ * misturam "0.0997s" e "0,1178s") e a máquina era digitada à mão, o que exigia limpeza manual
+ * antes de montar qualquer gráfico.
+ * * Formato: uma linha por configuração medida, em dois arquivos:
+ * - <base>.csv   : colunas fixas, separador ',' e ponto decimal (Locale.ROOT), com cabeçalho;
+ * - <base>.jsonl : um objeto JSON por linha, com o ambiente e as estatísticas aninhados.
+ * Todos os tempos estão em segundos. O speedup é calculado pelas medianas.
+ * * Usada pelas Questões 1 e 2 a partir de comum/ (o campo 'programa' separa as duas nos arquivos).
+ */
+public class RegistroResultados {
+
+    private static final String CABECALHO_CSV = String.join(",",
+            "data_hora", "programa", "modo", "tamanho", "threads", "estrategia", "kernel", "semente", "repeticoes",
+            "seq_min_s", "seq_mediana_s", "seq_p95_s", "seq_desvio_s", "seq_gc_ms", "seq_alocado_bytes",
+            "par_min_s", "par_mediana_s", "par_p95_s", "par_desvio_s", "par_gc_ms", "par_alocado_bytes",
+            "speedup", "valido",
+            "cpu", "nucleos", "l2_bytes", "l3_bytes", "jvm", "heap_max_bytes", "gc");
+
+    /** Descrição da configuração medida (o que variou neste experimento). */
+    public static final class Configuracao {
+        final String programa;
+        final String modo;
+        final String tamanho;
+        final int threads;
+        final String estrategia;
+        final String kernel;
+        final long semente;
+
+        public Configuracao(String programa, String modo, String tamanho, int threads,
+                            String estrategia, String kernel, long semente) {
+            this.programa = programa;
+            this.modo = modo;
+            this.tamanho = tamanho;
+            this.threads = threads;
+            this.estrategia = estrategia;
+            this.kernel = kernel;
+            this.semente = semente;
+        }
+    }
+
+    /**
+     * Acrescenta o experimento em <base>.csv e <base>.jsonl (modo append, como o log em texto).
+     * 'seq' pode ser null quando a linha de base sequencial não foi executada.
+     */
+    public static void registrar(String base, Configuracao cfg, InfoHardware hw,
+                                 Medicao<?> seq, Medicao<?> par, boolean valido) {
+        String dataHora = OffsetDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        double speedup = (seq == null) ? Double.NaN : seq.getMediana() / par.getMediana();
+        try {
+            escreverCsv(Paths.get(base + ".csv"), dataHora, cfg, hw, seq, par, speedup, valido);
+            escreverJson(Paths.get(base + ".jsonl"), dataHora, cfg, hw, seq, par, speedup, valido);
+            System.out.println("[!] Resultado estruturado salvo em '" + base + ".csv' e '" + base + ".jsonl'");
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar resultados estruturados: " + e.getMessage());
+        }
+    }
+
+    private static void escreverCsv(Path arquivo, String dataHora, Configuracao cfg, InfoHardware hw,
+                                    Medicao<?> seq, Medicao<?> par, double speedup, boolean valido) throws IOException {
+        boolean novo = !Files.exists(arquivo);
+        try (PrintWriter pw = new PrintWriter(new FileWriter(arquivo.toFile(), true))) {
+            if (novo) pw.println(CABECALHO_CSV);
+            pw.println(String.join(",",
+                    dataHora, csv(cfg.programa), csv(cfg.modo), csv(cfg.tamanho), Integer.toString(cfg.threads),
+                    csv(cfg.estrategia), csv(cfg.kernel), Long.toString(cfg.semente), Integer.toString(par.getRepeticoes()),
+                    colunasCsv(seq), colunasCsv(par),
+                    num(speedup), Boolean.toString(valido),
+                    csv(hw.getModeloCpu()), Integer.toString(hw.getNucleos()), Long.toString(hw.getCacheL2()),
+                    Long.toString(hw.getCacheL3()), csv(hw.getJvm()), Long.toString(hw.getHeapMaximo()), csv(hw.getColetores())));
+        }
+    }
+
+    private static String colunasCsv(Medicao<?> m) {
+        if (m == null) return ",,,,,";
+        return String.join(",", num(m.getMinimo()), num(m.getMediana()), num(m.getP95()), num(m.getDesvioPadrao()),
+                Long.toString(m.getTempoGcMs()), Long.toString(m.getBytesAlocados()));
+    }
+
+    private static void escreverJson(Path arquivo, String dataHora, Configuracao cfg, InfoHardware hw,
+                                     Medicao<?> seq, Medicao<?> par, double speedup, boolean valido) throws IOException {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append('{')
+          .append("\"data_hora\":").append(json(dataHora))
+          .append(",\"programa\":").append(json(cfg.programa))
+          .append(",\"modo\":").append(json(cfg.modo))
+          .append(",\"tamanho\":").append(json(cfg.tamanho))
+          .append(",\"threads\":").append(cfg.threads)
+          .append(",\"estrategia\":").append(json(cfg.estrategia))
+          .append(",\"kernel\":").append(json(cfg.kernel))
+          .append(",\"semente\":").append(cfg.semente)
+          .append(",\"repeticoes\":").append(par.getRepeticoes())
+          .append(",\"seq\":").append(objetoJson(seq))
+          .append(",\"par\":").append(objetoJson(par))
+          .append(",\"speedup\":").append(numJson(speedup))
+          .append(",\"valido\":").append(valido)
+          .append(",\"ambiente\":{")
+          .append("\"cpu\":").append(json(hw.getModeloCpu()))
+          .append(",\"nucleos\":").append(hw.getNucleos())
+          .append(",\"l1d_bytes\":").append(hw.getCacheL1d())
+          .append(",\"l2_bytes\":").append(hw.getCacheL2())
+          .append(",\"l3_bytes\":").append(hw.getCacheL3())
+          .append(",\"jvm\":").append(json(hw.getJvm()))
+          .append(",\"heap_max_bytes\":").append(hw.getHeapMaximo())
+          .append(",\"gc\":").append(json(hw.getColetores()))
+          .append("}}");
+        try (PrintWriter pw = new PrintWriter(new FileWriter(arquivo.toFile(), true))) {
+            pw.println(sb);
+        }
+    }
+
+    private static String objetoJson(Medicao<?> m) {
+        if (m == null) return "null";
+        StringBuilder tempos = new StringBuilder("[");
+        double[] t = m.getTempos();
+        for (int i = 0; i < t.length; i++) {
+            if (i > 0) tempos.append(',');
+            tempos.append(numJson(t[i]));
+        }
+        tempos.append(']');
+        return "{\"min_s\":" + numJson(m.getMinimo())
+                + ",\"mediana_s\":" + numJson(m.getMediana())
+                + ",\"p95_s\":" + numJson(m.getP95())
+                + ",\"desvio_s\":" + numJson(m.getDesvioPadrao())
+                + ",\"gc_ms\":" + m.getTempoGcMs()
+                + ",\"alocado_bytes\":" + m.getBytesAlocados()
+                + ",\"tempos_s\":" + tempos + "}";
+    }
+
+    // Números sempre com ponto decimal, independentemente do locale da máquina
+    private static String num(double v) {
+        return Double.isNaN(v) ? "" : String.format(Locale.ROOT, "%.6f", v);
+    }
+
+    private static String numJson(double v) {
+        return Double.isNaN(v) || Double.isInfinite(v) ? "null" : String.format(Locale.ROOT, "%.6f", v);
+    }
+
+    // Campo CSV: entre aspas se tiver vírgula, aspas ou quebra de linha
+    private static String csv(String s) {
+        if (s == null) return "";
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
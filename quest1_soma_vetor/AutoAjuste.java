@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Autoajuste do Número de Threads e da Granularidade
+ * * Problema: o número de threads era digitado à mão, e os logs mostram valores de 2 a 100000
+ * sendo testados um a um para achar o melhor.
+ * * Estratégia: sonda a máquina (núcleos, L2/L3 via InfoHardware) e faz ensaios curtos e cronometrados
+ * sobre uma AMOSTRA do vetor, variando:
+ * - threads do pool: potências de 2 até 2x o número de núcleos, mais o próprio número de núcleos;
+ * - tamanho da fatia (elementos por tarefa): uma fatia por thread, fatias fixas, e uma fatia que
+ *   cabe na L2 (os dois vetores da fatia ocupando metade da L2).
+ * A melhor combinação (menor tempo) é usada na execução real.
+ */
+public class AutoAjuste {
+
+    // Tamanho máximo da amostra usada nos ensaios (o começo do vetor)
+    private static final int TAMANHO_AMOSTRA_MAX = 8_000_000;
+    // Repetições cronometradas por combinação (vale o menor tempo, menos sensível a ruído)
+    private static final int REPETICOES = 3;
+    // Tempo máximo gasto com ensaios; ao estourar, fica com a melhor combinação até ali
+    private static final long ORCAMENTO_NS = 3_000_000_000L;
+    // Tamanhos fixos de fatia testados (em elementos)
+    private static final int[] FATIAS_FIXAS = {16 * 1024, 64 * 1024, 256 * 1024};
+
+    /** Configuração escolhida pelo autoajuste. */
+    public static final class Resultado {
+        private final int threads;
+        // 0 = divisão estática (uma fatia por thread, como o calcularParalelo original)
+        private final int elementosPorTarefa;
+        private final double tempoAmostra;
+        private final int ensaios;
+
+        Resultado(int threads, int elementosPorTarefa, double tempoAmostra, int ensaios) {
+            this.threads = threads;
+            this.elementosPorTarefa = elementosPorTarefa;
+            this.tempoAmostra = tempoAmostra;
+            this.ensaios = ensaios;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getElementosPorTarefa() {
+            return elementosPorTarefa;
+        }
+
+        /** Número de tarefas (fatias) para um vetor de 'tamanho' elementos, nunca menor que o de threads. */
+        public int getNumTarefas(int tamanho) {
+            return numTarefas(tamanho, threads, elementosPorTarefa);
+        }
+
+        public String getDescricaoFatia() {
+            return elementosPorTarefa == 0 ? "1/thread" : Integer.toString(elementosPorTarefa);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Threads: %d | Fatia: %s elem | Amostra: %.4fs | Ensaios: %d",
+                    threads, getDescricaoFatia(), tempoAmostra, ensaios);
+        }
+    }
+
+    static int numTarefas(int tamanho, int threads, int elementosPorTarefa) {
+        if (elementosPorTarefa == 0) return threads;
+        return Math.max(threads, tamanho / elementosPorTarefa);
+    }
+
+    /**
+     * Executa os ensaios sobre as primeiras posições do vetor.
+     * @param bytesPorElemento soma dos bytes lidos por elemento nos dois vetores (ex: 16 para long)
+     * @param tarefa kernel da fatia [inicio, fim), o mesmo que será usado na execução real
+     */
+    public static Resultado ajustar(InfoHardware hw, int tamanho, int bytesPorElemento,
+                                    BackendExecucao.TarefaIntervalo tarefa) throws InterruptedException {
+        int amostra = Math.min(tamanho, TAMANHO_AMOSTRA_MAX);
+        long inicioAjuste = System.nanoTime();
+
+        Resultado melhor = null;
+        int ensaios = 0;
+        for (int threads : candidatosThreads(hw.getNucleos())) {
+            try (BackendExecucao backend = BackendExecucao.criar(BackendExecucao.Tipo.POOL_FIXO, threads)) {
+                for (int fatia : candidatosFatia(hw, amostra, threads, bytesPorElemento)) {
+                    int numTarefas = numTarefas(amostra, threads, fatia);
+                    double tempo = cronometrar(backend, amostra, numTarefas, tarefa);
+                    ensaios++;
+                    System.out.printf("  [ensaio] threads=%-4d fatia=%-9s tempo=%.5fs%n", threads, fatia == 0 ? "1/thread" : fatia, tempo);
+                    if (melhor == null || tempo < melhor.tempoAmostra) {
+                        melhor = new Resultado(threads, fatia, tempo, ensaios);
+                    }
+                    if (System.nanoTime() - inicioAjuste > ORCAMENTO_NS) {
+                        System.out.println("  [ensaio] Orçamento de tempo esgotado, encerrando a busca.");
+                        return new Resultado(melhor.threads, melhor.elementosPorTarefa, melhor.tempoAmostra, ensaios);
+                    }
+                }
+            }
+        }
+        return new Resultado(melhor.threads, melhor.elementosPorTarefa, melhor.tempoAmostra, ensaios);
+    }
+
+    // Uma execução de aquecimento (JIT) e o menor tempo de REPETICOES execuções
+    private static double cronometrar(BackendExecucao backend, int amostra, int numTarefas,
+                                      BackendExecucao.TarefaIntervalo tarefa) throws InterruptedException {
+        backend.reduzir(amostra, numTarefas, tarefa);
+        long melhor = Long.MAX_VALUE;
+        for (int r = 0; r < REPETICOES; r++) {
+            long inicio = System.nanoTime();
+            backend.reduzir(amostra, numTarefas, tarefa);
+            melhor = Math.min(melhor, System.nanoTime() - inicio);
+        }
+        return melhor / 1e9;
+    }
+
+    // 1, 2, 4, ... até 2x núcleos, mais o número exato de núcleos
+    static List<Integer> candidatosThreads(int nucleos) {
+        TreeSet<Integer> candidatos = new TreeSet<>();
+        for (int t = 1; t <= 2 * nucleos; t *= 2) {
+            candidatos.add(t);
+        }
+        candidatos.add(nucleos);
+        return new ArrayList<>(candidatos);
+    }
+
+    static List<Integer> candidatosFatia(InfoHardware hw, int amostra, int threads, int bytesPorElemento) {
+        TreeSet<Integer> candidatos = new TreeSet<>();
+        // Divisão estática: uma fatia por thread (equivalente ao calcularParalelo original)
+        candidatos.add(0);
+        for (int f : FATIAS_FIXAS) {
+            if (f < amostra / threads) candidatos.add(f);
+        }
+        // Fatia cujos dados ocupam metade da L2 (a outra metade fica para o resto do programa)
+        if (hw.getCacheL2() > 0) {
+            int fatiaL2 = (int) Math.max(1024, hw.getCacheL2() / 2 / bytesPorElemento);
+            if (fatiaL2 < amostra / threads) candidatos.add(fatiaL2);
+        }
+        return new ArrayList<>(candidatos);
+    }
+}
@@ -0,0 +1,384 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Backends de Execução Reutilizáveis para o Produto Escalar
+ * * Objetivo: Desacoplar o número de tarefas lógicas (o "número de threads" pedido pelo usuário)
+ * do número de threads do SO efetivamente criadas.
+ * * Problema original: cada chamada de calcularParalelo cria 'n' WorkerThreads novas. Com 100000
+ * threads o custo de criação domina (7.98s contra 0.10s do sequencial no nosso log).
+ * * Estratégia: as threads (ou o pool) são criadas UMA vez e reaproveitadas entre chamadas.
+ * O vetor continua sendo dividido em 'numTarefas' fatias, mas elas são distribuídas entre os
+ * trabalhadores que já existem.
+ */
+public abstract class BackendExecucao implements AutoCloseable {
+
+    /**
+     * Trabalho de uma fatia [inicio, fim) do vetor. Retorna a soma parcial daquela fatia.
+     */
+    @FunctionalInterface
+    public interface TarefaIntervalo {
+        long calcular(int inicio, int fim);
+    }
+
+    /** Versão de TarefaIntervalo para somas em ponto flutuante (float/double). */
+    @FunctionalInterface
+    public interface TarefaIntervaloDouble {
+        double calcular(int inicio, int fim);
+    }
+
+    /** Ação executada sobre a fatia de índice 'fatia', que cobre [inicio, fim). */
+    @FunctionalInterface
+    public interface AcaoFatia {
+        void executar(int fatia, int inicio, int fim);
+    }
+
+    /** Tipos de backend disponíveis (usado pelo menu do main). */
+    public enum Tipo {
+        POOL_FIXO("Pool Fixo (threads persistentes)"),
+        FORK_JOIN("ForkJoinPool (divisão recursiva)"),
+        VIRTUAL("Threads Virtuais");
+
+        private final String descricao;
+
+        Tipo(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+
+    // Cache de backends: um por tipo, criado sob demanda e reaproveitado entre chamadas.
+    private static final BackendExecucao[] CACHE = new BackendExecucao[Tipo.values().length];
+
+    /**
+     * Retorna o backend compartilhado do tipo pedido, com paralelismo igual ao número de núcleos.
+     */
+    public static synchronized BackendExecucao compartilhado(Tipo tipo) {
+        int idx = tipo.ordinal();
+        if (CACHE[idx] == null) {
+            CACHE[idx] = criar(tipo, Runtime.getRuntime().availableProcessors());
+        }
+        return CACHE[idx];
+    }
+
+    /**
+     * Cria um backend novo (não compartilhado) com o paralelismo informado.
+     * Quem cria é responsável por chamar close().
+     */
+    public static BackendExecucao criar(Tipo tipo, int paralelismo) {
+        switch (tipo) {
+            case POOL_FIXO: return new PoolFixo(paralelismo);
+            case FORK_JOIN: return new ForkJoin(paralelismo);
+            case VIRTUAL:   return new Virtual();
+            default: throw new IllegalArgumentException("Backend desconhecido: " + tipo);
+        }
+    }
+
+    /**
+     * Divide [0, tamanho) em 'numTarefas' fatias contíguas e executa a ação em cada uma,
+     * retornando só quando todas terminarem.
+     * A divisão é a mesma do calcularParalelo original: a última fatia assume o resto.
+     */
+    public abstract void executarFatias(int tamanho, int numTarefas, AcaoFatia acao) throws InterruptedException;
+
+    /**
+     * Soma os resultados de cada fatia. Cada fatia escreve sua soma parcial numa posição
+     * exclusiva do vetor 'parciais' (sem sincronização), e a agregação é feita no final.
+     */
+    public long reduzir(int tamanho, int numTarefas, TarefaIntervalo tarefa) throws InterruptedException {
+        long[] parciais = new long[numTarefas];
+        executarFatias(tamanho, numTarefas, (fatia, inicio, fim) -> parciais[fatia] = tarefa.calcular(inicio, fim));
+        long somaTotal = 0;
+        for (long p : parciais) {
+            somaTotal += p;
+        }
+        return somaTotal;
+    }
+
+    /**
+     * Igual a reduzir, mas em double. As parciais são somadas sempre na ordem das fatias, então o
+     * resultado não depende de qual thread terminou primeiro (soma de ponto flutuante não é associativa).
+     */
+    public double reduzirDouble(int tamanho, int numTarefas, TarefaIntervaloDouble tarefa) throws InterruptedException {
+        double[] parciais = new double[numTarefas];
+        executarFatias(tamanho, numTarefas, (fatia, inicio, fim) -> parciais[fatia] = tarefa.calcular(inicio, fim));
+        double somaTotal = 0;
+        for (double p : parciais) {
+            somaTotal += p;
+        }
+        return somaTotal;
+    }
+
+    /** Número de threads do SO que o backend usa de fato. */
+    public abstract int getParalelismo();
+
+    public abstract String getNome();
+
+    @Override
+    public abstract void close();
+
+    // Limites da fatia 'i' de 'numTarefas' (mesma regra de resto da versão com WorkerThread)
+    static int inicioFatia(int i, int tamanhoBloco) {
+        return i * tamanhoBloco;
+    }
+
+    static int fimFatia(int i, int numTarefas, int tamanhoBloco, int tamanho) {
+        return (i == numTarefas - 1) ? tamanho : (i + 1) * tamanhoBloco;
+    }
+
+    // Threads daemon para que o pool não impeça a JVM de encerrar ao fim do main.
+    private static Thread novaThreadDaemon(Runnable r, String nome) {
+        Thread t = new Thread(r, nome);
+        t.setDaemon(true);
+        return t;
+    }
+
+    /**
+     * Backend equivalente ao comportamento original: cria uma thread nova por fatia a cada chamada.
+     * Não é reaproveitado; existe para que os kernels genéricos (ex: vetores compactos)
+     * também possam ser comparados com o modelo "uma thread por fatia".
+     */
+    public static BackendExecucao dedicadas() {
+        return new Dedicadas();
+    }
+
+    static final class Dedicadas extends BackendExecucao {
+        @Override
+        public void executarFatias(int tamanho, int numTarefas, AcaoFatia acao) throws InterruptedException {
+            int tamanhoBloco = tamanho / numTarefas;
+            Thread[] threads = new Thread[numTarefas];
+            // Primeira falha de uma fatia: relançada depois dos joins, como o obter() dos outros backends
+            AtomicReference<Throwable> falha = new AtomicReference<>();
+            for (int i = 0; i < numTarefas; i++) {
+                int fatia = i;
+                int inicio = inicioFatia(i, tamanhoBloco);
+                int fim = fimFatia(i, numTarefas, tamanhoBloco, tamanho);
+                threads[i] = new Thread(() -> {
+                    try {
+                        acao.executar(fatia, inicio, fim);
+                    } catch (Throwable t) {
+                        falha.compareAndSet(null, t);
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+            if (falha.get() != null) throw naoVerificada(falha.get());
+        }
+
+        @Override
+        public int getParalelismo() {
+            return Runtime.getRuntime().availableProcessors();
+        }
+
+        @Override
+        public String getNome() {
+            return "ThreadsDedicadas";
+        }
+
+        @Override
+        public void close() {
+            // Nada a liberar: as threads terminam ao fim de cada chamada
+        }
+    }
+
+    /**
+     * Pool Fixo: 'paralelismo' threads persistentes.
+     * Em vez de submeter uma tarefa por fatia (o que custaria um Future por fatia), cada thread do
+     * pool "pega" o próximo índice de fatia num contador atômico (auto-escalonamento dinâmico).
+     * Assim, 100000 fatias custam 100000 incrementos atômicos, e não 100000 threads.
+     */
+    static final class PoolFixo extends BackendExecucao {
+        private final ExecutorService pool;
+        private final int paralelismo;
+
+        PoolFixo(int paralelismo) {
+            this.paralelismo = paralelismo;
+            AtomicInteger contador = new AtomicInteger();
+            this.pool = Executors.newFixedThreadPool(paralelismo,
+                    r -> novaThreadDaemon(r, "pool-fixo-" + contador.getAndIncrement()));
+        }
+
+        @Override
+        public void executarFatias(int tamanho, int numTarefas, AcaoFatia acao) throws InterruptedException {
+            int tamanhoBloco = tamanho / numTarefas;
+            AtomicInteger proximaFatia = new AtomicInteger();
+
+            // Nunca dispara mais trabalhadores do que fatias
+            int trabalhadores = Math.min(paralelismo, numTarefas);
+            Callable<Void> trabalhador = () -> {
+                int i;
+                while ((i = proximaFatia.getAndIncrement()) < numTarefas) {
+                    acao.executar(i, inicioFatia(i, tamanhoBloco), fimFatia(i, numTarefas, tamanhoBloco, tamanho));
+                }
+                return null;
+            };
+
+            Future<?>[] futuros = new Future<?>[trabalhadores];
+            for (int t = 0; t < trabalhadores; t++) {
+                futuros[t] = pool.submit(trabalhador);
+            }
+            aguardar(futuros);
+        }
+
+        @Override
+        public int getParalelismo() {
+            return paralelismo;
+        }
+
+        @Override
+        public String getNome() {
+            return "PoolFixo(" + paralelismo + ")";
+        }
+
+        @Override
+        public void close() {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * ForkJoinPool: divide o intervalo de FATIAS recursivamente ao meio até sobrar uma fatia
+     * (ou um bloco pequeno demais para valer a pena dividir). O work-stealing balanceia a carga.
+     */
+    static final class ForkJoin extends BackendExecucao {
+        // Abaixo disso (em elementos) não compensa criar subtarefas.
+        private static final int LIMIAR_ELEMENTOS = 1 << 15;
+
+        private final ForkJoinPool pool;
+
+        ForkJoin(int paralelismo) {
+            this.pool = new ForkJoinPool(paralelismo);
+        }
+
+        @Override
+        public void executarFatias(int tamanho, int numTarefas, AcaoFatia acao) {
+            int tamanhoBloco = tamanho / numTarefas;
+            pool.invoke(new TarefaRecursiva(acao, 0, numTarefas, numTarefas, tamanhoBloco, tamanho));
+        }
+
+        @Override
+        public int getParalelismo() {
+            return pool.getParallelism();
+        }
+
+        @Override
+        public String getNome() {
+            return "ForkJoin(" + pool.getParallelism() + ")";
+        }
+
+        @Override
+        public void close() {
+            pool.shutdownNow();
+        }
+
+        private static final class TarefaRecursiva extends RecursiveAction {
+            private final AcaoFatia acao;
+            // Intervalo de fatias [fatiaInicio, fatiaFim) desta subtarefa
+            private final int fatiaInicio, fatiaFim;
+            private final int numTarefas, tamanhoBloco, tamanho;
+
+            TarefaRecursiva(AcaoFatia acao, int fatiaInicio, int fatiaFim,
+                            int numTarefas, int tamanhoBloco, int tamanho) {
+                this.acao = acao;
+                this.fatiaInicio = fatiaInicio;
+                this.fatiaFim = fatiaFim;
+                this.numTarefas = numTarefas;
+                this.tamanhoBloco = tamanhoBloco;
+                this.tamanho = tamanho;
+            }
+
+            @Override
+            protected void compute() {
+                int inicio = inicioFatia(fatiaInicio, tamanhoBloco);
+                int fim = fimFatia(fatiaFim - 1, numTarefas, tamanhoBloco, tamanho);
+
+                // Caso base: uma fatia só, ou poucas fatias pequenas -> processa direto.
+                if (fatiaFim - fatiaInicio == 1 || fim - inicio <= LIMIAR_ELEMENTOS) {
+                    for (int i = fatiaInicio; i < fatiaFim; i++) {
+                        acao.executar(i, inicioFatia(i, tamanhoBloco), fimFatia(i, numTarefas, tamanhoBloco, tamanho));
+                    }
+                    return;
+                }
+
+                int meio = (fatiaInicio + fatiaFim) >>> 1;
+                invokeAll(new TarefaRecursiva(acao, fatiaInicio, meio, numTarefas, tamanhoBloco, tamanho),
+                          new TarefaRecursiva(acao, meio, fatiaFim, numTarefas, tamanhoBloco, tamanho));
+            }
+        }
+    }
+
+    /**
+     * Threads Virtuais: uma thread virtual por fatia. Threads virtuais são baratas de criar
+     * (são agendadas pela JVM sobre um pequeno pool de threads do SO), então pedir 100000
+     * continua viável. O executor é reaproveitado entre chamadas.
+     */
+    static final class Virtual extends BackendExecucao {
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        @Override
+        public void executarFatias(int tamanho, int numTarefas, AcaoFatia acao) throws InterruptedException {
+            int tamanhoBloco = tamanho / numTarefas;
+            Future<?>[] futuros = new Future<?>[numTarefas];
+            for (int i = 0; i < numTarefas; i++) {
+                int fatia = i;
+                int inicio = inicioFatia(i, tamanhoBloco);
+                int fim = fimFatia(i, numTarefas, tamanhoBloco, tamanho);
+                futuros[i] = executor.submit(() -> acao.executar(fatia, inicio, fim));
+            }
+            aguardar(futuros);
+        }
+
+        @Override
+        public int getParalelismo() {
+            // O escalonador de threads virtuais usa, por padrão, uma carrier thread por núcleo.
+            return Runtime.getRuntime().availableProcessors();
+        }
+
+        @Override
+        public String getNome() {
+            return "Virtual";
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    // --- Utilitários de sincronização ---
+
+    private static void aguardar(Future<?>[] futuros) throws InterruptedException {
+        for (Future<?> f : futuros) {
+            obter(f);
+        }
+    }
+
+    private static <T> T obter(Future<T> f) throws InterruptedException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            // Propaga a falha da tarefa na thread chamadora (sem engolir a causa)
+            throw naoVerificada(e.getCause());
+        }
+    }
+
+    // A falha de uma fatia como exceção não verificada (Error é relançado como está)
+    private static RuntimeException naoVerificada(Throwable causa) {
+        if (causa instanceof RuntimeException) return (RuntimeException) causa;
+        if (causa instanceof Error) throw (Error) causa;
+        return new IllegalStateException(causa);
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Geração Paralela, Determinística e com Semente dos Vetores
+ * * Problema: gerarVetor usa um único java.util.Random compartilhado, numa thread só. Nos tamanhos
+ * usados (50 milhões) a geração demora mais que o próprio cálculo medido, e cada execução usa
+ * dados diferentes (impossível reproduzir um resultado).
+ * * Estratégia: o vetor é dividido em blocos fixos de TAMANHO_BLOCO elementos. Cada bloco tem o
+ * SEU gerador (SplittableRandom), cuja semente é derivada apenas de (semente, índice do bloco).
+ * Assim, o valor da posição i depende só da semente e de i — nunca de qual thread gerou o bloco
+ * nem da ordem de execução. Resultado: dados idênticos byte a byte com 1 ou 64 threads.
+ * * Valores: inteiros aleatórios de 0 a 99, como no gerarVetor original.
+ */
+public class GeradorVetores {
+
+    // Tamanho do bloco com gerador próprio. Fixo: mudar este valor muda os dados gerados.
+    static final int TAMANHO_BLOCO = 1 << 16;
+
+    // Limite superior (exclusivo) dos valores gerados
+    static final int VALOR_MAXIMO = 100;
+
+    // Constante de Weyl (razão áurea em 64 bits), a mesma usada internamente pelo SplittableRandom
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Escritor de um elemento na posição i do vetor de destino. */
+    @FunctionalInterface
+    interface Escritor {
+        void escrever(int i, int valor);
+    }
+
+    /** Semente a partir do relógio, para quando o usuário não informa uma (0). */
+    static long sementeAleatoria() {
+        return misturar(System.nanoTime());
+    }
+
+    /** Semente do vetor B derivada da semente do experimento (A usa a semente original). */
+    static long sementeDerivada(long semente, int fluxo) {
+        return misturar(semente + fluxo * GAMMA);
+    }
+
+    /** Gerador exclusivo do bloco 'bloco': depende apenas de (semente, bloco). */
+    static SplittableRandom geradorDoBloco(long semente, long bloco) {
+        return new SplittableRandom(misturar(semente + (bloco + 1) * GAMMA));
+    }
+
+    // Finalizador do MurmurHash3: espalha bem sementes próximas (ex: 1, 2, 3...)
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Preenche as posições [0, tamanho) em paralelo, um bloco por tarefa, usando 'numThreads'
+     * threads. O resultado não depende de numThreads.
+     */
+    static void preencher(int tamanho, long semente, int numThreads, Escritor escritor) {
+        int numBlocos = (tamanho + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            pool.submit(() -> IntStream.range(0, numBlocos).parallel().forEach(bloco -> {
+                SplittableRandom rand = geradorDoBloco(semente, bloco);
+                int inicio = bloco * TAMANHO_BLOCO;
+                int fim = Math.min(inicio + TAMANHO_BLOCO, tamanho);
+                for (int i = inicio; i < fim; i++) {
+                    escritor.escrever(i, rand.nextInt(VALOR_MAXIMO));
+                }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Por padrão a geração usa todos os núcleos (a fase de preparação escala com a máquina)
+    private static int threadsPadrao() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    // --- Vetores por tipo (os valores são os mesmos em todos os tipos para a mesma semente) ---
+
+    static long[] gerarLong(int tamanho, long semente) {
+        long[] v = new long[tamanho];
+        preencher(tamanho, semente, threadsPadrao(), (i, valor) -> v[i] = valor);
+        return v;
+    }
+
+    static byte[] gerarByte(int tamanho, long semente) {
+        byte[] v = new byte[tamanho];
+        preencher(tamanho, semente, threadsPadrao(), (i, valor) -> v[i] = (byte) valor);
+        return v;
+    }
+
+    static short[] gerarShort(int tamanho, long semente) {
+        short[] v = new short[tamanho];
+        preencher(tamanho, semente, threadsPadrao(), (i, valor) -> v[i] = (short) valor);
+        return v;
+    }
+
+    static int[] gerarInt(int tamanho, long semente) {
+        int[] v = new int[tamanho];
+        preencher(tamanho, semente, threadsPadrao(), (i, valor) -> v[i] = valor);
+        return v;
+    }
+
+    static float[] gerarFloat(int tamanho, long semente) {
+        float[] v = new float[tamanho];
+        preencher(tamanho, semente, threadsPadrao(), (i, valor) -> v[i] = valor);
+        return v;
+    }
+
+    static double[] gerarDouble(int tamanho, long semente) {
+        double[] v = new double[tamanho];
+        preencher(tamanho, semente, threadsPadrao(), (i, valor) -> v[i] = valor);
+        return v;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Kernel do Produto Escalar (laço crítico)
+ * * Objetivo: Isolar o laço "soma += a[i] * b[i]" para que a mesma implementação seja usada
+ * tanto na execução sequencial quanto dentro de cada fatia paralela.
+ * * Implementações:
+ * - ESCALAR: laço simples, um elemento por iteração (versão original).
+ * - SIMD: Java Vector API (jdk.incubator.vector), processa vários elementos por instrução.
+ *   Exige '--add-modules jdk.incubator.vector' na compilação e na execução. Sem o módulo,
+ *   simd() devolve null; quem chama (o main de ProdutoEscalarLog) avisa e usa o ESCALAR.
+ */
+public interface KernelProduto {
+
+    /** Produto escalar da fatia [inicio, fim) dos vetores a e b. */
+    long calcular(long[] a, long[] b, int inicio, int fim);
+
+    String getNome();
+
+    /** Kernel escalar: exatamente o laço original. */
+    KernelProduto ESCALAR = new KernelProduto() {
+        @Override
+        public long calcular(long[] a, long[] b, int inicio, int fim) {
+            long soma = 0;
+            for (int i = inicio; i < fim; i++) {
+                soma += a[i] * b[i];
+            }
+            return soma;
+        }
+
+        @Override
+        public String getNome() {
+            return "Escalar";
+        }
+    };
+
+    /**
+     * Retorna o kernel SIMD, ou null se o módulo jdk.incubator.vector não estiver disponível.
+     * A classe KernelSimd é carregada por reflexão para que o programa continue rodando
+     * (no modo escalar) quando a JVM é iniciada sem o módulo incubador.
+     */
+    static KernelProduto simd() {
+        try {
+            return (KernelProduto) Class.forName("KernelSimd").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
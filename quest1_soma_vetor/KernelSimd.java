@@ -0,0 +1,57 @@
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel SIMD do Produto Escalar usando a Java Vector API.
+ * * Por que: o JIT não vetoriza de forma confiável a redução "soma += a[i] * b[i]" com long.
+ * Aqui a vetorização é explícita: cada instrução multiplica e acumula 'LANES' elementos.
+ * * Largura automática: SPECIES_PREFERRED escolhe o maior registrador vetorial suportado pela
+ * CPU (ex: 4 longs com AVX2, 8 longs com AVX-512, 2 longs com NEON/SSE).
+ * * Compilação/Execução: javac --add-modules jdk.incubator.vector -d . *.java ../comum/*.java
+ *                        java --add-modules jdk.incubator.vector ProdutoEscalarLog
+ */
+public class KernelSimd implements KernelProduto {
+
+    private static final VectorSpecies<Long> ESPECIE = LongVector.SPECIES_PREFERRED;
+    private static final int LANES = ESPECIE.length();
+
+    @Override
+    public long calcular(long[] a, long[] b, int inicio, int fim) {
+        // Dois acumuladores independentes escondem a latência da multiplicação/soma vetorial
+        LongVector acc1 = LongVector.zero(ESPECIE);
+        LongVector acc2 = LongVector.zero(ESPECIE);
+
+        int i = inicio;
+        int limiteDuplo = fim - 2 * LANES + 1;
+        for (; i < limiteDuplo; i += 2 * LANES) {
+            LongVector va1 = LongVector.fromArray(ESPECIE, a, i);
+            LongVector vb1 = LongVector.fromArray(ESPECIE, b, i);
+            LongVector va2 = LongVector.fromArray(ESPECIE, a, i + LANES);
+            LongVector vb2 = LongVector.fromArray(ESPECIE, b, i + LANES);
+            acc1 = acc1.add(va1.mul(vb1));
+            acc2 = acc2.add(va2.mul(vb2));
+        }
+
+        // Um bloco vetorial restante (se houver)
+        int limite = fim - LANES + 1;
+        for (; i < limite; i += LANES) {
+            LongVector va = LongVector.fromArray(ESPECIE, a, i);
+            LongVector vb = LongVector.fromArray(ESPECIE, b, i);
+            acc1 = acc1.add(va.mul(vb));
+        }
+
+        long soma = acc1.add(acc2).reduceLanes(VectorOperators.ADD);
+
+        // Cauda escalar: elementos que não completam um vetor inteiro
+        for (; i < fim; i++) {
+            soma += a[i] * b[i];
+        }
+        return soma;
+    }
+
+    @Override
+    public String getNome() {
+        return "SIMD(" + LANES + "x64)";
+    }
+}
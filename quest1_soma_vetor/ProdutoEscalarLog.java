@@ -1,7 +1,8 @@
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.Random;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Scanner;
 
 /**
@@ -9,7 +10,13 @@ import java.util.Scanner;
  * Disciplina: Sistemas Operacionais - UFAM
  * * Objetivo: Calcular o produto escalar entre dois vetores grandes.
  * Estratégia: Dividir o vetor em blocos contíguos e processar cada bloco em uma thread separada.
- * Métricas: Compara o tempo de execução (Speedup) e salva em log.
+ * Métricas: Compara o tempo de execução (Speedup) e salva em log (texto, CSV e JSON Lines).
+ * * Compilação: javac --add-modules jdk.incubator.vector -d . *.java ../comum/*.java
+ * (InfoHardware, Medicao, RegistroResultados e LinhaDoTempoThreads ficam em comum/, compartilhados
+ * com a outra questão)
+ * Execução:   java --add-modules jdk.incubator.vector ProdutoEscalarLog
+ * (sem o módulo o programa roda normalmente, apenas sem o kernel SIMD)
+ * Linha do tempo por thread (threads dedicadas): -Dinstrumentar.threads=true (ver LinhaDoTempoThreads)
  */
 public class ProdutoEscalarLog {
 
@@ -17,58 +24,173 @@ public class ProdutoEscalarLog {
     // custo computacional supere o overhead de criação das threads.
     private static final int TAMANHO_VETOR = 50_000_000; 
 
+    // Base dos arquivos de resultado estruturado (.csv e .jsonl)
+    static final String ARQUIVO_RESULTADOS = "resultados_produto_escalar";
+
     public static void main(String[] args) throws InterruptedException {
         Scanner scanner = new Scanner(System.in);
 
         // --- 1. Identificação do Ambiente ---
         // Permite classificar os resultados no relatório final baseados no hardware utilizado.
+        // A máquina é detectada automaticamente (CPU, núcleos, caches, JVM, heap, GC).
         System.out.println("=== Configuração do Experimento ===");
-        System.out.println("Qual computador você está usando?");
-        System.out.println("1 - Notebook Local");
-        System.out.println("2 - PC Lab");
+        InfoHardware hw = InfoHardware.sondar();
+        System.out.println(hw.getDescricaoCompleta());
+
+        // Cada configuração roda N vezes; o log guarda mínimo, mediana, p95 e desvio padrão.
+        System.out.print("\nRepetições por configuração (ex: 5): ");
+        int repeticoes = Math.max(1, scanner.nextInt());
+
+        // Semente dos dados: a mesma semente gera exatamente os mesmos vetores (reprodutibilidade).
+        System.out.print("\nSemente dos dados (0 = aleatória): ");
+        long semente = scanner.nextLong();
+        if (semente == 0) semente = GeradorVetores.sementeAleatoria();
+        System.out.println("Semente usada: " + semente);
+
+        // Modo de armazenamento dos vetores: no heap (long[]), em arquivos mapeados (out-of-core)
+        // ou em fluxo (gerados em blocos enquanto são consumidos, memória limitada pela fila)
+        System.out.println("\nOnde ficam os vetores?");
+        System.out.println("1 - Memória (long[] no heap, " + TAMANHO_VETOR + " elementos)");
+        System.out.println("2 - Arquivos mapeados (out-of-core, tamanho livre)");
+        System.out.println("3 - Fluxo produtor/consumidor (streaming, tamanho livre)");
+        System.out.println("4 - Lote (K produtos contra o mesmo vetor = matriz x vetor)");
         System.out.print("Opção: ");
-        int opcaoPc = scanner.nextInt();
-        
-        String nomePc = (opcaoPc == 1) ? "Notebook Local" : "PC Lab";
-        if (opcaoPc != 1 && opcaoPc != 2) nomePc = "Outro/Desconhecido";
+        int opcaoModo = scanner.nextInt();
+        if (opcaoModo >= 2 && opcaoModo <= 4) {
+            if (opcaoModo == 2) ProdutoEscalarMapeado.executar(scanner, hw, semente, repeticoes);
+            else if (opcaoModo == 3) ProdutoEscalarStreaming.executar(scanner, hw, semente, repeticoes);
+            else executarLote(scanner, hw, semente, repeticoes);
+            scanner.close();
+            return;
+        }
+
+        // Tipo do elemento: long[] é o original; os compactos leem menos bytes por elemento
+        System.out.println("\nTipo do elemento dos vetores:");
+        System.out.println("0 - long (original, 8 bytes)");
+        VetoresCompactos.TipoElemento[] tiposElem = VetoresCompactos.TipoElemento.values();
+        for (int i = 0; i < tiposElem.length; i++) {
+            System.out.println((i + 1) + " - " + tiposElem[i].name().toLowerCase() + " (" + tiposElem[i].bytes + " bytes)");
+        }
+        System.out.print("Opção: ");
+        int opcaoTipo = scanner.nextInt();
+        if (opcaoTipo >= 1 && opcaoTipo <= tiposElem.length) {
+            System.out.print("Digite o número de threads para o teste paralelo: ");
+            int numThreads = Math.max(1, scanner.nextInt());
+            BackendExecucao backend = escolherBackend(scanner);
+            VetoresCompactos.executar(tiposElem[opcaoTipo - 1], TAMANHO_VETOR, numThreads,
+                    backend == null ? BackendExecucao.dedicadas() : backend, hw, semente, repeticoes);
+            // O backend escolhido é o compartilhado (cache): não é fechado aqui
+            scanner.close();
+            return;
+        }
 
         // Geração dos dados: Preenchimento aleatório para simular carga real de processamento.
         System.out.println("\nGerando vetores de tamanho: " + TAMANHO_VETOR + "...");
-        long[] vetorA = gerarVetor(TAMANHO_VETOR);
-        long[] vetorB = gerarVetor(TAMANHO_VETOR);
+        long inicioGeracao = System.nanoTime();
+        long[] vetorA = gerarVetor(TAMANHO_VETOR, semente);
+        long[] vetorB = gerarVetor(TAMANHO_VETOR, GeradorVetores.sementeDerivada(semente, 1));
+        System.out.printf("Vetores gerados em %.4f s\n", (System.nanoTime() - inicioGeracao) / 1e9);
         
-        System.out.print("Digite o número de threads para o teste paralelo: ");
+        System.out.print("Digite o número de threads para o teste paralelo (0 = autoajuste): ");
         int numThreads = scanner.nextInt();
+        boolean autoAjuste = numThreads <= 0;
+
+        // No autoajuste o backend é escolhido pelos ensaios (pool fixo com o melhor número de threads)
+        BackendExecucao backend = autoAjuste ? null : escolherBackend(scanner);
+        String nomeBackend = (backend == null) ? "ThreadsDedicadas" : backend.getNome();
+
+        // Kernel do laço crítico: escalar (original) ou SIMD (Vector API).
+        // O mesmo kernel é usado no sequencial e dentro de cada fatia paralela.
+        System.out.println("\nKernel de cálculo:");
+        System.out.println("1 - Escalar");
+        System.out.println("2 - SIMD (Vector API)");
+        System.out.print("Opção: ");
+        int opcaoKernel = scanner.nextInt();
+        KernelProduto kernel = KernelProduto.ESCALAR;
+        if (opcaoKernel == 2) {
+            kernel = KernelProduto.simd();
+            if (kernel == null) {
+                System.err.println("[!] Vector API indisponível (rode com --add-modules jdk.incubator.vector). Usando Escalar.");
+                kernel = KernelProduto.ESCALAR;
+            }
+        }
+
+        if (autoAjuste) {
+            System.out.println("\n>>> Autoajuste (" + hw + ")");
+            KernelProduto k = kernel;
+            AutoAjuste.Resultado ajuste = AutoAjuste.ajustar(hw, TAMANHO_VETOR, 2 * Long.BYTES,
+                    (inicio, fim) -> k.calcular(vetorA, vetorB, inicio, fim));
+            System.out.println("Configuração escolhida: " + ajuste);
+
+            // A execução real usa a configuração vencedora; os parâmetros vão para o log
+            backend = BackendExecucao.criar(BackendExecucao.Tipo.POOL_FIXO, ajuste.getThreads());
+            numThreads = ajuste.getNumTarefas(TAMANHO_VETOR);
+            nomeBackend = "Auto:" + backend.getNome() + "/fatia=" + ajuste.getDescricaoFatia();
+        }
+
+        // --- 2 a 5. Execuções Sequencial e Paralela, Análise e Persistência ---
+        KernelProduto k = kernel;
+        BackendExecucao b = backend;
+        int tarefas = numThreads;
+        RegistroResultados.Configuracao cfg = new RegistroResultados.Configuracao("ProdutoEscalar", "heap",
+                Integer.toString(TAMANHO_VETOR), numThreads, nomeBackend, kernel.getNome(), semente);
+        medirERegistrar(hw, cfg, repeticoes, 2L * TAMANHO_VETOR * Long.BYTES,
+                () -> calcularSequencial(vetorA, vetorB, k),
+                () -> (b == null)
+                        ? calcularParalelo(vetorA, vetorB, tarefas, k)
+                        : calcularParalelo(vetorA, vetorB, tarefas, b, k));
+        LinhaDoTempoThreads.relatar(ARQUIVO_RESULTADOS + "_linha_do_tempo.json");
+
+        // Só o backend do autoajuste (BackendExecucao.criar) pertence a este método; os escolhidos
+        // no menu são os compartilhados do cache e continuam abertos para os próximos usos
+        if (autoAjuste) backend.close();
+        scanner.close();
+    }
 
+    /**
+     * Roteiro comum de medição (usado pelos modos heap, compacto e mapeado):
+     * roda Seq e Par 'repeticoes' vezes, imprime as medianas, valida e salva nos três formatos.
+     * @param bytesPorExecucao bytes lidos por uma execução completa (para a vazão em GB/s)
+     */
+    static <T> void medirERegistrar(InfoHardware hw, RegistroResultados.Configuracao cfg, int repeticoes,
+                                    long bytesPorExecucao, Medicao.Calculo<T> sequencial,
+                                    Medicao.Calculo<T> paralelo) throws InterruptedException {
         // --- 2. Execução Sequencial (Single-Thread) ---
         // Executa o cálculo na thread principal para estabelecer o tempo base (Ts).
-        System.out.println("\n>>> Executando Sequencial...");
-        long inicioSeq = System.nanoTime();
-        long resultadoSeq = calcularSequencial(vetorA, vetorB);
-        long fimSeq = System.nanoTime();
-        
-        // Conversão de nanosegundos para segundos
-        double tempoSeq = (fimSeq - inicioSeq) / 1e9; 
+        System.out.println("\n>>> Executando Sequencial (" + repeticoes + "x)...");
+        Medicao<T> seq = Medicao.executar(repeticoes, sequencial);
 
         // --- 3. Execução Paralela (Multi-Thread) ---
         // Distribui a carga entre 'n' threads para obter o tempo paralelo (Tp).
-        System.out.println(">>> Executando Paralelo (" + numThreads + " threads)...");
-        long inicioPar = System.nanoTime();
-        long resultadoPar = calcularParalelo(vetorA, vetorB, numThreads);
-        long fimPar = System.nanoTime();
-        double tempoPar = (fimPar - inicioPar) / 1e9; 
+        System.out.println(">>> Executando Paralelo (" + cfg.threads + " threads, backend " + cfg.estrategia
+                + ", kernel " + cfg.kernel + ", " + repeticoes + "x)...");
+        Medicao<T> par = Medicao.executar(repeticoes, paralelo);
 
         // --- 4. Análise de Desempenho ---
-        // Speedup (Aceleração) = Tempo Sequencial / Tempo Paralelo
+        // Speedup (Aceleração) = Tempo Sequencial / Tempo Paralelo (pelas medianas)
+        double tempoSeq = seq.getMediana();
+        double tempoPar = par.getMediana();
         double speedup = tempoSeq / tempoPar;
 
-        System.out.println("\n=== Resultados ===");
-        System.out.printf("Tempo Sequencial: %.4f s\n", tempoSeq);
-        System.out.printf("Tempo Paralelo:   %.4f s\n", tempoPar);
+        // Vazão de memória: bytes lidos dos dois vetores por segundo.
+        // Como o produto escalar é limitado por banda, GB/s é a métrica que compara os kernels.
+        double gbSeq = bytesPorExecucao / tempoSeq / 1e9;
+        double gbPar = bytesPorExecucao / tempoPar / 1e9;
+
+        System.out.println("\n=== Resultados (mediana de " + repeticoes + ") ===");
+        System.out.printf("Tempo Sequencial: %.4f s (%.2f GB/s) | min %.4f | p95 %.4f | desvio %.4f\n",
+                tempoSeq, gbSeq, seq.getMinimo(), seq.getP95(), seq.getDesvioPadrao());
+        System.out.printf("Tempo Paralelo:   %.4f s (%.2f GB/s) | min %.4f | p95 %.4f | desvio %.4f\n",
+                tempoPar, gbPar, par.getMinimo(), par.getP95(), par.getDesvioPadrao());
         System.out.printf("Speedup (Sp):     %.2f x\n", speedup);
+        System.out.printf("GC: Seq %d ms / Par %d ms | Alocado: Seq %d B / Par %d B\n",
+                seq.getTempoGcMs(), par.getTempoGcMs(), seq.getBytesAlocados(), par.getBytesAlocados());
 
-        // Validação de Integridade: Confirma se a soma paralela é matematicamente igual à sequencial.
-        if (resultadoSeq == resultadoPar) {
+        // Validação de Integridade: Confirma se a soma paralela é matematicamente igual à sequencial
+        // (e se todas as repetições deram o mesmo valor). deepEquals cobre os resultados em lote (long[]).
+        boolean valido = Objects.deepEquals(seq.getResultado(), par.getResultado())
+                && seq.isConsistente() && par.isConsistente();
+        if (valido) {
             System.out.println("Validação: OK (Resultados iguais)");
         } else {
             System.err.println("Validação: ERRO (Resultados diferentes - Verifique a lógica das threads)");
@@ -76,20 +198,88 @@ public class ProdutoEscalarLog {
 
         // --- 5. Persistência ---
         // Salva os dados para análise posterior em planilhas/gráficos.
-        salvarLog(nomePc, TAMANHO_VETOR, numThreads, tempoSeq, tempoPar, speedup);
-        
-        scanner.close();
+        salvarLog(hw.getResumo(), cfg.tamanho, cfg.threads, cfg.estrategia, cfg.kernel, tempoSeq, tempoPar, speedup, gbSeq, gbPar);
+        RegistroResultados.registrar(ARQUIVO_RESULTADOS, cfg, hw, seq, par, valido);
+    }
+
+    /**
+     * Modo Lote: K vetores (linhas) multiplicados pelo mesmo vetor x, ou seja, y = M·x.
+     * Sequencial = K chamadas de calcularSequencial; Paralelo = uma única passada de calcularLote.
+     * Para comparação, imprime também o custo de K chamadas separadas de calcularParalelo.
+     */
+    private static void executarLote(Scanner scanner, InfoHardware hw, long semente, int repeticoes)
+            throws InterruptedException {
+        System.out.print("\nNúmero de produtos no lote (K): ");
+        int k = Math.max(1, scanner.nextInt());
+        System.out.print("Tamanho de cada vetor em milhares de elementos (ex: 1000): ");
+        int tamanho = Math.max(1, scanner.nextInt()) * 1000;
+        System.out.print("Digite o número de threads para o teste paralelo: ");
+        int numThreads = Math.max(1, scanner.nextInt());
+        BackendExecucao escolhido = escolherBackend(scanner);
+        BackendExecucao backend = (escolhido == null) ? BackendExecucao.dedicadas() : escolhido;
+
+        // Pedaço de x que cabe em metade da L2 (o resto da L2 fica para os trechos das linhas)
+        int blocoX = (hw.getCacheL2() > 0) ? (int) Math.max(1024, hw.getCacheL2() / 2 / Long.BYTES) : BLOCO_LOTE;
+
+        System.out.println("\nGerando " + k + " linhas + vetor x de tamanho: " + tamanho + "...");
+        long inicioGeracao = System.nanoTime();
+        long[] x = gerarVetor(tamanho, semente);
+        long[][] linhas = new long[k][];
+        for (int i = 0; i < k; i++) {
+            // Fluxo 1 é o vetor B dos outros modos; as linhas do lote usam os fluxos 2, 3, ...
+            linhas[i] = gerarVetor(tamanho, GeradorVetores.sementeDerivada(semente, 2 + i));
+        }
+        System.out.printf("Dados gerados em %.4f s\n", (System.nanoTime() - inicioGeracao) / 1e9);
+
+        // Referência: um disparo de threads (e uma leitura completa de x) por produto
+        Medicao<long[]> separados = Medicao.executar(repeticoes, () -> {
+            long[] y = new long[k];
+            for (int i = 0; i < k; i++) y[i] = calcularParalelo(linhas[i], x, numThreads, backend);
+            return y;
+        });
+        System.out.printf("K x calcularParalelo (referência): %.4f s (mediana)\n", separados.getMediana());
+
+        RegistroResultados.Configuracao cfg = new RegistroResultados.Configuracao("ProdutoEscalar",
+                "lote(K=" + k + ")", Integer.toString(tamanho), numThreads, backend.getNome() + "/blocoX=" + blocoX,
+                "Escalar", semente);
+        // Bytes lidos: K linhas + x (uma vez por bloco, reaproveitado da cache pelas K linhas)
+        medirERegistrar(hw, cfg, repeticoes, (long) (k + 1) * tamanho * Long.BYTES,
+                () -> {
+                    long[] y = new long[k];
+                    for (int i = 0; i < k; i++) y[i] = calcularSequencial(linhas[i], x);
+                    return y;
+                },
+                () -> calcularLote(linhas, x, numThreads, backend, blocoX, KernelProduto.ESCALAR));
+        // Sem close(): o backend escolhido é o compartilhado do cache (e o de dedicadas não tem recursos)
+    }
+
+    // Backend de execução: define COMO as 'n' fatias viram threads do SO.
+    // A opção 0 (retorno null) mantém o comportamento original (uma WorkerThread nova por fatia).
+    private static BackendExecucao escolherBackend(Scanner scanner) {
+        System.out.println("\nBackend de execução:");
+        System.out.println("0 - Threads Dedicadas (uma WorkerThread por fatia)");
+        BackendExecucao.Tipo[] tipos = BackendExecucao.Tipo.values();
+        for (int i = 0; i < tipos.length; i++) {
+            System.out.println((i + 1) + " - " + tipos[i].getDescricao());
+        }
+        System.out.print("Opção: ");
+        int opcaoBackend = scanner.nextInt();
+        return (opcaoBackend >= 1 && opcaoBackend <= tipos.length)
+                ? BackendExecucao.compartilhado(tipos[opcaoBackend - 1])
+                : null;
     }
 
     // --- Lógica de Persistência em Arquivo ---
-    private static void salvarLog(String pc, int tamanho, int threads, double tSeq, double tPar, double sp) {
+    static void salvarLog(String pc, String tamanho, int threads, String backend, String kernel,
+                          double tSeq, double tPar, double sp, double gbSeq, double gbPar) {
         // Usa o modo 'append' (true) para não sobrescrever testes anteriores.
         try (FileWriter fw = new FileWriter("resultados_produto_escalar.txt", true);
              PrintWriter pw = new PrintWriter(fw)) {
             
             // Formato CSV (separado por pipes) facilita a importação no Excel.
-            pw.printf("PC: %s | Tamanho: %d | Threads: %d | T.Seq: %.4fs | T.Par: %.4fs | Sp: %.2f%n", 
-                      pc, tamanho, threads, tSeq, tPar, sp);
+            // Locale.ROOT: ponto decimal sempre, seja qual for o idioma da máquina.
+            pw.printf(Locale.ROOT, "PC: %s | Tamanho: %s | Threads: %d | Backend: %s | Kernel: %s | T.Seq: %.4fs | T.Par: %.4fs | Sp: %.2f | GB/s Seq: %.2f | GB/s Par: %.2f%n", 
+                      pc, tamanho, threads, backend, kernel, tSeq, tPar, sp, gbSeq, gbPar);
             
             System.out.println("\n[!] Resultado salvo em 'resultados_produto_escalar.txt'");
             
@@ -107,9 +297,21 @@ public class ProdutoEscalarLog {
         return soma;
     }
 
+    // Sequencial com kernel selecionável (escalar ou SIMD)
+    public static long calcularSequencial(long[] a, long[] b, KernelProduto kernel) {
+        return kernel.calcular(a, b, 0, a.length);
+    }
+
     // --- Algoritmo Paralelo ---
     public static long calcularParalelo(long[] a, long[] b, int numThreads) throws InterruptedException {
+        return calcularParalelo(a, b, numThreads, KernelProduto.ESCALAR);
+    }
+
+    // Paralelo com threads dedicadas e kernel selecionável
+    public static long calcularParalelo(long[] a, long[] b, int numThreads, KernelProduto kernel) throws InterruptedException {
         WorkerThread[] threads = new WorkerThread[numThreads];
+        // Instrumentação opcional (null quando desligada)
+        LinhaDoTempoThreads linha = LinhaDoTempoThreads.iniciar("calcularParalelo", numThreads);
         
         // Define o tamanho do "chunk" (fatia) do vetor que cada thread vai processar.
         int tamanhoBloco = a.length / numThreads;
@@ -123,8 +325,9 @@ public class ProdutoEscalarLog {
             // indo até o final do array (a.length), garantindo que nenhum índice seja ignorado.
             int fim = (i == numThreads - 1) ? a.length : (i + 1) * tamanhoBloco;
             
-            threads[i] = new WorkerThread(a, b, inicio, fim);
-            threads[i].start();
+            LinhaDoTempoThreads.Registro registro = (linha == null) ? null : linha.novoRegistro(i);
+            threads[i] = new WorkerThread(a, b, inicio, fim, kernel, registro);
+            LinhaDoTempoThreads.disparar(threads[i], registro);
         }
 
         // Fase de Agregação (Reduce)
@@ -134,9 +337,68 @@ public class ProdutoEscalarLog {
             // Soma o resultado parcial calculado por aquela thread
             somaTotal += threads[i].getSomaParcial();
         }
+        if (linha != null) linha.concluir();
         return somaTotal;
     }
 
+    /**
+     * Versão Paralela com Backend Reutilizável.
+     * Mesma divisão em 'numTarefas' fatias, mas as fatias são executadas pelas threads já
+     * existentes do backend (pool fixo, ForkJoin ou threads virtuais), sem criar threads do SO
+     * a cada chamada.
+     */
+    public static long calcularParalelo(long[] a, long[] b, int numTarefas, BackendExecucao backend) throws InterruptedException {
+        return calcularParalelo(a, b, numTarefas, backend, KernelProduto.ESCALAR);
+    }
+
+    public static long calcularParalelo(long[] a, long[] b, int numTarefas, BackendExecucao backend,
+                                        KernelProduto kernel) throws InterruptedException {
+        return backend.reduzir(a.length, numTarefas, (inicio, fim) -> kernel.calcular(a, b, inicio, fim));
+    }
+
+    // --- API em Lote (vários produtos contra o mesmo vetor = produto matriz-vetor) ---
+
+    // Tamanho padrão do pedaço de x mantido na cache (32K longs = 256 KB)
+    static final int BLOCO_LOTE = 32 * 1024;
+
+    /**
+     * Calcula y[i] = linhas[i] · x para todas as K linhas numa única passada paralela.
+     * Chamar calcularParalelo K vezes paga K ciclos de disparo/espera das threads e lê x da
+     * memória K vezes; aqui:
+     * - o trabalho é despachado UMA vez: x é dividido em 'numTarefas' fatias de colunas;
+     * - dentro da fatia, x é percorrido em pedaços de 'blocoX' elementos, e cada pedaço é usado
+     *   pelas K linhas enquanto ainda está na cache (x sai da memória uma vez só).
+     * Cada fatia acumula suas K somas parciais num vetor próprio (sem compartilhamento); no fim
+     * as parciais são somadas na ordem das fatias, então o resultado é exato e determinístico.
+     */
+    public static long[] calcularLote(long[][] linhas, long[] x, int numTarefas, BackendExecucao backend)
+            throws InterruptedException {
+        return calcularLote(linhas, x, numTarefas, backend, BLOCO_LOTE, KernelProduto.ESCALAR);
+    }
+
+    public static long[] calcularLote(long[][] linhas, long[] x, int numTarefas, BackendExecucao backend,
+                                      int blocoX, KernelProduto kernel) throws InterruptedException {
+        int k = linhas.length;
+        long[][] parciais = new long[numTarefas][k];
+        backend.executarFatias(x.length, numTarefas, (fatia, inicio, fim) -> {
+            long[] acumulador = parciais[fatia];
+            for (int j0 = inicio; j0 < fim; j0 += blocoX) {
+                int j1 = Math.min(j0 + blocoX, fim);
+                for (int i = 0; i < k; i++) {
+                    acumulador[i] += kernel.calcular(linhas[i], x, j0, j1);
+                }
+            }
+        });
+
+        long[] y = new long[k];
+        for (long[] acumulador : parciais) {
+            for (int i = 0; i < k; i++) {
+                y[i] += acumulador[i];
+            }
+        }
+        return y;
+    }
+
     /**
      * Classe WorkerThread
      * Responsável por calcular o produto escalar de uma sub-região (fatia) dos vetores.
@@ -148,24 +410,39 @@ public class ProdutoEscalarLog {
         // Limites de atuação desta thread específica
         private final int inicio;
         private final int fim;
+        // Laço crítico usado na fatia (escalar ou SIMD)
+        private final KernelProduto kernel;
+        // Marcas da linha do tempo (null = instrumentação desligada)
+        private final LinhaDoTempoThreads.Registro registro;
         // Variável local para acumular o resultado parcial.
         // O uso de variável local evita a necessidade de 'synchronized' dentro do loop,
         // o que mataria a performance paralela.
         private long somaParcial = 0;
 
         public WorkerThread(long[] a, long[] b, int inicio, int fim) {
+            this(a, b, inicio, fim, KernelProduto.ESCALAR);
+        }
+
+        public WorkerThread(long[] a, long[] b, int inicio, int fim, KernelProduto kernel) {
+            this(a, b, inicio, fim, kernel, null);
+        }
+
+        public WorkerThread(long[] a, long[] b, int inicio, int fim, KernelProduto kernel,
+                            LinhaDoTempoThreads.Registro registro) {
             this.a = a;
             this.b = b;
             this.inicio = inicio;
             this.fim = fim;
+            this.kernel = kernel;
+            this.registro = registro;
         }
 
         @Override
         public void run() {
+            if (registro != null) registro.inicio();
             // Loop crítico: Executa o cálculo apenas na fatia designada (inicio -> fim)
-            for (int i = inicio; i < fim; i++) {
-                somaParcial += a[i] * b[i];
-            }
+            somaParcial = kernel.calcular(a, b, inicio, fim);
+            if (registro != null) registro.fim(fim - inicio);
         }
 
         // Getter para que a thread principal possa recuperar o resultado após o join()
@@ -174,13 +451,9 @@ public class ProdutoEscalarLog {
         }
     }
 
-    // Utilitário para gerar vetores com valores aleatórios (0 a 99)
-    private static long[] gerarVetor(int tamanho) {
-        Random rand = new Random();
-        long[] v = new long[tamanho];
-        for (int i = 0; i < tamanho; i++) {
-            v[i] = rand.nextInt(100);
-        }
-        return v;
+    // Utilitário para gerar vetores com valores aleatórios (0 a 99).
+    // Paralelo e determinístico: a mesma semente produz o mesmo vetor com qualquer número de threads.
+    private static long[] gerarVetor(int tamanho, long semente) {
+        return GeradorVetores.gerarLong(tamanho, semente);
     }
 }
\ No newline at end of file
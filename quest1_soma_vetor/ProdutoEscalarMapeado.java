@@ -0,0 +1,235 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Produto Escalar "Out-of-Core" (vetores em arquivo, mapeados em memória)
+ * * Objetivo: Permitir vetores maiores que a RAM/heap. Com TAMANHO_VETOR = 50 milhões os dois
+ * vetores long[] já ocupam ~800 MB de heap; aqui eles ficam em arquivos binários.
+ * * Estratégia: Cada thread recebe uma região [inicio, fim) dos vetores e percorre essa região
+ * em "janelas" mapeadas com FileChannel.map. A soma é feita direto sobre a memória mapeada
+ * (LongBuffer), sem copiar nada para o heap. O consumo de heap é constante, seja qual for o
+ * tamanho do vetor; quem decide o que fica em RAM é o cache de páginas do SO.
+ * * Formato do arquivo: sequência de longs (8 bytes, little-endian), sem cabeçalho. A semente usada
+ * na geração fica num arquivo ao lado ("vetorA.bin.semente"), para saber se dá para reaproveitar.
+ */
+public class ProdutoEscalarMapeado {
+
+    // Tamanho da janela mapeada por vez (em elementos). 8M longs = 64 MB por vetor.
+    // Janelas menores reduzem o espaço de endereçamento usado; maiores reduzem o custo de map().
+    static final int JANELA_ELEMENTOS = 8 * 1024 * 1024;
+
+    // Ordem dos bytes no arquivo (fixa, para o arquivo ser portável entre máquinas)
+    static final ByteOrder ORDEM = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Fluxo interativo do modo mapeado (chamado pelo main de ProdutoEscalarLog).
+     */
+    static void executar(Scanner scanner, InfoHardware hw, long semente, int repeticoes) throws InterruptedException {
+        System.out.print("\nTamanho dos vetores em milhões de elementos (ex: 500): ");
+        long tamanho = scanner.nextLong() * 1_000_000L;
+
+        Path arqA = Paths.get("vetorA.bin");
+        Path arqB = Paths.get("vetorB.bin");
+        try {
+            // Reaproveita os arquivos se já existirem com o tamanho certo (gerar é caro)
+            prepararArquivo(arqA, tamanho, semente);
+            prepararArquivo(arqB, tamanho, GeradorVetores.sementeDerivada(semente, 1));
+        } catch (IOException e) {
+            System.err.println("Erro ao gerar arquivos de vetores: " + e.getMessage());
+            return;
+        }
+
+        System.out.print("Digite o número de threads para o teste paralelo: ");
+        int numThreads = Math.max(1, scanner.nextInt());
+
+        try (FileChannel canalA = FileChannel.open(arqA, StandardOpenOption.READ);
+             FileChannel canalB = FileChannel.open(arqB, StandardOpenOption.READ)) {
+
+            RegistroResultados.Configuracao cfg = new RegistroResultados.Configuracao("ProdutoEscalar",
+                    "mapeado", Long.toString(tamanho), numThreads, "Mapeado", "Escalar", semente);
+            // Medicao.Calculo só repassa InterruptedException: o erro de E/S atravessa como unchecked
+            ProdutoEscalarLog.medirERegistrar(hw, cfg, repeticoes, 2L * tamanho * Long.BYTES,
+                    () -> {
+                        try {
+                            return calcularSequencial(canalA, canalB, tamanho);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    () -> {
+                        try {
+                            return calcularParalelo(canalA, canalB, tamanho, numThreads);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            System.err.println("Erro ao ler arquivos de vetores: " + e.getCause().getMessage());
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivos de vetores: " + e.getMessage());
+        }
+    }
+
+    // --- Algoritmo Sequencial (uma thread percorre o arquivo inteiro, janela por janela) ---
+    public static long calcularSequencial(FileChannel a, FileChannel b, long tamanho) throws IOException {
+        return calcularRegiao(a, b, 0, tamanho);
+    }
+
+    // --- Algoritmo Paralelo (mesma divisão em blocos contíguos da versão em memória) ---
+    public static long calcularParalelo(FileChannel a, FileChannel b, long tamanho, int numThreads)
+            throws InterruptedException, IOException {
+        WorkerMapeado[] threads = new WorkerMapeado[numThreads];
+        long tamanhoBloco = tamanho / numThreads;
+
+        for (int i = 0; i < numThreads; i++) {
+            long inicio = i * tamanhoBloco;
+            // A última thread assume o resto da divisão
+            long fim = (i == numThreads - 1) ? tamanho : (i + 1) * tamanhoBloco;
+            threads[i] = new WorkerMapeado(a, b, inicio, fim);
+            threads[i].start();
+        }
+
+        long somaTotal = 0;
+        Throwable falha = null;
+        for (int i = 0; i < numThreads; i++) {
+            threads[i].join();
+            if (falha == null) falha = threads[i].erro;
+            somaTotal += threads[i].getSomaParcial();
+        }
+        // Qualquer falha de uma thread (E/S, RuntimeException ou Error) é repassada para a principal
+        // depois de todos os join(): uma soma parcial nunca é devolvida como se fosse a total
+        if (falha instanceof IOException) throw (IOException) falha;
+        if (falha instanceof RuntimeException) throw (RuntimeException) falha;
+        if (falha instanceof Error) throw (Error) falha;
+        return somaTotal;
+    }
+
+    /**
+     * Soma a região [inicio, fim) mapeando no máximo JANELA_ELEMENTOS de cada vetor por vez.
+     * FileChannel.map é thread-safe: várias threads podem mapear regiões do mesmo canal.
+     */
+    static long calcularRegiao(FileChannel a, FileChannel b, long inicio, long fim) throws IOException {
+        long soma = 0;
+        for (long pos = inicio; pos < fim; pos += JANELA_ELEMENTOS) {
+            int qtd = (int) Math.min(JANELA_ELEMENTOS, fim - pos);
+            LongBuffer ja = mapear(a, pos, qtd);
+            LongBuffer jb = mapear(b, pos, qtd);
+            // Leitura absoluta direto da página mapeada (sem cópia para o heap)
+            for (int i = 0; i < qtd; i++) {
+                soma += ja.get(i) * jb.get(i);
+            }
+        }
+        return soma;
+    }
+
+    private static LongBuffer mapear(FileChannel canal, long posicaoElemento, int qtd) throws IOException {
+        MappedByteBuffer mbb = canal.map(FileChannel.MapMode.READ_ONLY,
+                posicaoElemento * Long.BYTES, (long) qtd * Long.BYTES);
+        return mbb.order(ORDEM).asLongBuffer();
+    }
+
+    /**
+     * Thread trabalhadora do modo mapeado: mesma ideia da WorkerThread, mas a região é lida do
+     * arquivo em janelas em vez de um long[] no heap.
+     */
+    static class WorkerMapeado extends Thread {
+        private final FileChannel a, b;
+        private final long inicio, fim;
+        private long somaParcial = 0;
+        // Lido pela thread principal depois do join() (o join garante a visibilidade)
+        private Throwable erro;
+
+        WorkerMapeado(FileChannel a, FileChannel b, long inicio, long fim) {
+            this.a = a;
+            this.b = b;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        public void run() {
+            try {
+                somaParcial = calcularRegiao(a, b, inicio, fim);
+            } catch (IOException | RuntimeException | Error e) {
+                erro = e;
+            }
+        }
+
+        public long getSomaParcial() {
+            return somaParcial;
+        }
+    }
+
+    // --- Geração dos Arquivos ---
+
+    // Gera o arquivo apenas se ele não existir ou tiver sido gerado com outro tamanho/semente
+    private static void prepararArquivo(Path arquivo, long tamanho, long semente) throws IOException {
+        Path arqSemente = Paths.get(arquivo + ".semente");
+        if (Files.exists(arquivo) && Files.size(arquivo) == tamanho * Long.BYTES
+                && Files.exists(arqSemente) && Files.readString(arqSemente).trim().equals(Long.toString(semente))) {
+            System.out.println("Reaproveitando " + arquivo + " (" + tamanho + " elementos)");
+            return;
+        }
+        System.out.println("Gerando " + arquivo + " com " + tamanho + " elementos...");
+        long inicio = System.nanoTime();
+        gerarArquivo(arquivo, tamanho, semente);
+        Files.writeString(arqSemente, Long.toString(semente));
+        System.out.printf("Arquivo gerado em %.4f s\n", (System.nanoTime() - inicio) / 1e9);
+    }
+
+    /**
+     * Escreve 'tamanho' longs aleatórios (0 a 99) com os mesmos blocos/sementes do GeradorVetores:
+     * para a mesma semente, o arquivo contém exatamente o vetor que seria gerado no heap.
+     * Os blocos são gerados em paralelo e gravados com escrita posicional (thread-safe), cada
+     * thread com um buffer de tamanho fixo — a geração também não depende do tamanho do heap.
+     */
+    static void gerarArquivo(Path arquivo, long tamanho, long semente) throws IOException {
+        int bloco = GeradorVetores.TAMANHO_BLOCO;
+        long numBlocos = (tamanho + bloco - 1) / bloco;
+        ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(
+                () -> ByteBuffer.allocateDirect(bloco * Long.BYTES).order(ORDEM));
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            try {
+                pool.submit(() -> IntStream.range(0, Math.toIntExact(numBlocos)).parallel().forEach(b -> {
+                    SplittableRandom rand = GeradorVetores.geradorDoBloco(semente, b);
+                    long inicio = (long) b * bloco;
+                    long qtd = Math.min(bloco, tamanho - inicio);
+                    ByteBuffer buffer = buffers.get();
+                    buffer.clear();
+                    for (long i = 0; i < qtd; i++) {
+                        buffer.putLong(rand.nextInt(GeradorVetores.VALOR_MAXIMO));
+                    }
+                    buffer.flip();
+                    try {
+                        long posicao = inicio * Long.BYTES;
+                        while (buffer.hasRemaining()) {
+                            posicao += canal.write(buffer, posicao);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })).join();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Produto Escalar em Fluxo (Pipeline Produtor/Consumidor)
+ * * Problema: nos outros modos os dois vetores são gerados por inteiro antes da primeira
+ * multiplicação. A geração e o cálculo nunca se sobrepõem, e a memória cresce com o tamanho.
+ * * Estratégia: produtores geram os vetores em blocos de tamanho fixo e os colocam numa fila
+ * limitada; consumidores retiram os blocos conforme chegam e acumulam o produto escalar.
+ * - Os buffers dos blocos são reciclados: existem exatamente 'profundidade' blocos, que circulam
+ *   entre a fila de livres e a fila de cheios. A memória fica limitada a profundidade x bloco,
+ *   seja qual for o tamanho do vetor (que pode passar de 2^31 elementos).
+ * - Fila cheia = produtores esperando buffer livre (back-pressure); fila vazia = consumidores
+ *   esperando dados. Os dois tempos de espera são medidos por estágio.
+ * * Dados: cada bloco usa o mesmo gerador do GeradorVetores (semente, índice do bloco), então o
+ * fluxo contém exatamente os vetores do modo em memória, e o resultado independe da ordem em
+ * que os blocos são consumidos (a soma de long é exata).
+ * A fonte dos blocos é o método produzirBloco; trocar a geração por leitura de arquivo ou de
+ * socket não muda o resto do pipeline.
+ * * Falhas: a primeira exceção de qualquer estágio interrompe as outras threads (ninguém fica
+ * preso numa fila) e é relançada; sem exceção, a execução ainda falha se o número de blocos
+ * consumidos não for numBlocos() — um bloco perdido nunca vira uma soma menor.
+ */
+public class ProdutoEscalarStreaming {
+
+    // Um bloco do fluxo tem o tamanho do bloco de geração (cada um com seu próprio gerador)
+    static final int TAMANHO_BLOCO = GeradorVetores.TAMANHO_BLOCO;
+
+    // Marcador de fim de fluxo (um por consumidor)
+    private static final Bloco FIM = new Bloco(0);
+
+    private final long tamanho;
+    private final long sementeA;
+    private final long sementeB;
+    private final int numProdutores;
+    private final int numConsumidores;
+    private final int profundidade;
+
+    // Estatísticas da última execução do pipeline
+    private Estagio produtores;
+    private Estagio consumidores;
+    private double tempoTotal;
+
+    ProdutoEscalarStreaming(long tamanho, long semente, int numProdutores, int numConsumidores, int profundidade) {
+        this.tamanho = tamanho;
+        this.sementeA = semente;
+        this.sementeB = GeradorVetores.sementeDerivada(semente, 1);
+        this.numProdutores = numProdutores;
+        this.numConsumidores = numConsumidores;
+        // Pelo menos um buffer por thread, senão alguém fica sempre esperando
+        this.profundidade = Math.max(profundidade, numProdutores + numConsumidores);
+    }
+
+    /**
+     * Fluxo interativo do modo streaming (chamado pelo main de ProdutoEscalarLog).
+     */
+    static void executar(Scanner scanner, InfoHardware hw, long semente, int repeticoes) throws InterruptedException {
+        System.out.print("\nTamanho dos vetores em milhões de elementos (ex: 500): ");
+        long tamanho = scanner.nextLong() * 1_000_000L;
+        System.out.print("Número de produtores (geração): ");
+        int numProdutores = Math.max(1, scanner.nextInt());
+        System.out.print("Número de consumidores (cálculo): ");
+        int numConsumidores = Math.max(1, scanner.nextInt());
+        System.out.print("Profundidade da fila em blocos de " + TAMANHO_BLOCO + " elementos (ex: 16): ");
+        int profundidade = Math.max(1, scanner.nextInt());
+
+        ProdutoEscalarStreaming pipeline = new ProdutoEscalarStreaming(tamanho, semente,
+                numProdutores, numConsumidores, profundidade);
+        System.out.printf("Memória dos buffers: %d blocos x 2 vetores = %.1f MB%n", pipeline.profundidade,
+                pipeline.profundidade * 2.0 * TAMANHO_BLOCO * Long.BYTES / (1024 * 1024));
+
+        String estrategia = "Pipeline(" + numProdutores + "P/" + numConsumidores + "C/fila=" + pipeline.profundidade + ")";
+        RegistroResultados.Configuracao cfg = new RegistroResultados.Configuracao("ProdutoEscalar",
+                "streaming", Long.toString(tamanho), numConsumidores, estrategia, "Escalar", semente);
+        // Sequencial = gerar e multiplicar bloco a bloco na mesma thread (também com memória limitada)
+        ProdutoEscalarLog.medirERegistrar(hw, cfg, repeticoes, 2L * tamanho * Long.BYTES,
+                pipeline::calcularSequencial, pipeline::calcularParalelo);
+        pipeline.imprimirEstagios();
+    }
+
+    // --- Algoritmo Sequencial (gera um bloco, multiplica, gera o próximo...) ---
+    long calcularSequencial() {
+        Bloco bloco = new Bloco(TAMANHO_BLOCO);
+        long soma = 0;
+        for (long indice = 0; indice < numBlocos(); indice++) {
+            produzirBloco(bloco, indice);
+            soma += bloco.calcular();
+        }
+        return soma;
+    }
+
+    // --- Algoritmo Paralelo (produtores e consumidores ligados por filas limitadas) ---
+    long calcularParalelo() throws InterruptedException {
+        // Todos os buffers começam livres; os cheios nunca passam de 'profundidade'
+        BlockingQueue<Bloco> livres = new ArrayBlockingQueue<>(profundidade);
+        BlockingQueue<Bloco> cheios = new ArrayBlockingQueue<>(profundidade + numConsumidores);
+        for (int i = 0; i < profundidade; i++) {
+            livres.add(new Bloco(TAMANHO_BLOCO));
+        }
+
+        long inicio = System.nanoTime();
+        Falha falha = new Falha();
+        Produtor[] prod = new Produtor[numProdutores];
+        Consumidor[] cons = new Consumidor[numConsumidores];
+        for (int i = 0; i < numConsumidores; i++) {
+            cons[i] = new Consumidor(livres, cheios, falha);
+            falha.threads.add(cons[i]);
+        }
+        for (int i = 0; i < numProdutores; i++) {
+            // Produtor i gera os blocos i, i + P, i + 2P, ...
+            prod[i] = new Produtor(i, livres, cheios, falha);
+            falha.threads.add(prod[i]);
+        }
+        // Todas registradas antes do primeiro start(): uma falha consegue interromper qualquer uma
+        for (Thread t : falha.threads) {
+            t.start();
+        }
+
+        // Quando todos os produtores terminam, cada consumidor recebe um marcador de fim
+        for (Produtor p : prod) {
+            p.join();
+        }
+        for (int i = 0; i < numConsumidores; i++) {
+            cheios.put(FIM);
+        }
+
+        long somaTotal = 0;
+        long consumidos = 0;
+        for (Consumidor c : cons) {
+            c.join();
+            somaTotal += c.somaParcial;
+            consumidos += c.blocos;
+        }
+        tempoTotal = (System.nanoTime() - inicio) / 1e9;
+        produtores = Estagio.de(prod);
+        consumidores = Estagio.de(cons);
+
+        Throwable erro = falha.primeira.get();
+        if (erro instanceof RuntimeException) throw (RuntimeException) erro;
+        if (erro instanceof Error) throw (Error) erro;
+        if (erro != null) throw new IllegalStateException("Falha num estágio do pipeline", erro);
+        if (consumidos != numBlocos()) {
+            throw new IllegalStateException("Pipeline consumiu " + consumidos + " de " + numBlocos() + " blocos");
+        }
+        return somaTotal;
+    }
+
+    private long numBlocos() {
+        return (tamanho + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+    }
+
+    /**
+     * Fonte dos dados: preenche o buffer com o bloco 'indice' dos dois vetores.
+     * Mesmos geradores (semente, bloco) do GeradorVetores.
+     */
+    private void produzirBloco(Bloco bloco, long indice) {
+        bloco.qtd = (int) Math.min(TAMANHO_BLOCO, tamanho - indice * TAMANHO_BLOCO);
+        SplittableRandom randA = GeradorVetores.geradorDoBloco(sementeA, indice);
+        SplittableRandom randB = GeradorVetores.geradorDoBloco(sementeB, indice);
+        for (int i = 0; i < bloco.qtd; i++) {
+            bloco.a[i] = randA.nextInt(GeradorVetores.VALOR_MAXIMO);
+        }
+        for (int i = 0; i < bloco.qtd; i++) {
+            bloco.b[i] = randB.nextInt(GeradorVetores.VALOR_MAXIMO);
+        }
+    }
+
+    private void imprimirEstagios() {
+        if (produtores == null) return;
+        double bytes = 2.0 * tamanho * Long.BYTES;
+        System.out.println("\n=== Estágios do Pipeline (última execução paralela) ===");
+        System.out.printf("Total:        %.4f s (%.2f GB/s)%n", tempoTotal, bytes / tempoTotal / 1e9);
+        // Vazão do estágio = bytes / tempo ocupado médio por thread x threads (capacidade do estágio)
+        System.out.printf("Produtores:   ocupado %.4f s | back-pressure %.4f s | vazão %.2f GB/s%n",
+                produtores.ocupadoMedio, produtores.esperaMedia,
+                bytes / produtores.ocupadoMedio / 1e9);
+        System.out.printf("Consumidores: ocupado %.4f s | esperando dados %.4f s | vazão %.2f GB/s%n",
+                consumidores.ocupadoMedio, consumidores.esperaMedia,
+                bytes / consumidores.ocupadoMedio / 1e9);
+        // O estágio com mais tempo ocupado é o gargalo; o outro passa o tempo esperando
+        System.out.println("Gargalo: " + (produtores.ocupadoMedio >= consumidores.ocupadoMedio
+                ? "geração (consumidores ociosos)" : "cálculo (produtores em back-pressure)"));
+    }
+
+    /** Buffer reciclável com um bloco dos dois vetores. */
+    static final class Bloco {
+        final long[] a;
+        final long[] b;
+        int qtd;
+
+        Bloco(int capacidade) {
+            a = new long[capacidade];
+            b = new long[capacidade];
+        }
+
+        long calcular() {
+            long soma = 0;
+            for (int i = 0; i < qtd; i++) {
+                soma += a[i] * b[i];
+            }
+            return soma;
+        }
+    }
+
+    /** Tempos médios de um estágio (média entre as threads do estágio). */
+    private static final class Estagio {
+        final double ocupadoMedio;
+        final double esperaMedia;
+
+        private Estagio(double ocupadoMedio, double esperaMedia) {
+            this.ocupadoMedio = ocupadoMedio;
+            this.esperaMedia = esperaMedia;
+        }
+
+        static Estagio de(ThreadEstagio[] threads) {
+            long ocupado = 0, espera = 0;
+            for (ThreadEstagio t : threads) {
+                ocupado += t.nsOcupado;
+                espera += t.nsEspera;
+            }
+            return new Estagio(ocupado / 1e9 / threads.length, espera / 1e9 / threads.length);
+        }
+    }
+
+    /** Primeira falha de uma execução; ao registrá-la, interrompe todas as threads dos estágios. */
+    private static final class Falha {
+        final AtomicReference<Throwable> primeira = new AtomicReference<>();
+        // Preenchida antes do start() das threads e só lida depois
+        final List<Thread> threads = new ArrayList<>();
+
+        void registrar(Throwable erro) {
+            if (primeira.compareAndSet(null, erro)) {
+                for (Thread t : threads) t.interrupt();
+            }
+        }
+    }
+
+    /** Thread de um estágio: separa o tempo trabalhando do tempo bloqueado nas filas. */
+    private abstract static class ThreadEstagio extends Thread {
+        final BlockingQueue<Bloco> livres;
+        final BlockingQueue<Bloco> cheios;
+        private final Falha falha;
+        long nsOcupado = 0;
+        long nsEspera = 0;
+        // Blocos produzidos ou consumidos (lido depois do join)
+        long blocos = 0;
+
+        ThreadEstagio(BlockingQueue<Bloco> livres, BlockingQueue<Bloco> cheios, Falha falha) {
+            this.livres = livres;
+            this.cheios = cheios;
+            this.falha = falha;
+        }
+
+        abstract void executar() throws InterruptedException;
+
+        @Override
+        public final void run() {
+            try {
+                executar();
+            } catch (InterruptedException | RuntimeException | Error e) {
+                falha.registrar(e);
+            }
+        }
+
+        // take() cronometrado: o tempo bloqueado conta como espera do estágio
+        Bloco retirar(BlockingQueue<Bloco> fila) throws InterruptedException {
+            long inicio = System.nanoTime();
+            Bloco bloco = fila.take();
+            nsEspera += System.nanoTime() - inicio;
+            return bloco;
+        }
+    }
+
+    private final class Produtor extends ThreadEstagio {
+        private final int id;
+
+        Produtor(int id, BlockingQueue<Bloco> livres, BlockingQueue<Bloco> cheios, Falha falha) {
+            super(livres, cheios, falha);
+            this.id = id;
+        }
+
+        @Override
+        void executar() throws InterruptedException {
+            for (long indice = id; indice < numBlocos(); indice += numProdutores) {
+                // Sem buffer livre = consumidores atrasados (back-pressure)
+                Bloco bloco = retirar(livres);
+                long inicio = System.nanoTime();
+                produzirBloco(bloco, indice);
+                nsOcupado += System.nanoTime() - inicio;
+                // Nunca bloqueia: a fila de cheios comporta todos os buffers mais os marcadores
+                cheios.put(bloco);
+                blocos++;
+            }
+        }
+    }
+
+    private static final class Consumidor extends ThreadEstagio {
+        private long somaParcial = 0;
+
+        Consumidor(BlockingQueue<Bloco> livres, BlockingQueue<Bloco> cheios, Falha falha) {
+            super(livres, cheios, falha);
+        }
+
+        @Override
+        void executar() throws InterruptedException {
+            while (true) {
+                // Fila vazia = produtores atrasados
+                Bloco bloco = retirar(cheios);
+                if (bloco == FIM) break;
+                long inicio = System.nanoTime();
+                somaParcial += bloco.calcular();
+                nsOcupado += System.nanoTime() - inicio;
+                blocos++;
+                livres.put(bloco); // Recicla o buffer
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Vetores Compactos (byte/short/int/float/double) com Acumulação Larga
+ * * Problema: gerarVetor preenche long[] com valores de 0 a 99, então 7 de cada 8 bytes são
+ * desperdiçados. Como o produto escalar é limitado pela banda de memória, ler 8 bytes por
+ * elemento em vez de 1 multiplica o tráfego na mesma proporção.
+ * * Estratégia: armazenar no menor tipo que comporta os dados e "alargar" apenas no acumulador:
+ * - byte/short/int -> produto e soma em long (nunca estoura para 0..99, e é exato).
+ * - float/double   -> soma em double.
+ * * Validação: com valores inteiros de 0 a 99 todas as somas parciais são inteiros menores que
+ * 2^53, então até a versão em double é exata e Seq == Par continua valendo.
+ */
+public class VetoresCompactos {
+
+    /** Tipos de elemento suportados (long é o caminho original, em ProdutoEscalarLog). */
+    public enum TipoElemento {
+        BYTE(Byte.BYTES), SHORT(Short.BYTES), INT(Integer.BYTES), FLOAT(Float.BYTES), DOUBLE(Double.BYTES);
+
+        final int bytes;
+
+        TipoElemento(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Fluxo do modo compacto: gera os vetores do tipo pedido, roda Seq e Par, valida e salva o log.
+     */
+    static void executar(TipoElemento tipo, int tamanho, int numThreads, BackendExecucao backend, InfoHardware hw,
+                         long semente, int repeticoes) throws InterruptedException {
+        long sementeB = GeradorVetores.sementeDerivada(semente, 1);
+        String nomeTipo = tipo.name().toLowerCase();
+        System.out.println("\nGerando vetores " + nomeTipo + "[] de tamanho: " + tamanho + "...");
+
+        switch (tipo) {
+            case BYTE: {
+                byte[] a = GeradorVetores.gerarByte(tamanho, semente), b = GeradorVetores.gerarByte(tamanho, sementeB);
+                medir(tipo, tamanho, numThreads, backend, hw, semente, repeticoes,
+                        () -> calcularSequencial(a, b), () -> calcularParalelo(a, b, numThreads, backend));
+                break;
+            }
+            case SHORT: {
+                short[] a = GeradorVetores.gerarShort(tamanho, semente), b = GeradorVetores.gerarShort(tamanho, sementeB);
+                medir(tipo, tamanho, numThreads, backend, hw, semente, repeticoes,
+                        () -> calcularSequencial(a, b), () -> calcularParalelo(a, b, numThreads, backend));
+                break;
+            }
+            case INT: {
+                int[] a = GeradorVetores.gerarInt(tamanho, semente), b = GeradorVetores.gerarInt(tamanho, sementeB);
+                medir(tipo, tamanho, numThreads, backend, hw, semente, repeticoes,
+                        () -> calcularSequencial(a, b), () -> calcularParalelo(a, b, numThreads, backend));
+                break;
+            }
+            case FLOAT: {
+                float[] a = GeradorVetores.gerarFloat(tamanho, semente), b = GeradorVetores.gerarFloat(tamanho, sementeB);
+                medir(tipo, tamanho, numThreads, backend, hw, semente, repeticoes,
+                        () -> calcularSequencial(a, b), () -> calcularParalelo(a, b, numThreads, backend));
+                break;
+            }
+            case DOUBLE: {
+                double[] a = GeradorVetores.gerarDouble(tamanho, semente), b = GeradorVetores.gerarDouble(tamanho, sementeB);
+                medir(tipo, tamanho, numThreads, backend, hw, semente, repeticoes,
+                        () -> calcularSequencial(a, b), () -> calcularParalelo(a, b, numThreads, backend));
+                break;
+            }
+        }
+    }
+
+    private static <T> void medir(TipoElemento tipo, int tamanho, int numThreads, BackendExecucao backend,
+                                  InfoHardware hw, long semente, int repeticoes,
+                                  Medicao.Calculo<T> sequencial, Medicao.Calculo<T> paralelo) throws InterruptedException {
+        RegistroResultados.Configuracao cfg = new RegistroResultados.Configuracao("ProdutoEscalar",
+                "compacto", Integer.toString(tamanho), numThreads, backend.getNome(),
+                "Escalar[" + tipo.name().toLowerCase() + "]", semente);
+        // Vazão considerando o tamanho REAL do elemento (é aqui que o tipo compacto ganha)
+        ProdutoEscalarLog.medirERegistrar(hw, cfg, repeticoes, 2L * tamanho * tipo.bytes, sequencial, paralelo);
+    }
+
+    // --- Kernels por tipo: fatia [inicio, fim), acumulador largo ---
+
+    static long calcular(byte[] a, byte[] b, int inicio, int fim) {
+        long soma = 0;
+        for (int i = inicio; i < fim; i++) {
+            soma += a[i] * b[i]; // byte * byte cabe em int; a soma é feita em long
+        }
+        return soma;
+    }
+
+    static long calcular(short[] a, short[] b, int inicio, int fim) {
+        long soma = 0;
+        for (int i = inicio; i < fim; i++) {
+            soma += a[i] * b[i]; // short * short cabe em int
+        }
+        return soma;
+    }
+
+    static long calcular(int[] a, int[] b, int inicio, int fim) {
+        long soma = 0;
+        for (int i = inicio; i < fim; i++) {
+            soma += (long) a[i] * b[i]; // int * int pode estourar int: alarga antes de multiplicar
+        }
+        return soma;
+    }
+
+    static double calcular(float[] a, float[] b, int inicio, int fim) {
+        double soma = 0;
+        for (int i = inicio; i < fim; i++) {
+            soma += (double) a[i] * b[i];
+        }
+        return soma;
+    }
+
+    static double calcular(double[] a, double[] b, int inicio, int fim) {
+        double soma = 0;
+        for (int i = inicio; i < fim; i++) {
+            soma += a[i] * b[i];
+        }
+        return soma;
+    }
+
+    // --- Algoritmos Sequenciais ---
+
+    public static long calcularSequencial(byte[] a, byte[] b)     { return calcular(a, b, 0, a.length); }
+    public static long calcularSequencial(short[] a, short[] b)   { return calcular(a, b, 0, a.length); }
+    public static long calcularSequencial(int[] a, int[] b)       { return calcular(a, b, 0, a.length); }
+    public static double calcularSequencial(float[] a, float[] b)   { return calcular(a, b, 0, a.length); }
+    public static double calcularSequencial(double[] a, double[] b) { return calcular(a, b, 0, a.length); }
+
+    // --- Algoritmos Paralelos (mesma divisão em fatias, executada pelo backend) ---
+
+    public static long calcularParalelo(byte[] a, byte[] b, int numTarefas, BackendExecucao backend) throws InterruptedException {
+        return backend.reduzir(a.length, numTarefas, (inicio, fim) -> calcular(a, b, inicio, fim));
+    }
+
+    public static long calcularParalelo(short[] a, short[] b, int numTarefas, BackendExecucao backend) throws InterruptedException {
+        return backend.reduzir(a.length, numTarefas, (inicio, fim) -> calcular(a, b, inicio, fim));
+    }
+
+    public static long calcularParalelo(int[] a, int[] b, int numTarefas, BackendExecucao backend) throws InterruptedException {
+        return backend.reduzir(a.length, numTarefas, (inicio, fim) -> calcular(a, b, inicio, fim));
+    }
+
+    public static double calcularParalelo(float[] a, float[] b, int numTarefas, BackendExecucao backend) throws InterruptedException {
+        return backend.reduzirDouble(a.length, numTarefas, (inicio, fim) -> calcular(a, b, inicio, fim));
+    }
+
+    public static double calcularParalelo(double[] a, double[] b, int numTarefas, BackendExecucao backend) throws InterruptedException {
+        return backend.reduzirDouble(a.length, numTarefas, (inicio, fim) -> calcular(a, b, inicio, fim));
+    }
+}
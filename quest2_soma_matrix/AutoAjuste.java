@@ -0,0 +1,127 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Autoajuste do Número de Threads e da Granularidade (Multiplicação de Matrizes)
+ * * Problema: o número de threads era digitado à mão, e os logs mostram valores de 2 a 100000
+ * sendo testados um a um para achar o melhor.
+ * * Estratégia: sonda a máquina (núcleos, L2/L3 via InfoHardware) e faz ensaios curtos e cronometrados
+ * multiplicando apenas as primeiras linhas de A (uma AMOSTRA de C), variando:
+ * - número de threads: potências de 2 até 2x o número de núcleos, mais o próprio número de núcleos;
+ * - linhas por tarefa: faixa estática (uma por thread, como o original), blocos fixos pequenos,
+ *   e um bloco cujas linhas de A e C cabem na metade da L2.
+ * A melhor combinação (menor tempo) é usada na execução real.
+ */
+public class AutoAjuste {
+
+    // Linhas da amostra: o suficiente para dar trabalho a todas as threads candidatas
+    private static final int LINHAS_AMOSTRA_MIN = 64;
+    // Repetições cronometradas por combinação (vale o menor tempo)
+    private static final int REPETICOES = 2;
+    // Tempo máximo gasto com ensaios; ao estourar, fica com a melhor combinação até ali
+    private static final long ORCAMENTO_NS = 3_000_000_000L;
+    // Blocos fixos de linhas testados
+    private static final int[] BLOCOS_FIXOS = {1, 4, 16};
+
+    /** Configuração escolhida pelo autoajuste. */
+    public static final class Resultado {
+        private final int threads;
+        // 0 = divisão estática (uma faixa de linhas por thread, como o multiplicarParalelo original)
+        private final int linhasPorTarefa;
+        private final double tempoAmostra;
+        private final int ensaios;
+
+        Resultado(int threads, int linhasPorTarefa, double tempoAmostra, int ensaios) {
+            this.threads = threads;
+            this.linhasPorTarefa = linhasPorTarefa;
+            this.tempoAmostra = tempoAmostra;
+            this.ensaios = ensaios;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getLinhasPorTarefa() {
+            return linhasPorTarefa;
+        }
+
+        public String getDescricaoBloco() {
+            return linhasPorTarefa == 0 ? "1/thread" : Integer.toString(linhasPorTarefa);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Threads: %d | Linhas/tarefa: %s | Amostra: %.4fs | Ensaios: %d",
+                    threads, getDescricaoBloco(), tempoAmostra, ensaios);
+        }
+    }
+
+    /**
+     * Executa os ensaios multiplicando as primeiras linhas de A por B.
+     */
+    public static Resultado ajustar(InfoHardware hw, long[][] A, long[][] B) throws InterruptedException {
+        int candidatosMax = 2 * hw.getNucleos();
+        int linhasAmostra = Math.min(A.length, Math.max(LINHAS_AMOSTRA_MIN, 4 * candidatosMax));
+        long[][] C = new long[linhasAmostra][B[0].length];
+        long inicioAjuste = System.nanoTime();
+
+        Resultado melhor = null;
+        int ensaios = 0;
+        for (int threads : candidatosThreads(hw.getNucleos())) {
+            for (int bloco : candidatosBloco(hw, B.length, B[0].length, linhasAmostra, threads)) {
+                double tempo = cronometrar(A, B, C, linhasAmostra, threads, bloco);
+                ensaios++;
+                System.out.printf("  [ensaio] threads=%-4d linhas/tarefa=%-9s tempo=%.5fs%n",
+                        threads, bloco == 0 ? "1/thread" : bloco, tempo);
+                if (melhor == null || tempo < melhor.tempoAmostra) {
+                    melhor = new Resultado(threads, bloco, tempo, ensaios);
+                }
+                if (System.nanoTime() - inicioAjuste > ORCAMENTO_NS) {
+                    System.out.println("  [ensaio] Orçamento de tempo esgotado, encerrando a busca.");
+                    return new Resultado(melhor.threads, melhor.linhasPorTarefa, melhor.tempoAmostra, ensaios);
+                }
+            }
+        }
+        return new Resultado(melhor.threads, melhor.linhasPorTarefa, melhor.tempoAmostra, ensaios);
+    }
+
+    // Uma execução de aquecimento (JIT) e o menor tempo de REPETICOES execuções
+    private static double cronometrar(long[][] A, long[][] B, long[][] C, int linhas, int threads, int bloco)
+            throws InterruptedException {
+        MultiplicacaoMatrizesLog.multiplicarLinhasParalelo(A, B, C, linhas, threads, bloco);
+        long melhor = Long.MAX_VALUE;
+        for (int r = 0; r < REPETICOES; r++) {
+            long inicio = System.nanoTime();
+            MultiplicacaoMatrizesLog.multiplicarLinhasParalelo(A, B, C, linhas, threads, bloco);
+            melhor = Math.min(melhor, System.nanoTime() - inicio);
+        }
+        return melhor / 1e9;
+    }
+
+    // 1, 2, 4, ... até 2x núcleos, mais o número exato de núcleos
+    static List<Integer> candidatosThreads(int nucleos) {
+        TreeSet<Integer> candidatos = new TreeSet<>();
+        for (int t = 1; t <= 2 * nucleos; t *= 2) {
+            candidatos.add(t);
+        }
+        candidatos.add(nucleos);
+        return new ArrayList<>(candidatos);
+    }
+
+    static List<Integer> candidatosBloco(InfoHardware hw, int k, int colunas, int linhasAmostra, int threads) {
+        TreeSet<Integer> candidatos = new TreeSet<>();
+        candidatos.add(0); // divisão estática (uma faixa por thread)
+        for (int b : BLOCOS_FIXOS) {
+            if (b < linhasAmostra / threads) candidatos.add(b);
+        }
+        // Bloco cujas linhas de A (k longs) e de C (colunas longs) ocupam metade da L2
+        if (hw.getCacheL2() > 0) {
+            long bytesPorLinha = (long) (k + colunas) * Long.BYTES;
+            int blocoL2 = (int) Math.max(1, hw.getCacheL2() / 2 / bytesPorLinha);
+            if (blocoL2 < linhasAmostra / threads) candidatos.add(blocoL2);
+        }
+        return new ArrayList<>(candidatos);
+    }
+}
@@ -0,0 +1,296 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * GEMM Empacotado (estilo BLIS) com Microkernel SIMD
+ * * Problema: mesmo com a ordem i-k-j, cada elemento de C é lido e escrito da memória a cada
+ * passo de k, e os trechos de A e B usados juntos estão espalhados pela matriz.
+ * * Estratégia (os cinco laços do BLIS):
+ * - jc: painéis de NC colunas de B e C (o painel de B empacotado cabe na L3);
+ * - pc: fatias de KC de k; o painel KC x NC de B é EMPACOTADO num buffer contíguo;
+ * - ic: blocos de MC linhas de A, também empacotados (o bloco MC x KC cabe na L2);
+ * - jr/ir: o microkernel calcula um bloco MR x NR de C nos registradores, lendo os dois
+ *   buffers em sequência (a fatia KC x NR de B fica na L1).
+ * O empacotamento reorganiza os dados na ordem exata em que o microkernel os lê e completa as
+ * bordas com zeros, então o microkernel nunca trata casos especiais na entrada.
+ * * Paralelismo: nos laços externos de painel. O empacotamento de B é dividido entre as threads,
+ * e os blocos ic (cada um com seu buffer de A) são distribuídos no ForkJoinPool; as threads só
+ * escrevem em linhas disjuntas de C.
+ * * Tipos: long (exato) e double (usa fma no microkernel SIMD).
+ */
+public class GemmEmpacotado {
+
+    // Fatia de k: KC x NR de B (2 KB com NR = 1 e 64 bits) fica na L1
+    static final int KC = 256;
+    // Limites para os blocos calculados a partir das caches
+    private static final int MC_MAX = 512;
+    private static final int NC_MAX = 4096;
+
+    private final MicroKernel kernel;
+    private final int mc;
+    private final int kc;
+    private final int nc;
+
+    /**
+     * Dimensiona os blocos pela máquina: MC x KC de A na metade da L2 e KC x NC de B na metade
+     * da L3 (valores padrão quando a cache é desconhecida).
+     */
+    public GemmEmpacotado(MicroKernel kernel, InfoHardware hw) {
+        this.kernel = kernel;
+        this.kc = KC;
+        int mr = kernel.getMR(), nr = kernel.getNR();
+        long l2 = (hw.getCacheL2() > 0) ? hw.getCacheL2() : 256 * 1024;
+        long l3 = (hw.getCacheL3() > 0) ? hw.getCacheL3() : 8 * 1024 * 1024;
+        int mcCache = (int) Math.min(MC_MAX, l2 / 2 / ((long) kc * Long.BYTES));
+        int ncCache = (int) Math.min(NC_MAX, l3 / 2 / ((long) kc * Long.BYTES));
+        this.mc = Math.max(mr, mcCache / mr * mr);
+        this.nc = Math.max(nr, ncCache / nr * nr);
+    }
+
+    public String getDescricao() {
+        return "BLIS/mc=" + mc + ",kc=" + kc + ",nc=" + nc;
+    }
+
+    public MicroKernel getKernel() {
+        return kernel;
+    }
+
+    // --- long ---
+
+    public MatrizPlana multiplicar(MatrizPlana A, MatrizPlana B, int numThreads) {
+        MatrizPlana C = new MatrizPlana(A.getLinhas(), B.getColunas());
+        executar(new OperacoesLong(A.getDados(), B.getDados(), C.getDados(), A.getColunas(), B.getColunas()),
+                A.getLinhas(), B.getColunas(), A.getColunas(), numThreads);
+        return C;
+    }
+
+    // --- double (matrizes planas em ordem de linhas, m x k e k x n) ---
+
+    public double[] multiplicar(double[] a, double[] b, int m, int k, int n, int numThreads) {
+        double[] c = new double[Math.multiplyExact(m, n)];
+        executar(new OperacoesDouble(a, b, c, k, n), m, n, k, numThreads);
+        return c;
+    }
+
+    /** Converte a matriz para double (exato enquanto os valores cabem em 53 bits). */
+    static double[] paraDouble(MatrizPlana m) {
+        long[] dados = m.getDados();
+        double[] d = new double[dados.length];
+        for (int i = 0; i < dados.length; i++) {
+            d[i] = dados[i];
+        }
+        return d;
+    }
+
+    /** Converte o resultado double de volta para long[][] (validação com compararMatrizes). */
+    static long[][] paraMatriz(double[] c, int linhas, int colunas) {
+        long[][] m = new long[linhas][colunas];
+        for (int i = 0; i < linhas; i++) {
+            for (int j = 0; j < colunas; j++) {
+                m[i][j] = (long) c[i * colunas + j];
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Estimativa do pico teórico (GOP/s) usada como referência: núcleos x frequência x operações
+     * por ciclo, assumindo 2 unidades vetoriais com fma (2 operações por elemento) e a largura
+     * vetorial do microkernel. Para long é um limite superior otimista (não há fma de inteiros).
+     * Retorna 0 se a frequência for desconhecida.
+     */
+    public double picoTeoricoGops(InfoHardware hw) {
+        int lanes = (kernel == MicroKernel.ESCALAR) ? 1 : kernel.getNR();
+        double operacoesPorCiclo = 2.0 * 2 * lanes;
+        return hw.getNucleos() * hw.getFrequenciaMhz() / 1000.0 * operacoesPorCiclo;
+    }
+
+    // --- Laços do BLIS (comuns aos dois tipos) ---
+
+    private void executar(Operacoes op, int m, int n, int k, int numThreads) {
+        int mr = kernel.getMR();
+        // Blocos ic suficientes para ocupar todas as threads (sem passar do tamanho da L2)
+        int mcEfetivo = Math.min(mc, Math.max(mr, ((m + numThreads - 1) / numThreads + mr - 1) / mr * mr));
+        ForkJoinPool pool = (numThreads > 1) ? new ForkJoinPool(numThreads) : null;
+        ThreadLocal<Object> buffersA = ThreadLocal.withInitial(() -> op.novoBufferA(mcEfetivo, kc));
+        Object bufferB = op.novoBufferB(kc, nc);
+        try {
+            for (int jc = 0; jc < n; jc += nc) {
+                int ncAtual = Math.min(nc, n - jc);
+                int fatiasB = (ncAtual + kernel.getNR() - 1) / kernel.getNR();
+                for (int pc = 0; pc < k; pc += kc) {
+                    int kcAtual = Math.min(kc, k - pc);
+                    int jcF = jc, pcF = pc;
+                    // Empacota o painel de B (fatias NR divididas entre as threads)
+                    paraCada(pool, fatiasB, t -> op.empacotarB(bufferB, pcF, kcAtual, jcF, ncAtual, t, kernel.getNR()));
+                    // Cada bloco ic: empacota seu trecho de A e percorre o painel de B com o microkernel
+                    int blocosA = (m + mcEfetivo - 1) / mcEfetivo;
+                    paraCada(pool, blocosA, bloco -> {
+                        int ic = bloco * mcEfetivo;
+                        int mcAtual = Math.min(mcEfetivo, m - ic);
+                        Object bufferA = buffersA.get();
+                        op.empacotarA(bufferA, ic, mcAtual, pcF, kcAtual, mr);
+                        op.macroKernel(kernel, bufferA, bufferB, ic, mcAtual, jcF, ncAtual, kcAtual);
+                    });
+                }
+            }
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+    }
+
+    // Executa f(0..quantidade-1): direto na thread atual (sequencial) ou em paralelo no pool
+    private static void paraCada(ForkJoinPool pool, int quantidade, IntConsumer f) {
+        if (pool == null) {
+            for (int i = 0; i < quantidade; i++) f.accept(i);
+        } else {
+            pool.submit(() -> IntStream.range(0, quantidade).parallel().forEach(f)).join();
+        }
+    }
+
+    /** Empacotamento e macrokernel de um tipo de elemento (os buffers são long[] ou double[]). */
+    private interface Operacoes {
+        Object novoBufferA(int mc, int kc);
+
+        Object novoBufferB(int kc, int nc);
+
+        // Fatia t (NR colunas) do painel B[pc..pc+kc, jc..jc+nc]
+        void empacotarB(Object buffer, int pc, int kc, int jc, int nc, int t, int nr);
+
+        // Bloco A[ic..ic+mc, pc..pc+kc] em fatias de MR linhas
+        void empacotarA(Object buffer, int ic, int mc, int pc, int kc, int mr);
+
+        void macroKernel(MicroKernel kernel, Object bufferA, Object bufferB, int ic, int mc, int jc, int nc, int kc);
+    }
+
+    private final class OperacoesLong implements Operacoes {
+        private final long[] a, b, c;
+        private final int lda, ldb;
+
+        OperacoesLong(long[] a, long[] b, long[] c, int lda, int ldb) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.lda = lda;
+            this.ldb = ldb;
+        }
+
+        @Override
+        public Object novoBufferA(int mc, int kc) {
+            return new long[arredondar(mc, kernel.getMR()) * kc];
+        }
+
+        @Override
+        public Object novoBufferB(int kc, int nc) {
+            return new long[arredondar(nc, kernel.getNR()) * kc];
+        }
+
+        @Override
+        public void empacotarB(Object buffer, int pc, int kc, int jc, int nc, int t, int nr) {
+            long[] destino = (long[]) buffer;
+            int base = t * nr * kc;
+            int colunas = Math.min(nr, nc - t * nr);
+            for (int p = 0; p < kc; p++) {
+                int origem = (pc + p) * ldb + jc + t * nr;
+                int d = base + p * nr;
+                for (int q = 0; q < colunas; q++) destino[d + q] = b[origem + q];
+                for (int q = colunas; q < nr; q++) destino[d + q] = 0; // borda completada com zeros
+            }
+        }
+
+        @Override
+        public void empacotarA(Object buffer, int ic, int mc, int pc, int kc, int mr) {
+            long[] destino = (long[]) buffer;
+            for (int s = 0; s * mr < mc; s++) {
+                int base = s * mr * kc;
+                int linhas = Math.min(mr, mc - s * mr);
+                for (int r = 0; r < mr; r++) {
+                    int origem = (ic + s * mr + r) * lda + pc;
+                    for (int p = 0; p < kc; p++) {
+                        destino[base + p * mr + r] = (r < linhas) ? a[origem + p] : 0;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void macroKernel(MicroKernel kernel, Object bufferA, Object bufferB, int ic, int mc, int jc, int nc, int kc) {
+            long[] pa = (long[]) bufferA, pb = (long[]) bufferB;
+            int mr = kernel.getMR(), nr = kernel.getNR();
+            for (int jr = 0; jr < nc; jr += nr) {
+                for (int ir = 0; ir < mc; ir += mr) {
+                    kernel.calcular(kc, pa, ir * kc, pb, jr * kc, c, (ic + ir) * ldb + jc + jr, ldb,
+                            Math.min(mr, mc - ir), Math.min(nr, nc - jr));
+                }
+            }
+        }
+    }
+
+    private final class OperacoesDouble implements Operacoes {
+        private final double[] a, b, c;
+        private final int lda, ldb;
+
+        OperacoesDouble(double[] a, double[] b, double[] c, int lda, int ldb) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.lda = lda;
+            this.ldb = ldb;
+        }
+
+        @Override
+        public Object novoBufferA(int mc, int kc) {
+            return new double[arredondar(mc, kernel.getMR()) * kc];
+        }
+
+        @Override
+        public Object novoBufferB(int kc, int nc) {
+            return new double[arredondar(nc, kernel.getNR()) * kc];
+        }
+
+        @Override
+        public void empacotarB(Object buffer, int pc, int kc, int jc, int nc, int t, int nr) {
+            double[] destino = (double[]) buffer;
+            int base = t * nr * kc;
+            int colunas = Math.min(nr, nc - t * nr);
+            for (int p = 0; p < kc; p++) {
+                int origem = (pc + p) * ldb + jc + t * nr;
+                int d = base + p * nr;
+                for (int q = 0; q < colunas; q++) destino[d + q] = b[origem + q];
+                for (int q = colunas; q < nr; q++) destino[d + q] = 0;
+            }
+        }
+
+        @Override
+        public void empacotarA(Object buffer, int ic, int mc, int pc, int kc, int mr) {
+            double[] destino = (double[]) buffer;
+            for (int s = 0; s * mr < mc; s++) {
+                int base = s * mr * kc;
+                int linhas = Math.min(mr, mc - s * mr);
+                for (int r = 0; r < mr; r++) {
+                    int origem = (ic + s * mr + r) * lda + pc;
+                    for (int p = 0; p < kc; p++) {
+                        destino[base + p * mr + r] = (r < linhas) ? a[origem + p] : 0;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void macroKernel(MicroKernel kernel, Object bufferA, Object bufferB, int ic, int mc, int jc, int nc, int kc) {
+            double[] pa = (double[]) bufferA, pb = (double[]) bufferB;
+            int mr = kernel.getMR(), nr = kernel.getNR();
+            for (int jr = 0; jr < nc; jr += nr) {
+                for (int ir = 0; ir < mc; ir += mr) {
+                    kernel.calcular(kc, pa, ir * kc, pb, jr * kc, c, (ic + ir) * ldb + jc + jr, ldb,
+                            Math.min(mr, mc - ir), Math.min(nr, nc - jr));
+                }
+            }
+        }
+    }
+
+    private static int arredondar(int valor, int multiplo) {
+        return (valor + multiplo - 1) / multiplo * multiplo;
+    }
+}
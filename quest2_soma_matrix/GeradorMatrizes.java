@@ -0,0 +1,72 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Geração Paralela, Determinística e com Semente das Matrizes
+ * * Problema: gerarMatriz usa um único java.util.Random, numa thread só, e cada execução gera
+ * matrizes diferentes (impossível reproduzir um resultado exato).
+ * * Estratégia: cada LINHA tem o seu gerador (SplittableRandom), com semente derivada apenas de
+ * (semente, índice da linha). As linhas são geradas em paralelo, e o valor de cada célula não
+ * depende de qual thread a gerou: matrizes idênticas com 1 ou 64 threads.
+ * * Valores: inteiros aleatórios de 0 a 9, como no gerarMatriz original.
+ */
+public class GeradorMatrizes {
+
+    // Limite superior (exclusivo) dos valores gerados
+    static final int VALOR_MAXIMO = 10;
+
+    // Constante de Weyl (razão áurea em 64 bits), a mesma usada internamente pelo SplittableRandom
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Semente a partir do relógio, para quando o usuário não informa uma (0). */
+    static long sementeAleatoria() {
+        return misturar(System.nanoTime());
+    }
+
+    /** Semente da matriz B derivada da semente do experimento (A usa a semente original). */
+    static long sementeDerivada(long semente, int fluxo) {
+        return misturar(semente + fluxo * GAMMA);
+    }
+
+    /** Gerador exclusivo da linha 'linha': depende apenas de (semente, linha). */
+    static SplittableRandom geradorDaLinha(long semente, long linha) {
+        return new SplittableRandom(misturar(semente + (linha + 1) * GAMMA));
+    }
+
+    // Finalizador do MurmurHash3: espalha bem sementes próximas (ex: 1, 2, 3...)
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /** Preenche uma linha inteira (colunas valores) a partir da posição 'offset' de 'destino'. */
+    static void preencherLinha(long[] destino, int offset, int colunas, long semente, int linha) {
+        SplittableRandom rand = geradorDaLinha(semente, linha);
+        for (int j = 0; j < colunas; j++) {
+            destino[offset + j] = rand.nextInt(VALOR_MAXIMO);
+        }
+    }
+
+    /**
+     * Gera uma matriz linhas x colunas em paralelo (uma linha por tarefa) com 'numThreads' threads.
+     * O resultado não depende de numThreads.
+     */
+    static long[][] gerar(int linhas, int colunas, long semente, int numThreads) {
+        long[][] m = new long[linhas][colunas];
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            pool.submit(() -> IntStream.range(0, linhas).parallel()
+                    .forEach(i -> preencherLinha(m[i], 0, colunas, semente, i))).join();
+        } finally {
+            pool.shutdown();
+        }
+        return m;
+    }
+
+    // Por padrão a geração usa todos os núcleos (a fase de preparação escala com a máquina)
+    static long[][] gerar(int linhas, int colunas, long semente) {
+        return gerar(linhas, colunas, semente, Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,359 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Matriz Esparsa (CSR / CSC) e Multiplicações Paralelas
+ * * Problema: long[][] guarda todos os zeros e o laço triplo multiplica por eles. Com 1% de não
+ * nulos, 99% do tempo e da memória vão para zeros.
+ * * Formatos (só os não nulos são guardados):
+ * - CSR (linhas comprimidas): para a linha i, os não nulos estão em [inicio[i], inicio[i+1]) de
+ *   'indice' (coluna) e 'valor'.
+ * - CSC (colunas comprimidas): o mesmo por coluna ('indice' guarda a linha).
+ * * Operações (Seq = 1 faixa, Par = 'numThreads' faixas):
+ * - SpMV:            y = A(CSR) · x
+ * - Esparsa x Densa: C = A(CSR) · B    (linha i de C = soma de A(i,k) · linha k de B)
+ * - Densa x Esparsa: C = D · B(CSC)    (coluna j de C = soma de B(k,j) · coluna k de D)
+ * - Esparsa x Esparsa (Gustavson): C(CSR) = A(CSR) · B(CSR), linha a linha com um acumulador denso.
+ * * Divisão do trabalho: pelo número de NÃO NULOS, e não de linhas. Como 'inicio' já é a soma
+ * acumulada dos não nulos, os cortes saem por busca binária. Uma linha muito cheia não deixa as
+ * outras threads esperando por uma faixa que tem o mesmo número de linhas mas muito mais trabalho.
+ */
+public class MatrizEsparsa {
+
+    private final int linhas;
+    private final int colunas;
+    // true = CSC (comprimida por coluna), false = CSR (comprimida por linha)
+    private final boolean porColuna;
+    private final int[] inicio;
+    private final int[] indice;
+    private final long[] valor;
+
+    private MatrizEsparsa(int linhas, int colunas, boolean porColuna, int[] inicio, int[] indice, long[] valor) {
+        this.linhas = linhas;
+        this.colunas = colunas;
+        this.porColuna = porColuna;
+        this.inicio = inicio;
+        this.indice = indice;
+        this.valor = valor;
+    }
+
+    // --- Construção e Conversões ---
+
+    /** Converte para CSC (se já for CSC, devolve a própria matriz). */
+    public MatrizEsparsa paraCSC() {
+        return porColuna ? this : transpor(true);
+    }
+
+    /** Converte para CSR (se já for CSR, devolve a própria matriz). */
+    public MatrizEsparsa paraCSR() {
+        return porColuna ? transpor(false) : this;
+    }
+
+    /** Transposta sem cópia: os mesmos arrays lidos pelo outro eixo (CSR de A = CSC de A^T). */
+    public MatrizEsparsa transposta() {
+        return new MatrizEsparsa(colunas, linhas, !porColuna, inicio, indice, valor);
+    }
+
+    // Troca o eixo comprimido (contagem por índice + soma acumulada); a ordem dentro de cada eixo é mantida
+    private MatrizEsparsa transpor(boolean novoPorColuna) {
+        int eixo = porColuna ? linhas : colunas; // tamanho do novo eixo comprimido
+        int[] novoInicio = new int[eixo + 1];
+        for (int idx : indice) novoInicio[idx + 1]++;
+        for (int e = 0; e < eixo; e++) novoInicio[e + 1] += novoInicio[e];
+        int[] proximo = Arrays.copyOf(novoInicio, eixo);
+        int[] novoIndice = new int[indice.length];
+        long[] novoValor = new long[valor.length];
+        int eixoAtual = inicio.length - 1;
+        for (int e = 0; e < eixoAtual; e++) {
+            for (int p = inicio[e]; p < inicio[e + 1]; p++) {
+                int destino = proximo[indice[p]]++;
+                novoIndice[destino] = e;
+                novoValor[destino] = valor[p];
+            }
+        }
+        return new MatrizEsparsa(linhas, colunas, novoPorColuna, novoInicio, novoIndice, novoValor);
+    }
+
+    /** Volta para long[][] (usado na validação com compararMatrizes). */
+    public long[][] paraDensa() {
+        long[][] m = new long[linhas][colunas];
+        for (int e = 0; e < inicio.length - 1; e++) {
+            for (int p = inicio[e]; p < inicio[e + 1]; p++) {
+                if (porColuna) m[indice[p]][e] = valor[p];
+                else m[e][indice[p]] = valor[p];
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Gera uma matriz CSR com valores de 1 a 9 e a 'densidade' (fração de não nulos) pedida.
+     * Cada linha usa o gerador (semente, linha) do GeradorMatrizes: reprodutível.
+     * Enviesada: os primeiros 10% das linhas ficam com metade das posições preenchidas, o que
+     * desequilibra a divisão por número de linhas.
+     */
+    public static MatrizEsparsa gerar(int linhas, int colunas, double densidade, boolean enviesada, long semente) {
+        int[] inicio = new int[linhas + 1];
+        int[][] colunasLinha = new int[linhas][];
+        long[][] valoresLinha = new long[linhas][];
+        int[] temp = new int[colunas];
+        for (int i = 0; i < linhas; i++) {
+            double d = (enviesada && i < linhas / 10) ? Math.max(densidade, 0.5) : densidade;
+            SplittableRandom rand = GeradorMatrizes.geradorDaLinha(semente, i);
+            int nnz = 0;
+            for (int j = 0; j < colunas; j++) {
+                if (rand.nextDouble() < d) temp[nnz++] = j;
+            }
+            colunasLinha[i] = Arrays.copyOf(temp, nnz);
+            valoresLinha[i] = new long[nnz];
+            for (int p = 0; p < nnz; p++) valoresLinha[i][p] = 1 + rand.nextInt(GeradorMatrizes.VALOR_MAXIMO - 1);
+            inicio[i + 1] = inicio[i] + nnz;
+        }
+        int[] indice = new int[inicio[linhas]];
+        long[] valor = new long[inicio[linhas]];
+        for (int i = 0; i < linhas; i++) {
+            System.arraycopy(colunasLinha[i], 0, indice, inicio[i], colunasLinha[i].length);
+            System.arraycopy(valoresLinha[i], 0, valor, inicio[i], valoresLinha[i].length);
+        }
+        return new MatrizEsparsa(linhas, colunas, false, inicio, indice, valor);
+    }
+
+    public int getLinhas() {
+        return linhas;
+    }
+
+    public int getColunas() {
+        return colunas;
+    }
+
+    public int getNaoNulos() {
+        return indice.length;
+    }
+
+    public double getDensidade() {
+        return (double) indice.length / ((double) linhas * colunas);
+    }
+
+    public String getFormato() {
+        return porColuna ? "CSC" : "CSR";
+    }
+
+    // --- Divisão do Trabalho por Não Nulos ---
+
+    /**
+     * Divide os eixos [0, eixos) em 'partes' faixas com quase o mesmo trabalho. 'acumulado' é a
+     * soma acumulada do trabalho (tamanho eixos + 1); o corte p fica no primeiro eixo cujo
+     * acumulado alcança p/partes do total.
+     */
+    static int[] particionar(long[] acumulado, int partes) {
+        int eixos = acumulado.length - 1;
+        long total = acumulado[eixos];
+        int[] limites = new int[partes + 1];
+        limites[partes] = eixos;
+        for (int p = 1; p < partes; p++) {
+            long alvo = total * p / partes;
+            int pos = Arrays.binarySearch(acumulado, 0, eixos + 1, alvo);
+            if (pos < 0) pos = -pos - 1;
+            else while (pos > 0 && acumulado[pos - 1] == alvo) pos--; // primeiro eixo com o alvo
+            limites[p] = Math.max(limites[p - 1], Math.min(pos, eixos));
+        }
+        return limites;
+    }
+
+    // Trabalho acumulado = número de não nulos por eixo (o próprio 'inicio', em long)
+    private long[] naoNulosAcumulados() {
+        long[] acumulado = new long[inicio.length];
+        for (int e = 0; e < inicio.length; e++) acumulado[e] = inicio[e];
+        return acumulado;
+    }
+
+    /** Ação sobre a faixa de eixos [de, ate) (linhas no CSR, colunas no CSC). */
+    @FunctionalInterface
+    private interface AcaoFaixa {
+        void executar(int de, int ate);
+    }
+
+    // Uma thread por faixa; com uma faixa só roda direto na thread atual (versão sequencial).
+    // A primeira falha de uma faixa é relançada depois dos joins (nunca um resultado incompleto)
+    private static void executarFaixas(int[] limites, AcaoFaixa acao) throws InterruptedException {
+        int partes = limites.length - 1;
+        if (partes == 1) {
+            acao.executar(limites[0], limites[1]);
+            return;
+        }
+        Thread[] threads = new Thread[partes];
+        AtomicReference<Throwable> falha = new AtomicReference<>();
+        for (int t = 0; t < partes; t++) {
+            int de = limites[t], ate = limites[t + 1];
+            threads[t] = new Thread(() -> {
+                try {
+                    acao.executar(de, ate);
+                } catch (Throwable e) {
+                    falha.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        Throwable causa = falha.get();
+        if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+        if (causa instanceof Error) throw (Error) causa;
+        if (causa != null) throw new IllegalStateException(causa);
+    }
+
+    // --- SpMV: y = A · x ---
+    public long[] multiplicarVetor(long[] x, int numThreads) throws InterruptedException {
+        MatrizEsparsa a = paraCSR();
+        long[] y = new long[linhas];
+        executarFaixas(particionar(a.naoNulosAcumulados(), numThreads), (de, ate) -> {
+            for (int i = de; i < ate; i++) {
+                long soma = 0;
+                for (int p = a.inicio[i]; p < a.inicio[i + 1]; p++) {
+                    soma += a.valor[p] * x[a.indice[p]];
+                }
+                y[i] = soma;
+            }
+        });
+        return y;
+    }
+
+    // --- Esparsa x Densa: C = A(CSR) · B ---
+    public long[][] multiplicarDensa(long[][] B, int numThreads) throws InterruptedException {
+        MatrizEsparsa a = paraCSR();
+        int n = B[0].length;
+        long[][] C = new long[linhas][n];
+        executarFaixas(particionar(a.naoNulosAcumulados(), numThreads), (de, ate) -> {
+            for (int i = de; i < ate; i++) {
+                long[] linhaC = C[i];
+                for (int p = a.inicio[i]; p < a.inicio[i + 1]; p++) {
+                    long v = a.valor[p];
+                    long[] linhaB = B[a.indice[p]];
+                    for (int j = 0; j < n; j++) {
+                        linhaC[j] += v * linhaB[j];
+                    }
+                }
+            }
+        });
+        return C;
+    }
+
+    // --- Densa x Esparsa: C = D · B(CSC), esta matriz é o B ---
+    public long[][] multiplicarPelaEsquerda(long[][] D, int numThreads) throws InterruptedException {
+        MatrizEsparsa b = paraCSC();
+        int m = D.length;
+        long[][] C = new long[m][colunas];
+        // Cada faixa é um conjunto de COLUNAS de C: escritas disjuntas
+        executarFaixas(particionar(b.naoNulosAcumulados(), numThreads), (de, ate) -> {
+            // Linha a linha de D: C(i,j) é o produto escalar da linha i de D com a coluna j de B
+            for (int i = 0; i < m; i++) {
+                long[] linhaD = D[i], linhaC = C[i];
+                for (int j = de; j < ate; j++) {
+                    long soma = 0;
+                    for (int p = b.inicio[j]; p < b.inicio[j + 1]; p++) {
+                        soma += linhaD[b.indice[p]] * b.valor[p];
+                    }
+                    linhaC[j] = soma;
+                }
+            }
+        });
+        return C;
+    }
+
+    // --- Esparsa x Esparsa (Gustavson): C(CSR) = A(CSR) · B(CSR) ---
+    public MatrizEsparsa multiplicarEsparsa(MatrizEsparsa B, int numThreads) throws InterruptedException {
+        MatrizEsparsa a = paraCSR(), b = B.paraCSR();
+        int n = b.colunas;
+
+        // Trabalho da linha i = número de produtos A(i,k)·B(k,:) = soma dos não nulos das linhas k de B
+        long[] trabalho = new long[linhas + 1];
+        for (int i = 0; i < linhas; i++) {
+            long produtos = 0;
+            for (int p = a.inicio[i]; p < a.inicio[i + 1]; p++) {
+                int k = a.indice[p];
+                produtos += b.inicio[k + 1] - b.inicio[k];
+            }
+            trabalho[i + 1] = trabalho[i] + produtos;
+        }
+        int[] limites = particionar(trabalho, numThreads);
+
+        // Cada linha de C é montada num acumulador denso da faixa e guardada compacta
+        int[][] colunasLinha = new int[linhas][];
+        long[][] valoresLinha = new long[linhas][];
+        executarFaixas(limites, (de, ate) -> {
+            long[] acumulador = new long[n];
+            boolean[] ocupada = new boolean[n];
+            int[] usadas = new int[n];
+            for (int i = de; i < ate; i++) {
+                int qtd = 0;
+                for (int p = a.inicio[i]; p < a.inicio[i + 1]; p++) {
+                    long v = a.valor[p];
+                    int k = a.indice[p];
+                    for (int q = b.inicio[k]; q < b.inicio[k + 1]; q++) {
+                        int j = b.indice[q];
+                        if (!ocupada[j]) {
+                            ocupada[j] = true;
+                            usadas[qtd++] = j;
+                        }
+                        acumulador[j] += v * b.valor[q];
+                    }
+                }
+                // Colunas em ordem crescente (CSR canônico) e zeros de cancelamento descartados
+                Arrays.sort(usadas, 0, qtd);
+                int[] cols = new int[qtd];
+                long[] vals = new long[qtd];
+                int nnz = 0;
+                for (int u = 0; u < qtd; u++) {
+                    int j = usadas[u];
+                    if (acumulador[j] != 0) {
+                        cols[nnz] = j;
+                        vals[nnz++] = acumulador[j];
+                    }
+                    acumulador[j] = 0;
+                    ocupada[j] = false;
+                }
+                colunasLinha[i] = Arrays.copyOf(cols, nnz);
+                valoresLinha[i] = Arrays.copyOf(vals, nnz);
+            }
+        });
+
+        int[] inicioC = new int[linhas + 1];
+        for (int i = 0; i < linhas; i++) inicioC[i + 1] = inicioC[i] + colunasLinha[i].length;
+        int[] indiceC = new int[inicioC[linhas]];
+        long[] valorC = new long[inicioC[linhas]];
+        for (int i = 0; i < linhas; i++) {
+            System.arraycopy(colunasLinha[i], 0, indiceC, inicioC[i], colunasLinha[i].length);
+            System.arraycopy(valoresLinha[i], 0, valorC, inicioC[i], valoresLinha[i].length);
+        }
+        return new MatrizEsparsa(linhas, n, false, inicioC, indiceC, valorC);
+    }
+
+    /** Número de multiplicações escalares de A · B (a métrica de operações do Gustavson). */
+    public long contarProdutos(MatrizEsparsa B) {
+        MatrizEsparsa a = paraCSR(), b = B.paraCSR();
+        long produtos = 0;
+        for (int p = 0; p < a.indice.length; p++) {
+            int k = a.indice[p];
+            produtos += b.inicio[k + 1] - b.inicio[k];
+        }
+        return produtos;
+    }
+
+    // Igualdade pelo conteúdo (usada pela Medicao para conferir as repetições)
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MatrizEsparsa)) return false;
+        MatrizEsparsa outra = (MatrizEsparsa) o;
+        return linhas == outra.linhas && colunas == outra.colunas && porColuna == outra.porColuna
+                && Arrays.equals(inicio, outra.inicio) && Arrays.equals(indice, outra.indice)
+                && Arrays.equals(valor, outra.valor);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(inicio) + Arrays.hashCode(valor);
+    }
+}
@@ -0,0 +1,191 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Matriz Fora do Heap (arquivo mapeado em memória)
+ * * Problema: long[][] limita as matrizes ao heap da JVM: com M = K = N = 20000, A, B e os dois C
+ * já somam 12 GB.
+ * * Estratégia: a matriz (ordem de linhas, longs nativos) fica num arquivo temporário mapeado
+ * com FileChannel.map. Um único mapeamento é limitado a 2 GB, então o arquivo é dividido em
+ * "janelas" de no máximo JANELA_MAX_BYTES, cada uma com um número inteiro de linhas; o acesso
+ * (i, j) escolhe a janela da linha i. Os kernels leem e escrevem direto nas páginas mapeadas: o
+ * heap guarda só uma linha de trabalho por thread, e o SO decide o que fica em RAM.
+ * * O arquivo é apagado ao fechar a matriz (DELETE_ON_CLOSE).
+ */
+public class MatrizForaDoHeap implements AutoCloseable {
+
+    // Tamanho máximo de cada janela mapeada (o limite de um MappedByteBuffer é 2 GB)
+    static final long JANELA_MAX_BYTES = 1L << 30;
+
+    private final int linhas;
+    private final int colunas;
+    private final int linhasPorJanela;
+    private final FileChannel canal;
+    private final LongBuffer[] janelas;
+
+    private MatrizForaDoHeap(int linhas, int colunas, FileChannel canal) throws IOException {
+        this.linhas = linhas;
+        this.colunas = colunas;
+        this.canal = canal;
+        this.linhasPorJanela = (int) Math.max(1, Math.min(linhas, JANELA_MAX_BYTES / ((long) colunas * Long.BYTES)));
+        int numJanelas = (linhas + linhasPorJanela - 1) / linhasPorJanela;
+        this.janelas = new LongBuffer[numJanelas];
+        for (int w = 0; w < numJanelas; w++) {
+            long primeiraLinha = (long) w * linhasPorJanela;
+            long linhasNaJanela = Math.min(linhasPorJanela, linhas - primeiraLinha);
+            // Mapear READ_WRITE além do fim do arquivo o estende (com zeros)
+            janelas[w] = canal.map(FileChannel.MapMode.READ_WRITE, primeiraLinha * colunas * Long.BYTES,
+                    linhasNaJanela * colunas * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+    }
+
+    /** Cria uma matriz zerada num arquivo temporário da pasta atual. */
+    public static MatrizForaDoHeap criar(int linhas, int colunas) throws IOException {
+        // Pasta atual, e não /tmp: em muitos sistemas /tmp é tmpfs (ou seja, RAM)
+        Path arquivo = Files.createTempFile(Paths.get("."), "matriz", ".bin");
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        return new MatrizForaDoHeap(linhas, colunas, canal);
+    }
+
+    /**
+     * Cria e preenche com os mesmos valores de GeradorMatrizes.gerar(linhas, colunas, semente):
+     * cada linha usa o gerador (semente, linha), em paralelo e sem montar a matriz no heap.
+     */
+    public static MatrizForaDoHeap gerar(int linhas, int colunas, long semente) throws IOException {
+        MatrizForaDoHeap m = criar(linhas, colunas);
+        ThreadLocal<long[]> buffers = ThreadLocal.withInitial(() -> new long[colunas]);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.submit(() -> IntStream.range(0, linhas).parallel().forEach(i -> {
+                long[] linha = buffers.get();
+                GeradorMatrizes.preencherLinha(linha, 0, colunas, semente, i);
+                m.escreverLinha(i, linha);
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+        return m;
+    }
+
+    public int getLinhas() {
+        return linhas;
+    }
+
+    public int getColunas() {
+        return colunas;
+    }
+
+    public long get(int i, int j) {
+        return janela(i).get(deslocamento(i) + j);
+    }
+
+    // Janela que contém a linha i
+    LongBuffer janela(int i) {
+        return janelas[i / linhasPorJanela];
+    }
+
+    // Posição do início da linha i dentro da sua janela
+    int deslocamento(int i) {
+        return (i % linhasPorJanela) * colunas;
+    }
+
+    // Escrita absoluta (não mexe na posição do buffer): várias threads podem escrever linhas diferentes
+    void escreverLinha(int i, long[] origem) {
+        janela(i).put(deslocamento(i), origem, 0, colunas);
+    }
+
+    // --- Algoritmo Sequencial (i-k-j direto nas páginas mapeadas) ---
+    public static MatrizForaDoHeap multiplicarSequencial(MatrizForaDoHeap A, MatrizForaDoHeap B, MatrizForaDoHeap C) {
+        multiplicarLinhas(A, B, C, 0, A.linhas);
+        return C;
+    }
+
+    // --- Algoritmo Paralelo (faixas de linhas de C, uma por thread) ---
+    public static MatrizForaDoHeap multiplicarParalelo(MatrizForaDoHeap A, MatrizForaDoHeap B, MatrizForaDoHeap C,
+                                                       int numThreads) throws InterruptedException {
+        WorkerThread[] threads = new WorkerThread[numThreads];
+        int linhasPorThread = A.linhas / numThreads;
+        for (int i = 0; i < numThreads; i++) {
+            int linhaInicio = i * linhasPorThread;
+            // A última thread pega todas as linhas restantes
+            int linhaFim = (i == numThreads - 1) ? A.linhas : (linhaInicio + linhasPorThread);
+            threads[i] = new WorkerThread(A, B, C, linhaInicio, linhaFim);
+            threads[i].start();
+        }
+        for (int i = 0; i < numThreads; i++) {
+            threads[i].join();
+        }
+        return C;
+    }
+
+    /**
+     * Linhas [linhaInicio, linhaFim) de C = A x B. Cada linha de C é acumulada numa linha de
+     * trabalho no heap (O(N) por thread) e gravada de uma vez; A e B são lidas direto do mapeamento.
+     */
+    static void multiplicarLinhas(MatrizForaDoHeap A, MatrizForaDoHeap B, MatrizForaDoHeap C, int linhaInicio, int linhaFim) {
+        int n = B.colunas, kMax = A.colunas;
+        long[] linhaC = new long[n];
+        for (int i = linhaInicio; i < linhaFim; i++) {
+            Arrays.fill(linhaC, 0);
+            LongBuffer ja = A.janela(i);
+            int baseA = A.deslocamento(i);
+            for (int k = 0; k < kMax; k++) {
+                long aik = ja.get(baseA + k);
+                LongBuffer jb = B.janela(k);
+                int baseB = B.deslocamento(k);
+                for (int j = 0; j < n; j++) {
+                    linhaC[j] += aik * jb.get(baseB + j);
+                }
+            }
+            C.escreverLinha(i, linhaC);
+        }
+    }
+
+    /** Compara célula por célula direto nos mapeamentos (sem copiar as matrizes para o heap). */
+    public static boolean compararMatrizes(MatrizForaDoHeap m1, MatrizForaDoHeap m2) {
+        if (m1.linhas != m2.linhas || m1.colunas != m2.colunas) return false;
+        for (int i = 0; i < m1.linhas; i++) {
+            LongBuffer j1 = m1.janela(i), j2 = m2.janela(i);
+            int base1 = m1.deslocamento(i), base2 = m2.deslocamento(i);
+            for (int j = 0; j < m1.colunas; j++) {
+                if (j1.get(base1 + j) != j2.get(base2 + j)) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Thread trabalhadora: calcula uma faixa de linhas de C. */
+    static class WorkerThread extends Thread {
+        private final MatrizForaDoHeap A, B, C;
+        private final int linhaInicio, linhaFim;
+
+        public WorkerThread(MatrizForaDoHeap A, MatrizForaDoHeap B, MatrizForaDoHeap C, int linhaInicio, int linhaFim) {
+            this.A = A;
+            this.B = B;
+            this.C = C;
+            this.linhaInicio = linhaInicio;
+            this.linhaFim = linhaFim;
+        }
+
+        @Override
+        public void run() {
+            multiplicarLinhas(A, B, C, linhaInicio, linhaFim);
+        }
+    }
+
+    /** Fecha o canal; o arquivo temporário é apagado (o mapeamento é liberado pelo GC). */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,148 @@
+import java.util.Arrays;
+
+/**
+ * Matriz Plana (um único long[] em ordem de linhas) e Kernels i-k-j
+ * * Problema: em long[][] cada linha é um objeto separado no heap, e o laço i-j-k lê B[k][j]
+ * descendo pela coluna: a cada iteração do laço interno o acesso salta para OUTRO array de linha.
+ * Cada elemento de B traz uma linha de cache inteira (8 longs) da qual só 1 é usado; o cálculo
+ * fica limitado pela memória e o paralelo não ganha nada (Sp de 0.94 a 1.01 nos logs).
+ * * Estratégia:
+ * - Layout: os dados ficam contíguos num long[] (elemento (i, j) na posição i * colunas + j);
+ * - Ordem i-k-j: para cada A(i, k), soma A(i, k) * B(k, :) na linha C(i, :). O laço interno
+ *   percorre uma linha de B e uma linha de C sequencialmente (passo 1), usa a linha de cache
+ *   inteira e é vetorizável pelo JIT.
+ * O paralelo divide as linhas de C em faixas, como o multiplicarParalelo original.
+ */
+public class MatrizPlana {
+
+    private final int linhas;
+    private final int colunas;
+    private final long[] dados;
+
+    public MatrizPlana(int linhas, int colunas) {
+        this(linhas, colunas, new long[Math.multiplyExact(linhas, colunas)]);
+    }
+
+    private MatrizPlana(int linhas, int colunas, long[] dados) {
+        this.linhas = linhas;
+        this.colunas = colunas;
+        this.dados = dados;
+    }
+
+    /** Copia uma matriz long[][] para o layout plano. */
+    public static MatrizPlana de(long[][] m) {
+        MatrizPlana p = new MatrizPlana(m.length, m[0].length);
+        for (int i = 0; i < p.linhas; i++) {
+            System.arraycopy(m[i], 0, p.dados, i * p.colunas, p.colunas);
+        }
+        return p;
+    }
+
+    /** Volta para long[][] (usado na validação com compararMatrizes). */
+    public long[][] paraMatriz() {
+        long[][] m = new long[linhas][colunas];
+        for (int i = 0; i < linhas; i++) {
+            System.arraycopy(dados, i * colunas, m[i], 0, colunas);
+        }
+        return m;
+    }
+
+    public int getLinhas() {
+        return linhas;
+    }
+
+    public int getColunas() {
+        return colunas;
+    }
+
+    public long get(int i, int j) {
+        return dados[i * colunas + j];
+    }
+
+    // Acesso direto ao array (para os kernels; ordem de linhas)
+    long[] getDados() {
+        return dados;
+    }
+
+    // --- Algoritmo Sequencial (i-k-j) ---
+    public static MatrizPlana multiplicarSequencial(MatrizPlana A, MatrizPlana B) {
+        MatrizPlana C = new MatrizPlana(A.linhas, B.colunas);
+        multiplicarLinhas(A, B, C, 0, A.linhas);
+        return C;
+    }
+
+    // --- Algoritmo Paralelo (faixas de linhas de C, uma por thread) ---
+    public static MatrizPlana multiplicarParalelo(MatrizPlana A, MatrizPlana B, int numThreads) throws InterruptedException {
+        MatrizPlana C = new MatrizPlana(A.linhas, B.colunas);
+        WorkerThread[] threads = new WorkerThread[numThreads];
+        int linhasPorThread = A.linhas / numThreads;
+
+        for (int i = 0; i < numThreads; i++) {
+            int linhaInicio = i * linhasPorThread;
+            // A última thread pega todas as linhas restantes
+            int linhaFim = (i == numThreads - 1) ? A.linhas : (linhaInicio + linhasPorThread);
+            threads[i] = new WorkerThread(A, B, C, linhaInicio, linhaFim);
+            threads[i].start();
+        }
+        for (int i = 0; i < numThreads; i++) {
+            threads[i].join();
+        }
+        return C;
+    }
+
+    /**
+     * Núcleo i-k-j: linhas [linhaInicio, linhaFim) de C += A x B.
+     * C precisa começar zerada nessas linhas (acumula sobre o valor atual).
+     */
+    static void multiplicarLinhas(MatrizPlana A, MatrizPlana B, MatrizPlana C, int linhaInicio, int linhaFim) {
+        long[] a = A.dados, b = B.dados, c = C.dados;
+        int n = B.colunas;
+        int kMax = A.colunas;
+        for (int i = linhaInicio; i < linhaFim; i++) {
+            int linhaC = i * n;
+            int linhaA = i * kMax;
+            for (int k = 0; k < kMax; k++) {
+                long aik = a[linhaA + k];
+                int linhaB = k * n;
+                // Linha de B e linha de C percorridas em sequência (passo 1)
+                for (int j = 0; j < n; j++) {
+                    c[linhaC + j] += aik * b[linhaB + j];
+                }
+            }
+        }
+    }
+
+    /** Thread trabalhadora: calcula uma faixa de linhas de C com o núcleo i-k-j. */
+    static class WorkerThread extends Thread {
+        private final MatrizPlana A, B, C;
+        private final int linhaInicio, linhaFim;
+
+        public WorkerThread(MatrizPlana A, MatrizPlana B, MatrizPlana C, int linhaInicio, int linhaFim) {
+            this.A = A;
+            this.B = B;
+            this.C = C;
+            this.linhaInicio = linhaInicio;
+            this.linhaFim = linhaFim;
+        }
+
+        @Override
+        public void run() {
+            // Cada thread escreve só nas suas linhas de C (sem condição de corrida)
+            multiplicarLinhas(A, B, C, linhaInicio, linhaFim);
+        }
+    }
+
+    // Igualdade pelo conteúdo (usada pela Medicao para conferir as repetições)
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MatrizPlana)) return false;
+        MatrizPlana outra = (MatrizPlana) o;
+        return linhas == outra.linhas && colunas == outra.colunas && Arrays.equals(dados, outra.dados);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * linhas + colunas) + Arrays.hashCode(dados);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Microkernel do GEMM Empacotado (bloco MR x NR de C nos registradores)
+ * * Objetivo: isolar o laço mais interno do GemmEmpacotado, que calcula um pequeno bloco de C
+ * a partir de uma fatia empacotada de A (MR linhas) e uma de B (NR colunas):
+ *   C[MR x NR] += Apack[kc x MR] · Bpack[kc x NR]
+ * * Layout empacotado (preparado pelo GemmEmpacotado):
+ * - Apack: para cada p em [0, kc), os MR elementos A(i..i+MR, p) lado a lado;
+ * - Bpack: para cada p em [0, kc), os NR elementos B(p, j..j+NR) lado a lado.
+ * Os dois são lidos sequencialmente, e as bordas vêm completadas com zeros.
+ * * Implementações:
+ * - ESCALAR: laços simples (referência, roda em qualquer JVM).
+ * - SIMD: Java Vector API (jdk.incubator.vector), NR = largura do registrador vetorial.
+ *   Exige '--add-modules jdk.incubator.vector'; sem o módulo, simd() devolve null.
+ */
+public interface MicroKernel {
+
+    /** Linhas do bloco de C calculado por chamada. */
+    int getMR();
+
+    /** Colunas do bloco de C calculado por chamada. */
+    int getNR();
+
+    String getNome();
+
+    /**
+     * C[offC..] += Apack · Bpack, escrevendo apenas as primeiras 'mr' linhas e 'nr' colunas
+     * (bordas da matriz). 'ldc' é o número de colunas de C (distância entre linhas).
+     */
+    void calcular(int kc, long[] a, int offA, long[] b, int offB, long[] c, int offC, int ldc, int mr, int nr);
+
+    void calcular(int kc, double[] a, int offA, double[] b, int offB, double[] c, int offC, int ldc, int mr, int nr);
+
+    /** Microkernel escalar 4x4. */
+    MicroKernel ESCALAR = new MicroKernel() {
+        private static final int MR = 4, NR = 4;
+
+        @Override
+        public int getMR() {
+            return MR;
+        }
+
+        @Override
+        public int getNR() {
+            return NR;
+        }
+
+        @Override
+        public String getNome() {
+            return "Escalar(" + MR + "x" + NR + ")";
+        }
+
+        @Override
+        public void calcular(int kc, long[] a, int offA, long[] b, int offB, long[] c, int offC, int ldc, int mr, int nr) {
+            for (int p = 0; p < kc; p++) {
+                for (int r = 0; r < mr; r++) {
+                    long air = a[offA + p * MR + r];
+                    int linhaC = offC + r * ldc;
+                    for (int q = 0; q < nr; q++) {
+                        c[linhaC + q] += air * b[offB + p * NR + q];
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void calcular(int kc, double[] a, int offA, double[] b, int offB, double[] c, int offC, int ldc, int mr, int nr) {
+            for (int p = 0; p < kc; p++) {
+                for (int r = 0; r < mr; r++) {
+                    double air = a[offA + p * MR + r];
+                    int linhaC = offC + r * ldc;
+                    for (int q = 0; q < nr; q++) {
+                        c[linhaC + q] += air * b[offB + p * NR + q];
+                    }
+                }
+            }
+        }
+    };
+
+    /**
+     * Retorna o microkernel SIMD, ou null se o módulo jdk.incubator.vector não estiver disponível.
+     * A classe MicroKernelSimd é carregada por reflexão para que o programa continue rodando
+     * (com o microkernel escalar) quando a JVM é iniciada sem o módulo incubador.
+     */
+    static MicroKernel simd() {
+        try {
+            return (MicroKernel) Class.forName("MicroKernelSimd").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Microkernel SIMD do GEMM Empacotado usando a Java Vector API.
+ * * Bloco de C: MR = 4 linhas x NR = LANES colunas, mantido em 4 registradores vetoriais
+ * (acumuladores) durante todo o laço em p. A cada passo:
+ *   - carrega NR elementos de B (um vetor),
+ *   - para cada uma das 4 linhas, multiplica pelo escalar A(i + r, p) replicado e acumula.
+ * C só é lido e escrito uma vez por chamada, no fim.
+ * * long: mul + add (a API não tem fma para inteiros); double: fma (multiplica e soma numa instrução).
+ * * Largura automática: SPECIES_PREFERRED (ex: 4 elementos com AVX2, 8 com AVX-512).
+ * * Compilação/Execução: javac --add-modules jdk.incubator.vector -d . *.java ../comum/*.java
+ *                        java --add-modules jdk.incubator.vector MultiplicacaoMatrizesLog
+ */
+public class MicroKernelSimd implements MicroKernel {
+
+    private static final int MR = 4;
+    private static final VectorSpecies<Long> ESPECIE_LONG = LongVector.SPECIES_PREFERRED;
+    // Mesma largura em elementos que a de long (ambos têm 64 bits)
+    private static final VectorSpecies<Double> ESPECIE_DOUBLE = DoubleVector.SPECIES_PREFERRED;
+    private static final int NR = ESPECIE_LONG.length();
+
+    @Override
+    public int getMR() {
+        return MR;
+    }
+
+    @Override
+    public int getNR() {
+        return NR;
+    }
+
+    @Override
+    public String getNome() {
+        return "SIMD(" + MR + "x" + NR + ")";
+    }
+
+    @Override
+    public void calcular(int kc, long[] a, int offA, long[] b, int offB, long[] c, int offC, int ldc, int mr, int nr) {
+        LongVector c0 = LongVector.zero(ESPECIE_LONG);
+        LongVector c1 = LongVector.zero(ESPECIE_LONG);
+        LongVector c2 = LongVector.zero(ESPECIE_LONG);
+        LongVector c3 = LongVector.zero(ESPECIE_LONG);
+        for (int p = 0; p < kc; p++) {
+            LongVector vb = LongVector.fromArray(ESPECIE_LONG, b, offB + p * NR);
+            int pa = offA + p * MR;
+            c0 = c0.add(vb.mul(a[pa]));
+            c1 = c1.add(vb.mul(a[pa + 1]));
+            c2 = c2.add(vb.mul(a[pa + 2]));
+            c3 = c3.add(vb.mul(a[pa + 3]));
+        }
+        // Linhas além de 'mr' são padding (zeros) e não são escritas
+        acumular(c0, c, offC, nr);
+        if (mr > 1) acumular(c1, c, offC + ldc, nr);
+        if (mr > 2) acumular(c2, c, offC + 2 * ldc, nr);
+        if (mr > 3) acumular(c3, c, offC + 3 * ldc, nr);
+    }
+
+    @Override
+    public void calcular(int kc, double[] a, int offA, double[] b, int offB, double[] c, int offC, int ldc, int mr, int nr) {
+        DoubleVector c0 = DoubleVector.zero(ESPECIE_DOUBLE);
+        DoubleVector c1 = DoubleVector.zero(ESPECIE_DOUBLE);
+        DoubleVector c2 = DoubleVector.zero(ESPECIE_DOUBLE);
+        DoubleVector c3 = DoubleVector.zero(ESPECIE_DOUBLE);
+        for (int p = 0; p < kc; p++) {
+            DoubleVector vb = DoubleVector.fromArray(ESPECIE_DOUBLE, b, offB + p * NR);
+            int pa = offA + p * MR;
+            c0 = vb.fma(DoubleVector.broadcast(ESPECIE_DOUBLE, a[pa]), c0);
+            c1 = vb.fma(DoubleVector.broadcast(ESPECIE_DOUBLE, a[pa + 1]), c1);
+            c2 = vb.fma(DoubleVector.broadcast(ESPECIE_DOUBLE, a[pa + 2]), c2);
+            c3 = vb.fma(DoubleVector.broadcast(ESPECIE_DOUBLE, a[pa + 3]), c3);
+        }
+        acumular(c0, c, offC, nr);
+        if (mr > 1) acumular(c1, c, offC + ldc, nr);
+        if (mr > 2) acumular(c2, c, offC + 2 * ldc, nr);
+        if (mr > 3) acumular(c3, c, offC + 3 * ldc, nr);
+    }
+
+    // C[off .. off + nr) += acc; na borda direita (nr < NR) usa máscara para não passar da linha
+    private static void acumular(LongVector acc, long[] c, int off, int nr) {
+        if (nr == NR) {
+            LongVector.fromArray(ESPECIE_LONG, c, off).add(acc).intoArray(c, off);
+        } else {
+            VectorMask<Long> mascara = ESPECIE_LONG.indexInRange(0, nr);
+            LongVector.fromArray(ESPECIE_LONG, c, off, mascara).add(acc).intoArray(c, off, mascara);
+        }
+    }
+
+    private static void acumular(DoubleVector acc, double[] c, int off, int nr) {
+        if (nr == NR) {
+            DoubleVector.fromArray(ESPECIE_DOUBLE, c, off).add(acc).intoArray(c, off);
+        } else {
+            VectorMask<Double> mascara = ESPECIE_DOUBLE.indexInRange(0, nr);
+            DoubleVector.fromArray(ESPECIE_DOUBLE, c, off, mascara).add(acc).intoArray(c, off, mascara);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multiplicação Distribuída (algoritmo de Cannon em processos locais)
+ * * Problema: as faixas de linhas do multiplicarParalelo param nos núcleos e no heap de UMA JVM.
+ * * Estratégia: o coordenador (este processo) abre q x q processos trabalhadores (TrabalhadorCannon,
+ * outras JVMs na mesma máquina) ligados por sockets de loopback TCP ou Unix domain. O trabalhador
+ * (i, j) da grade é dono de um bloco de A, de B e de C:
+ * - Distribuição: já com o deslocamento inicial do Cannon, (i, j) recebe A(i, i+j) e B(i+j, j)
+ *   (índices módulo q).
+ * - q passos: C(i, j) += A_local · B_local; depois A anda um bloco para a esquerda e B um para
+ *   cima. Cada trabalhador só conversa com os vizinhos, nunca com o coordenador.
+ * - Coleta: cada trabalhador devolve o seu C(i, j) e os seus tempos de cálculo e de comunicação.
+ * * Os blocos trafegam em ByteBuffers diretos (fora do heap, ordem nativa): o socket lê e escreve
+ * direto neles, e o kernel i-k-j lê A e B pelas visões LongBuffer, sem cópia para long[].
+ * * Os dois lados de uma troca enviam e recebem ao mesmo tempo: se todos só enviassem, os buffers
+ * do SO encheriam e ninguém leria (deadlock). Por isso o envio roda numa thread separada em cada
+ * trabalhador.
+ * * Dimensões que não dividem por q são completadas com zeros (o recorte sai na coleta).
+ * * Conexões com prazo (PRAZO_CONEXAO_MS): se um trabalhador morre antes de se apresentar (classpath
+ * ou opções da JVM erradas, falta de memória), o coordenador falha com o código de saída dele em vez
+ * de esperar para sempre no accept().
+ */
+public class MultiplicacaoDistribuida implements AutoCloseable {
+
+    // Comandos do coordenador para os trabalhadores
+    static final int CMD_FIM = 0;
+    static final int CMD_MULTIPLICAR = 1;
+    // Cabeçalho das conexões entre vizinhos: qual bloco trafega nelas
+    static final int CANAL_A = 0;
+    static final int CANAL_B = 1;
+    // Espera máxima por uma conexão (abrir q² JVMs pode levar alguns segundos) e intervalo das consultas
+    static final long PRAZO_CONEXAO_MS = 60_000;
+    private static final long PERIODO_ACEITE_MS = 10;
+
+    /** Checagem feita enquanto se espera uma conexão; lança IOException para desistir. */
+    @FunctionalInterface
+    interface Verificacao {
+        void verificar() throws IOException;
+    }
+
+    private final int q;
+    private final boolean unix;
+    private final Path pastaSockets;
+    private final ServerSocketChannel servidor;
+    private final List<Process> processos = new ArrayList<>();
+    // canais[i][j]: conexão com o trabalhador (i, j) da grade
+    private final SocketChannel[][] canais;
+
+    // Tempos da última multiplicação (segundos)
+    private double tempoDistribuicao, tempoColeta, tempoTotal;
+    private double calculoMax, comunicacaoMax, calculoMedio, comunicacaoMedio;
+
+    /**
+     * Abre os q x q trabalhadores e monta a grade (conexões com o coordenador e entre vizinhos).
+     * @param unix true = Unix domain sockets, false = TCP em loopback
+     */
+    public MultiplicacaoDistribuida(int q, boolean unix) throws IOException {
+        this.q = q;
+        this.unix = unix;
+        this.pastaSockets = unix ? Files.createTempDirectory("cannon") : null;
+        this.servidor = abrirServidor(unix ? pastaSockets.resolve("coordenador.sock") : null);
+        this.canais = new SocketChannel[q][q];
+        try {
+            iniciarTrabalhadores();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void iniciarTrabalhadores() throws IOException {
+        int p = q * q;
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String endereco = descrever(servidor);
+        for (int id = 0; id < p; id++) {
+            ProcessBuilder pb = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    "TrabalhadorCannon", endereco, Integer.toString(id));
+            pb.inheritIO();
+            processos.add(pb.start());
+        }
+
+        // Cada trabalhador se apresenta: id e o endereço do seu próprio servidor (para os vizinhos)
+        String[] enderecos = new String[p];
+        for (int c = 0; c < p; c++) {
+            SocketChannel canal = aceitar(servidor, PRAZO_CONEXAO_MS, this::verificarProcessos);
+            configurar(canal);
+            ByteBuffer cab = ByteBuffer.allocate(Integer.BYTES);
+            ler(canal, cab);
+            int id = cab.flip().getInt();
+            enderecos[id] = lerTexto(canal);
+            canais[id / q][id % q] = canal;
+        }
+
+        // Configuração: posição na grade e endereços dos vizinhos da esquerda (recebe A) e de cima (recebe B)
+        for (int i = 0; i < q; i++) {
+            for (int j = 0; j < q; j++) {
+                ByteBuffer cfg = ByteBuffer.allocate(3 * Integer.BYTES);
+                cfg.putInt(q).putInt(i).putInt(j).flip();
+                escrever(canais[i][j], cfg);
+                escreverTexto(canais[i][j], enderecos[i * q + Math.floorMod(j - 1, q)]);
+                escreverTexto(canais[i][j], enderecos[Math.floorMod(i - 1, q) * q + j]);
+            }
+        }
+    }
+
+    // Um trabalhador que já saiu nesta fase falhou ao iniciar: não adianta esperar a conexão dele
+    private void verificarProcessos() throws IOException {
+        for (int id = 0; id < processos.size(); id++) {
+            Process p = processos.get(id);
+            if (!p.isAlive()) {
+                throw new IOException("Trabalhador " + id + " encerrou antes de conectar (código de saída "
+                        + p.exitValue() + ")");
+            }
+        }
+    }
+
+    public int getTrabalhadores() {
+        return q * q;
+    }
+
+    public String getDescricao() {
+        return "Cannon/" + q + "x" + q + "/" + (unix ? "unix" : "tcp");
+    }
+
+    /** C = A · B na grade de trabalhadores. */
+    public long[][] multiplicar(long[][] A, long[][] B) throws IOException {
+        int m = A.length, k = B.length, n = B[0].length;
+        // Lado dos blocos (com padding para dividir por q)
+        int mb = (m + q - 1) / q, kb = (k + q - 1) / q, nb = (n + q - 1) / q;
+
+        long inicio = System.nanoTime();
+        // --- Distribuição (com o deslocamento inicial do Cannon) ---
+        ByteBuffer blocoA = ByteBuffer.allocateDirect(mb * kb * Long.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer blocoB = ByteBuffer.allocateDirect(kb * nb * Long.BYTES).order(ByteOrder.nativeOrder());
+        for (int i = 0; i < q; i++) {
+            for (int j = 0; j < q; j++) {
+                int s = (i + j) % q;
+                ByteBuffer cab = ByteBuffer.allocate(4 * Integer.BYTES);
+                cab.putInt(CMD_MULTIPLICAR).putInt(mb).putInt(kb).putInt(nb).flip();
+                escrever(canais[i][j], cab);
+                copiarBloco(A, i * mb, s * kb, mb, kb, blocoA);
+                escrever(canais[i][j], blocoA);
+                copiarBloco(B, s * kb, j * nb, kb, nb, blocoB);
+                escrever(canais[i][j], blocoB);
+            }
+        }
+        long fimDistribuicao = System.nanoTime();
+
+        // --- Coleta: C(i, j) e os tempos de cada trabalhador ---
+        long[][] C = new long[m][n];
+        ByteBuffer blocoC = ByteBuffer.allocateDirect(mb * nb * Long.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer tempos = ByteBuffer.allocate(2 * Long.BYTES);
+        long somaCalculo = 0, somaComunicacao = 0, maxCalculo = 0, maxComunicacao = 0;
+        long inicioColeta = 0;
+        for (int i = 0; i < q; i++) {
+            for (int j = 0; j < q; j++) {
+                blocoC.clear();
+                ler(canais[i][j], blocoC);
+                if (inicioColeta == 0) inicioColeta = System.nanoTime(); // primeiro bloco pronto
+                tempos.clear();
+                ler(canais[i][j], tempos);
+                tempos.flip();
+                long calculo = tempos.getLong(), comunicacao = tempos.getLong();
+                somaCalculo += calculo;
+                somaComunicacao += comunicacao;
+                maxCalculo = Math.max(maxCalculo, calculo);
+                maxComunicacao = Math.max(maxComunicacao, comunicacao);
+                colarBloco(blocoC.flip(), C, i * mb, j * nb, mb, nb);
+            }
+        }
+        long fim = System.nanoTime();
+
+        int p = q * q;
+        tempoDistribuicao = (fimDistribuicao - inicio) / 1e9;
+        tempoColeta = (fim - inicioColeta) / 1e9;
+        tempoTotal = (fim - inicio) / 1e9;
+        calculoMax = maxCalculo / 1e9;
+        comunicacaoMax = maxComunicacao / 1e9;
+        calculoMedio = somaCalculo / 1e9 / p;
+        comunicacaoMedio = somaComunicacao / 1e9 / p;
+        return C;
+    }
+
+    /** Resumo dos tempos da última multiplicação: cálculo x comunicação. */
+    public String getRelatorio() {
+        return String.format("Total %.4f s | Distribuição %.4f s | Coleta %.4f s\n"
+                        + "Trabalhadores: cálculo médio %.4f s (máx %.4f) | comunicação média %.4f s (máx %.4f) | comunicação/cálculo %.2f",
+                tempoTotal, tempoDistribuicao, tempoColeta, calculoMedio, calculoMax, comunicacaoMedio, comunicacaoMax,
+                calculoMedio > 0 ? comunicacaoMedio / calculoMedio : 0);
+    }
+
+    // Copia o bloco [linha0, linha0 + linhas) x [coluna0, coluna0 + colunas) de M; fora de M = 0 (padding)
+    private static void copiarBloco(long[][] M, int linha0, int coluna0, int linhas, int colunas, ByteBuffer destino) {
+        destino.clear();
+        LongBuffer d = destino.asLongBuffer();
+        for (int i = 0; i < linhas; i++) {
+            int li = linha0 + i;
+            for (int j = 0; j < colunas; j++) {
+                int cj = coluna0 + j;
+                d.put(i * colunas + j, (li < M.length && cj < M[li].length) ? M[li][cj] : 0);
+            }
+        }
+    }
+
+    // Cola o bloco em C, descartando as linhas e colunas de padding
+    private static void colarBloco(ByteBuffer origem, long[][] C, int linha0, int coluna0, int linhas, int colunas) {
+        LongBuffer o = origem.asLongBuffer();
+        int n = C.length == 0 ? 0 : C[0].length;
+        for (int i = 0; i < linhas && linha0 + i < C.length; i++) {
+            int cols = Math.min(colunas, n - coluna0);
+            if (cols > 0) o.get(i * colunas, C[linha0 + i], coluna0, cols);
+        }
+    }
+
+    /** Manda os trabalhadores encerrarem e espera os processos. */
+    @Override
+    public void close() throws IOException {
+        for (SocketChannel[] linha : canais) {
+            for (SocketChannel canal : linha) {
+                if (canal == null) continue;
+                try {
+                    escrever(canal, ByteBuffer.allocate(Integer.BYTES).putInt(CMD_FIM).flip());
+                } catch (IOException e) {
+                    // trabalhador já saiu
+                }
+                canal.close();
+            }
+        }
+        for (Process p : processos) {
+            try {
+                if (!p.waitFor(10, TimeUnit.SECONDS)) p.destroyForcibly();
+            } catch (InterruptedException e) {
+                p.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        servidor.close();
+        if (pastaSockets != null) {
+            try (var arquivos = Files.list(pastaSockets)) {
+                for (Path arq : (Iterable<Path>) arquivos::iterator) Files.deleteIfExists(arq);
+            }
+            Files.deleteIfExists(pastaSockets);
+        }
+    }
+
+    // --- Transporte (compartilhado com o TrabalhadorCannon) ---
+
+    /** Servidor em loopback TCP (porta livre) ou no arquivo de socket Unix 'caminho'. */
+    static ServerSocketChannel abrirServidor(Path caminho) throws IOException {
+        if (caminho != null) {
+            return ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(caminho));
+        }
+        return ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    /**
+     * accept() com prazo: o servidor passa a não bloqueante e é consultado a cada PERIODO_ACEITE_MS;
+     * entre as consultas roda 'verificacao'. O canal aceito fica no modo bloqueante de sempre.
+     */
+    static SocketChannel aceitar(ServerSocketChannel servidor, long prazoMs, Verificacao verificacao) throws IOException {
+        servidor.configureBlocking(false);
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(prazoMs);
+        while (true) {
+            SocketChannel canal = servidor.accept();
+            if (canal != null) return canal;
+            verificacao.verificar();
+            if (System.nanoTime() - limite > 0) {
+                throw new IOException("Nenhuma conexão em " + prazoMs + " ms (" + descrever(servidor) + ")");
+            }
+            try {
+                Thread.sleep(PERIODO_ACEITE_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrompido esperando conexão", e);
+            }
+        }
+    }
+
+    /** Endereço do servidor em texto: "tcp:porta" ou "unix:caminho". */
+    static String descrever(ServerSocketChannel s) throws IOException {
+        SocketAddress a = s.getLocalAddress();
+        if (a instanceof UnixDomainSocketAddress) return "unix:" + ((UnixDomainSocketAddress) a).getPath();
+        return "tcp:" + ((InetSocketAddress) a).getPort();
+    }
+
+    static SocketChannel conectar(String endereco) throws IOException {
+        SocketAddress a = endereco.startsWith("unix:")
+                ? UnixDomainSocketAddress.of(endereco.substring(5))
+                : new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(endereco.substring(4)));
+        SocketChannel canal = SocketChannel.open(a);
+        configurar(canal);
+        return canal;
+    }
+
+    // Sem Nagle no TCP: blocos e cabeçalhos pequenos saem na hora
+    static void configurar(SocketChannel canal) throws IOException {
+        if (canal.getRemoteAddress() instanceof InetSocketAddress) {
+            canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+    }
+
+    /** Escreve o buffer inteiro (da posição até o limite). */
+    static void escrever(SocketChannel canal, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) canal.write(b);
+    }
+
+    /** Lê até encher o buffer (da posição até o limite). */
+    static void ler(SocketChannel canal, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) {
+            if (canal.read(b) < 0) throw new IOException("Conexão encerrada no meio de uma mensagem");
+        }
+    }
+
+    static void escreverTexto(SocketChannel canal, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        escrever(canal, ByteBuffer.allocate(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes).flip());
+    }
+
+    static String lerTexto(SocketChannel canal) throws IOException {
+        ByteBuffer tam = ByteBuffer.allocate(Integer.BYTES);
+        ler(canal, tam);
+        ByteBuffer bytes = ByteBuffer.allocate(tam.flip().getInt());
+        ler(canal, bytes);
+        return new String(bytes.array(), StandardCharsets.UTF_8);
+    }
+}
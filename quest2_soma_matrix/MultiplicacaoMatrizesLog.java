@@ -1,85 +1,522 @@
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.Random;
+import java.io.UncheckedIOException;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 /**
  * Questão 2: Multiplicação de Matrizes (Sequencial vs Paralelo)
  * Disciplina: Sistemas Operacionais - UFAM
  * * Objetivo: Comparar o desempenho da multiplicação de matrizes utilizando
  * uma abordagem tradicional (Single Thread) versus uma abordagem paralela (Multi-thread).
- * O resultado é salvo em um arquivo de log para análise de Speedup.
+ * O resultado é salvo em um arquivo de log (texto, CSV e JSON Lines) para análise de Speedup.
+ * * Compilação: javac --add-modules jdk.incubator.vector -d . *.java ../comum/*.java
+ * (InfoHardware, Medicao, RegistroResultados e LinhaDoTempoThreads ficam em comum/, compartilhados
+ * com a outra questão)
+ * Execução:   java --add-modules jdk.incubator.vector MultiplicacaoMatrizesLog
+ * (sem o módulo o programa roda normalmente, apenas sem o microkernel SIMD do GEMM empacotado)
+ * Linha do tempo por thread (clássico, faixas): -Dinstrumentar.threads=true (ver LinhaDoTempoThreads)
  */
 public class MultiplicacaoMatrizesLog {
 
-    // Define a dimensão das matrizes (NxN). 
+    // Dimensão sugerida das matrizes (NxN); as dimensões reais (M, K, N) são lidas na execução.
     // OBS: O algoritmo é O(N^3), então dobrar N aumenta o tempo em 8x.
     // Recomendado: 1000 a 2000 para testes rápidos.
     private static final int N = 1000; 
 
+    // Base dos arquivos de resultado estruturado (.csv e .jsonl)
+    private static final String ARQUIVO_RESULTADOS = "resultados_matriz";
+
+    // Rodadas do Freivalds que conferem as esparsas mesmo na validação completa (erro <= 2^-20)
+    private static final int RODADAS_REFERENCIA_ESPARSA = 20;
+
     public static void main(String[] args) throws InterruptedException {
         Scanner scanner = new Scanner(System.in);
 
         // --- 1. Identificação do Ambiente ---
         // Necessário para o relatório: saber em qual hardware o teste rodou.
+        // A máquina é detectada automaticamente (CPU, núcleos, caches, JVM, heap, GC).
         System.out.println("=== Configuração: Multiplicação de Matrizes ===");
-        System.out.println("Qual computador você está usando?");
-        System.out.println("1 - Notebook Local");
-        System.out.println("2 - PC Lab");
-        System.out.print("Opção: ");
-        int opcaoPc = scanner.nextInt();
-        
-        String nomePc = (opcaoPc == 1) ? "Notebook Local" : "PC Lab";
-        if (opcaoPc != 1 && opcaoPc != 2) nomePc = "Outro/Desconhecido";
+        InfoHardware hw = InfoHardware.sondar();
+        System.out.println(hw.getDescricaoCompleta());
+
+        // Cada configuração roda N vezes; o log guarda mínimo, mediana, p95 e desvio padrão.
+        System.out.print("\nRepetições por configuração (ex: 3): ");
+        int repeticoes = Math.max(1, scanner.nextInt());
+
+        // Semente dos dados: a mesma semente gera exatamente as mesmas matrizes (reprodutibilidade).
+        System.out.print("\nSemente dos dados (0 = aleatória): ");
+        long semente = scanner.nextLong();
+        if (semente == 0) semente = GeradorMatrizes.sementeAleatoria();
+        System.out.println("Semente usada: " + semente);
 
         // Geração de dados aleatórios para evitar viés de cache ou otimização do compilador
-        System.out.println("\nGerando matrizes " + N + "x" + N + "... (Aguarde)");
-        long[][] matA = gerarMatriz(N);
-        long[][] matB = gerarMatriz(N);
+        // Dimensões escolhidas na execução: A (M x K) · B (K x N) = C (M x N)
+        System.out.print("Dimensões M K N (ex: " + N + " " + N + " " + N + "): ");
+        int m = scanner.nextInt(), k = scanner.nextInt(), n = scanner.nextInt();
+        long bytesHeap = (long) Long.BYTES * ((long) m * k + (long) k * n + 2L * m * n);
+        System.out.printf("Memória necessária em long[][] (A, B e dois C): %.1f MB | Heap máximo: %.1f MB\n",
+                bytesHeap / 1048576.0, hw.getHeapMaximo() / 1048576.0);
+
+        // Validação: refazer tudo no sequencial (O(N³) e um segundo C) ou Freivalds (O(N²) por rodada)
+        System.out.println("\nValidação do resultado paralelo:");
+        System.out.println("1 - Completa (executa o sequencial e compara célula por célula)");
+        System.out.println("2 - Freivalds (probabilística, pula o sequencial)");
+        // rodadasFreivalds = 0: validação completa contra o sequencial
+        System.out.print("Opção: ");
+        int rodadasFreivalds = 0;
+        if (scanner.nextInt() == 2) {
+            System.out.print("Rodadas (erro não detectado <= 2^-rodadas, ex: 20): ");
+            rodadasFreivalds = Math.max(1, scanner.nextInt());
+        }
+
+        // Onde ficam as matrizes: heap (long[][]), fora do heap (arquivos mapeados) ou esparsas.
+        // As esparsas são escolhidas aqui, antes de gerar A e B densas: nas dimensões típicas de
+        // matrizes esparsas as densas nem caberiam no heap.
+        System.out.println("\nOnde ficam as matrizes?");
+        System.out.println("1 - Memória (long[][] no heap)");
+        System.out.println("2 - Fora do heap (arquivos mapeados, tamanho livre)");
+        System.out.println("3 - Distribuído (Cannon em q x q processos locais)");
+        System.out.println("4 - Esparsa (CSR/CSC, divisão por não nulos)");
+        System.out.print("Opção: ");
+        int opcaoArmazenamento = scanner.nextInt();
+        if (opcaoArmazenamento == 2 || opcaoArmazenamento == 4) {
+            System.out.print("Digite o número de threads: ");
+            int threadsSemDensas = Math.max(1, scanner.nextInt());
+            if (opcaoArmazenamento == 2) executarForaDoHeap(hw, repeticoes, semente, rodadasFreivalds, threadsSemDensas, m, k, n);
+            else executarEsparsa(scanner, hw, repeticoes, semente, rodadasFreivalds, threadsSemDensas, m, k, n);
+            scanner.close();
+            return;
+        }
+
+        System.out.println("\nGerando matrizes " + m + "x" + k + " e " + k + "x" + n + "... (Aguarde)");
+        long inicioGeracao = System.nanoTime();
+        long[][] matA = GeradorMatrizes.gerar(m, k, semente);
+        long[][] matB = GeradorMatrizes.gerar(k, n, GeradorMatrizes.sementeDerivada(semente, 1));
+        System.out.printf("Matrizes geradas em %.4f s\n", (System.nanoTime() - inicioGeracao) / 1e9);
+
+        if (opcaoArmazenamento == 3) {
+            executarDistribuido(scanner, hw, repeticoes, semente, rodadasFreivalds, matA, matB);
+            scanner.close();
+            return;
+        }
         
-        System.out.print("Digite o número de threads: ");
+        System.out.print("Digite o número de threads (0 = autoajuste): ");
         int numThreads = scanner.nextInt();
 
+        // Autoajuste: ensaios curtos escolhem o número de threads e o tamanho dos blocos de linhas
+        AutoAjuste.Resultado ajuste = null;
+        if (numThreads <= 0) {
+            System.out.println("\n>>> Autoajuste (" + hw + ")");
+            ajuste = AutoAjuste.ajustar(hw, matA, matB);
+            System.out.println("Configuração escolhida: " + ajuste);
+            numThreads = ajuste.getThreads();
+        }
+
+        // Algoritmo / layout: o clássico long[][] i-j-k, a matriz plana i-k-j ou a recursiva (fork/join)
+        System.out.println("\nAlgoritmo:");
+        System.out.println("1 - Clássico (long[][], laço i-j-k)");
+        System.out.println("2 - Matriz plana (long[] contíguo, laço i-k-j)");
+        System.out.println("3 - Recursivo cache-oblivious (fork/join, matriz plana)");
+        System.out.println("4 - GEMM empacotado (estilo BLIS, microkernel SIMD)");
+        System.out.println("5 - Strassen-Winograd (corte para o kernel i-k-j)");
+        System.out.print("Opção: ");
+        int opcaoAlgoritmo = scanner.nextInt();
+
+        int threads = numThreads;
+        if (opcaoAlgoritmo == 5) {
+            System.out.print("Corte (lado abaixo do qual usa o kernel clássico, ex: " + MultiplicacaoStrassen.CORTE_PADRAO + "): ");
+            MultiplicacaoStrassen strassen = new MultiplicacaoStrassen(scanner.nextInt());
+            MatrizPlana planaA = MatrizPlana.de(matA);
+            MatrizPlana planaB = MatrizPlana.de(matB);
+            System.out.println("Dimensões com padding: " + strassen.descreverPadding(m, k, n));
+            medirERegistrar(hw, repeticoes, semente, rodadasFreivalds, threads, matA, matB,
+                    strassen.getDescricao(), "strassen-winograd",
+                    () -> strassen.multiplicarSequencial(planaA, planaB),
+                    () -> strassen.multiplicarParalelo(planaA, planaB, threads),
+                    MatrizPlana::paraMatriz, VerificacaoFreivalds::leitor, 0);
+            System.out.println("Buffers de trabalho alocados (todas as repetições): " + strassen.getBuffersAlocados());
+        } else if (opcaoAlgoritmo == 4) {
+            executarGemm(scanner, hw, repeticoes, semente, rodadasFreivalds, threads, matA, matB);
+        } else if (opcaoAlgoritmo == 3) {
+            System.out.print("Tamanho da folha (0 = automático pela L2): ");
+            int opcaoFolha = scanner.nextInt();
+            int folha = (opcaoFolha > 0) ? opcaoFolha : MultiplicacaoRecursiva.folhaAutomatica(hw);
+            MatrizPlana planaA = MatrizPlana.de(matA);
+            MatrizPlana planaB = MatrizPlana.de(matB);
+            medirERegistrar(hw, repeticoes, semente, rodadasFreivalds, threads, matA, matB,
+                    "ForkJoin/folha=" + folha, "recursivo",
+                    () -> MultiplicacaoRecursiva.multiplicarSequencial(planaA, planaB, folha),
+                    () -> MultiplicacaoRecursiva.multiplicarParalelo(planaA, planaB, threads, folha),
+                    MatrizPlana::paraMatriz, VerificacaoFreivalds::leitor, 0);
+        } else if (opcaoAlgoritmo == 2) {
+            // Conversão feita fora da medição: só o cálculo é cronometrado
+            MatrizPlana planaA = MatrizPlana.de(matA);
+            MatrizPlana planaB = MatrizPlana.de(matB);
+            medirERegistrar(hw, repeticoes, semente, rodadasFreivalds, threads, matA, matB, "Faixas", "ikj-plana",
+                    () -> MatrizPlana.multiplicarSequencial(planaA, planaB),
+                    () -> MatrizPlana.multiplicarParalelo(planaA, planaB, threads),
+                    MatrizPlana::paraMatriz, VerificacaoFreivalds::leitor, 0);
+        } else {
+            AutoAjuste.Resultado config = ajuste;
+            String estrategia = (ajuste == null) ? "Faixas" : "Auto/linhas=" + ajuste.getDescricaoBloco();
+            medirERegistrar(hw, repeticoes, semente, rodadasFreivalds, threads, matA, matB, estrategia, "ijk",
+                    () -> multiplicarSequencial(matA, matB),
+                    () -> (config == null)
+                            ? multiplicarParalelo(matA, matB, threads)
+                            : multiplicarParalelo(matA, matB, threads, config.getLinhasPorTarefa()),
+                    resultado -> resultado, VerificacaoFreivalds::leitor, 0);
+            LinhaDoTempoThreads.relatar(ARQUIVO_RESULTADOS + "_linha_do_tempo.json");
+        }
+
+        scanner.close();
+    }
+
+    /**
+     * GEMM empacotado (estilo BLIS): escolhe o tipo do elemento (long ou double) e o microkernel
+     * (SIMD se o módulo jdk.incubator.vector estiver carregado, senão o escalar).
+     * Sequencial = os mesmos laços com 1 thread; Paralelo = laços de painel no ForkJoinPool.
+     */
+    private static void executarGemm(Scanner scanner, InfoHardware hw, int repeticoes, long semente,
+                                     int rodadasFreivalds, int threads, long[][] matA, long[][] matB) throws InterruptedException {
+        System.out.println("\nTipo do elemento:");
+        System.out.println("1 - long (exato)");
+        System.out.println("2 - double (fma)");
+        System.out.print("Opção: ");
+        boolean usarDouble = scanner.nextInt() == 2;
+
+        MicroKernel kernel = MicroKernel.simd();
+        if (kernel == null) {
+            System.out.println("Vector API indisponível (rode com --add-modules jdk.incubator.vector). Usando microkernel escalar.");
+            kernel = MicroKernel.ESCALAR;
+        }
+        GemmEmpacotado gemm = new GemmEmpacotado(kernel, hw);
+        MatrizPlana planaA = MatrizPlana.de(matA);
+        MatrizPlana planaB = MatrizPlana.de(matB);
+        int m = planaA.getLinhas(), k = planaA.getColunas(), n = planaB.getColunas();
+
+        if (usarDouble) {
+            // Valores de 0 a 9: todas as somas são inteiros exatos em double, a validação continua exata
+            double[] a = GemmEmpacotado.paraDouble(planaA);
+            double[] b = GemmEmpacotado.paraDouble(planaB);
+            medirERegistrar(hw, repeticoes, semente, rodadasFreivalds, threads, matA, matB,
+                    gemm.getDescricao(), kernel.getNome() + "/double",
+                    () -> gemm.multiplicar(a, b, m, k, n, 1),
+                    () -> gemm.multiplicar(a, b, m, k, n, threads),
+                    c -> GemmEmpacotado.paraMatriz(c, m, n), c -> VerificacaoFreivalds.leitor(c, n), gemm.picoTeoricoGops(hw));
+        } else {
+            medirERegistrar(hw, repeticoes, semente, rodadasFreivalds, threads, matA, matB,
+                    gemm.getDescricao(), kernel.getNome() + "/long",
+                    () -> gemm.multiplicar(planaA, planaB, 1),
+                    () -> gemm.multiplicar(planaA, planaB, threads),
+                    MatrizPlana::paraMatriz, VerificacaoFreivalds::leitor, gemm.picoTeoricoGops(hw));
+        }
+    }
+
+    /**
+     * Matrizes esparsas: gera A (M x K) em CSR com a densidade pedida e roda a operação escolhida.
+     * Sequencial = 1 faixa; Paralelo = faixas com o mesmo número de não nulos (ou de produtos, no
+     * esparsa x esparsa). O desempenho conta só as operações com não nulos.
+     * Como o sequencial é o mesmo kernel com uma faixa, a validação inclui sempre o Freivalds
+     * contra A e B (ver medirERegistrarEsparsa).
+     */
+    private static void executarEsparsa(Scanner scanner, InfoHardware hw, int repeticoes, long semente,
+                                        int rodadasFreivalds, int threads, int m, int k, int n) throws InterruptedException {
+        System.out.print("\nDensidade (% de não nulos, ex: 1): ");
+        double densidade = scanner.nextDouble() / 100.0;
+        System.out.println("Distribuição dos não nulos:");
+        System.out.println("1 - Uniforme");
+        System.out.println("2 - Enviesada (10% das linhas com metade das posições preenchidas)");
+        System.out.print("Opção: ");
+        boolean enviesada = scanner.nextInt() == 2;
+        System.out.println("\nOperação:");
+        System.out.println("1 - SpMV (A esparsa x vetor de K)");
+        System.out.println("2 - Esparsa x Densa (A em CSR x B densa)");
+        System.out.println("3 - Densa x Esparsa (A densa x B em CSC)");
+        System.out.println("4 - Esparsa x Esparsa (Gustavson, CSR x CSR)");
+        System.out.print("Opção: ");
+        int operacao = scanner.nextInt();
+
+        long sementeB = GeradorMatrizes.sementeDerivada(semente, 1);
+        String distribuicao = enviesada ? "enviesada" : "uniforme";
+        if (operacao == 4) {
+            MatrizEsparsa A = MatrizEsparsa.gerar(m, k, densidade, enviesada, semente);
+            MatrizEsparsa B = MatrizEsparsa.gerar(k, n, densidade, false, sementeB);
+            System.out.printf("A: %d não nulos (%.3f%%) | B: %d não nulos (%.3f%%)\n",
+                    A.getNaoNulos(), 100 * A.getDensidade(), B.getNaoNulos(), 100 * B.getDensidade());
+            medirERegistrarEsparsa(hw, repeticoes, semente, rodadasFreivalds, threads, dimensoes(m, k, n),
+                    2.0 * A.contarProdutos(B), "Faixas/produtos/" + distribuicao, "gustavson-csr",
+                    () -> A.multiplicarEsparsa(B, 1),
+                    () -> A.multiplicarEsparsa(B, threads),
+                    MatrizEsparsa::equals,
+                    n, v -> A.multiplicarVetor(v, threads), v -> B.multiplicarVetor(v, threads),
+                    C -> v -> C.multiplicarVetor(v, threads));
+        } else if (operacao == 3) {
+            // Aqui a esparsa é B (K x N), guardada por coluna; a divisão é por colunas de C.
+            // Gerada como a transposta de uma N x K em CSR (o viés cai nas colunas de B).
+            long[][] D = GeradorMatrizes.gerar(m, k, semente);
+            MatrizEsparsa Bcsc = MatrizEsparsa.gerar(n, k, densidade, enviesada, sementeB).transposta();
+            System.out.printf("B: %d não nulos (%.3f%%, %s)\n", Bcsc.getNaoNulos(), 100 * Bcsc.getDensidade(), Bcsc.getFormato());
+            // Para o Freivalds, B·r pelo SpMV do CSR (convertido uma vez, O(não nulos))
+            MatrizEsparsa Bcsr = Bcsc.paraCSR();
+            medirERegistrarEsparsa(hw, repeticoes, semente, rodadasFreivalds, threads, dimensoes(m, k, n),
+                    2.0 * m * Bcsc.getNaoNulos(), "Faixas/nnz/" + distribuicao, "densa-x-csc",
+                    () -> Bcsc.multiplicarPelaEsquerda(D, 1),
+                    () -> Bcsc.multiplicarPelaEsquerda(D, threads),
+                    MultiplicacaoMatrizesLog::compararMatrizes,
+                    n, VerificacaoFreivalds.operador(D), v -> Bcsr.multiplicarVetor(v, threads),
+                    VerificacaoFreivalds::operador);
+        } else if (operacao == 2) {
+            MatrizEsparsa A = MatrizEsparsa.gerar(m, k, densidade, enviesada, semente);
+            long[][] B = GeradorMatrizes.gerar(k, n, sementeB);
+            System.out.printf("A: %d não nulos (%.3f%%, %s)\n", A.getNaoNulos(), 100 * A.getDensidade(), A.getFormato());
+            medirERegistrarEsparsa(hw, repeticoes, semente, rodadasFreivalds, threads, dimensoes(m, k, n),
+                    2.0 * A.getNaoNulos() * n, "Faixas/nnz/" + distribuicao, "csr-x-densa",
+                    () -> A.multiplicarDensa(B, 1),
+                    () -> A.multiplicarDensa(B, threads),
+                    MultiplicacaoMatrizesLog::compararMatrizes,
+                    n, v -> A.multiplicarVetor(v, threads), VerificacaoFreivalds.operador(B),
+                    VerificacaoFreivalds::operador);
+        } else {
+            MatrizEsparsa A = MatrizEsparsa.gerar(m, k, densidade, enviesada, semente);
+            long[] x = GeradorMatrizes.gerar(1, k, sementeB)[0];
+            System.out.printf("A: %d não nulos (%.3f%%, %s)\n", A.getNaoNulos(), 100 * A.getDensidade(), A.getFormato());
+            // x e y como matrizes de uma coluna: B = x (K x 1), C = y (M x 1)
+            medirERegistrarEsparsa(hw, repeticoes, semente, rodadasFreivalds, threads, m + "x" + k + "·" + k,
+                    2.0 * A.getNaoNulos(), "Faixas/nnz/" + distribuicao, "spmv-csr",
+                    () -> A.multiplicarVetor(x, 1),
+                    () -> A.multiplicarVetor(x, threads),
+                    (y1, y2) -> compararMatrizes(new long[][]{y1}, new long[][]{y2}),
+                    1, v -> A.multiplicarVetor(v, threads), VerificacaoFreivalds.operadorColuna(x),
+                    VerificacaoFreivalds::operadorColuna);
+        }
+    }
+
+    /**
+     * Medição das operações esparsas. O sequencial é o mesmo kernel com uma faixa, então Seq = Par
+     * só prova que a divisão em faixas não mudou nada; a referência independente é o Freivalds de
+     * C contra A e B (O(não nulos) por rodada com os operadores SpMV). Na validação completa roda
+     * o sequencial, compara célula por célula e ainda faz RODADAS_REFERENCIA_ESPARSA rodadas; com
+     * Freivalds escolhido, pula o sequencial e usa as rodadas pedidas.
+     * @param n colunas de B e C (tamanho do vetor r)
+     * @param operadorC C·v a partir do resultado do paralelo
+     */
+    private static <T> void medirERegistrarEsparsa(InfoHardware hw, int repeticoes, long semente, int rodadasFreivalds,
+                                                   int threads, String tamanho, double operacoes, String estrategia,
+                                                   String kernel, Medicao.Calculo<T> sequencial,
+                                                   Medicao.Calculo<T> paralelo, BiPredicate<T, T> iguais, int n,
+                                                   VerificacaoFreivalds.OperadorVetor A,
+                                                   VerificacaoFreivalds.OperadorVetor B,
+                                                   Function<T, VerificacaoFreivalds.OperadorVetor> operadorC)
+            throws InterruptedException {
+        long sementeR = GeradorMatrizes.sementeDerivada(semente, 2);
+        int rodadas = (rodadasFreivalds > 0) ? rodadasFreivalds : RODADAS_REFERENCIA_ESPARSA;
+        BiPredicate<T, T> referencia = (x, c) -> validarFreivalds(
+                () -> VerificacaoFreivalds.verificar(n, A, B, operadorC.apply(c), rodadas, sementeR));
+        if (rodadasFreivalds > 0) {
+            medirERegistrar(hw, repeticoes, semente, threads, tamanho, operacoes, "esparsa", estrategia, kernel,
+                    null, paralelo, referencia, 0);
+        } else {
+            medirERegistrar(hw, repeticoes, semente, threads, tamanho, operacoes, "esparsa", estrategia, kernel,
+                    sequencial, paralelo, (x, y) -> iguais.test(x, y) && referencia.test(x, y), 0);
+        }
+    }
+
+    /**
+     * Modo distribuído: q x q processos trabalhadores (outras JVMs) rodam o Cannon trocando blocos
+     * por sockets locais. Os processos são abertos uma vez e atendem todas as repetições; a linha
+     * de base é o clássico sequencial desta JVM.
+     */
+    private static void executarDistribuido(Scanner scanner, InfoHardware hw, int repeticoes, long semente,
+                                            int rodadasFreivalds, long[][] matA, long[][] matB) throws InterruptedException {
+        System.out.print("Lado da grade q (q² processos trabalhadores, ex: 2): ");
+        int q = Math.max(1, scanner.nextInt());
+        System.out.println("Transporte:");
+        System.out.println("1 - TCP (loopback)");
+        System.out.println("2 - Unix domain socket");
+        System.out.print("Opção: ");
+        boolean unix = scanner.nextInt() == 2;
+
+        System.out.println("\nAbrindo " + (q * q) + " processos trabalhadores...");
+        try (MultiplicacaoDistribuida cannon = new MultiplicacaoDistribuida(q, unix)) {
+            medirERegistrar(hw, repeticoes, semente, rodadasFreivalds, cannon.getTrabalhadores(), matA, matB, "distribuido",
+                    cannon.getDescricao(), "cannon-ikj",
+                    () -> multiplicarSequencial(matA, matB),
+                    () -> {
+                        try {
+                            return cannon.multiplicar(matA, matB);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    resultado -> resultado, VerificacaoFreivalds::leitor, 0);
+            // Cálculo x comunicação da última repetição
+            System.out.println("Cannon (última repetição): " + cannon.getRelatorio());
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Erro no modo distribuído: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Matrizes fora do heap (arquivos mapeados): gera A e B direto nos arquivos e compara Seq e
+     * Par pelo kernel i-k-j sobre os mapeamentos. Nenhuma matriz inteira passa pelo heap.
+     */
+    private static void executarForaDoHeap(InfoHardware hw, int repeticoes, long semente, int rodadasFreivalds,
+                                           int threads, int m, int k, int n) throws InterruptedException {
+        System.out.println("\nGerando matrizes fora do heap " + m + "x" + k + " e " + k + "x" + n + "... (Aguarde)");
+        long inicioGeracao = System.nanoTime();
+        try (MatrizForaDoHeap A = MatrizForaDoHeap.gerar(m, k, semente);
+             MatrizForaDoHeap B = MatrizForaDoHeap.gerar(k, n, GeradorMatrizes.sementeDerivada(semente, 1));
+             MatrizForaDoHeap cSeq = MatrizForaDoHeap.criar(m, n);
+             MatrizForaDoHeap cPar = MatrizForaDoHeap.criar(m, n)) {
+            System.out.printf("Matrizes geradas em %.4f s\n", (System.nanoTime() - inicioGeracao) / 1e9);
+            // Cada versão reescreve o seu C a cada repetição (não há alocação por repetição)
+            long sementeR = GeradorMatrizes.sementeDerivada(semente, 2);
+            medirERegistrar(hw, repeticoes, semente, threads, dimensoes(m, k, n), 2.0 * m * k * n, "mapeado",
+                    "Faixas", "ikj-mapeado",
+                    (rodadasFreivalds > 0) ? null : () -> MatrizForaDoHeap.multiplicarSequencial(A, B, cSeq),
+                    () -> MatrizForaDoHeap.multiplicarParalelo(A, B, cPar, threads),
+                    (rodadasFreivalds > 0)
+                            ? (x, c) -> validarFreivalds(() -> VerificacaoFreivalds.verificar(A, B, c, rodadasFreivalds, sementeR, threads))
+                            : MatrizForaDoHeap::compararMatrizes, 0);
+        } catch (IOException e) {
+            System.err.println("Erro nos arquivos das matrizes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Roteiro comum de medição para os algoritmos no heap: os resultados são convertidos para
+     * long[][] (fora da medição) e validados com compararMatrizes, ou com Freivalds contra A e B
+     * (nesse caso o sequencial não é executado e C é lido linha a linha no layout do algoritmo,
+     * sem um segundo C na memória).
+     * @param paraMatriz converte o resultado do algoritmo para long[][]
+     * @param rodadasFreivalds rodadas do Freivalds; 0 = validação completa contra o sequencial
+     * @param leitorC lê as linhas do resultado para o Freivalds
+     * @param picoGops pico teórico estimado da máquina em GOP/s (0 = não mostrar a comparação)
+     */
+    private static <T> void medirERegistrar(InfoHardware hw, int repeticoes, long semente, int rodadasFreivalds,
+                                            int numThreads, long[][] matA, long[][] matB, String estrategia, String kernel,
+                                            Medicao.Calculo<T> sequencial, Medicao.Calculo<T> paralelo,
+                                            Function<T, long[][]> paraMatriz,
+                                            Function<T, VerificacaoFreivalds.LeitorLinha> leitorC,
+                                            double picoGops) throws InterruptedException {
+        medirERegistrar(hw, repeticoes, semente, rodadasFreivalds, numThreads, matA, matB, "heap", estrategia, kernel,
+                sequencial, paralelo, paraMatriz, leitorC, picoGops);
+    }
+
+    private static <T> void medirERegistrar(InfoHardware hw, int repeticoes, long semente, int rodadasFreivalds,
+                                            int numThreads, long[][] matA, long[][] matB, String modo,
+                                            String estrategia, String kernel,
+                                            Medicao.Calculo<T> sequencial, Medicao.Calculo<T> paralelo,
+                                            Function<T, long[][]> paraMatriz,
+                                            Function<T, VerificacaoFreivalds.LeitorLinha> leitorC,
+                                            double picoGops) throws InterruptedException {
+        int m = matA.length, k = matB.length, n = matB[0].length;
+        if (rodadasFreivalds > 0) {
+            long sementeR = GeradorMatrizes.sementeDerivada(semente, 2);
+            medirERegistrar(hw, repeticoes, semente, numThreads, dimensoes(m, k, n), 2.0 * m * k * n, modo, estrategia,
+                    kernel, null, paralelo, (x, c) -> validarFreivalds(() -> VerificacaoFreivalds.verificar(
+                            matA, matB, leitorC.apply(c), rodadasFreivalds, sementeR, numThreads)), picoGops);
+        } else {
+            medirERegistrar(hw, repeticoes, semente, numThreads, dimensoes(m, k, n), 2.0 * m * k * n, modo, estrategia,
+                    kernel, sequencial, paralelo, (x, y) -> compararMatrizes(paraMatriz.apply(x), paraMatriz.apply(y)), picoGops);
+        }
+    }
+
+    // Roda o Freivalds (dentro do BiPredicate da validação), mostra o resultado e devolve se passou.
+    // Uma falha durante a verificação conta como validação reprovada.
+    private static boolean validarFreivalds(Medicao.Calculo<VerificacaoFreivalds.Resultado> verificacao) {
+        try {
+            VerificacaoFreivalds.Resultado r = verificacao.calcular();
+            System.out.println("Freivalds: " + r);
+            return r.isValido();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (RuntimeException e) {
+            System.err.println("Freivalds: falhou durante a verificação (" + e + ")");
+            return false;
+        }
+    }
+
+    /**
+     * Roteiro comum de medição para todos os algoritmos: roda Seq e Par 'repeticoes' vezes,
+     * imprime as medianas, valida e salva nos três formatos.
+     * @param tamanho dimensões para o log (ex: "1000x1000")
+     * @param operacoes operações aritméticas de uma execução (2·M·K·N no caso denso)
+     * @param sequencial linha de base; null = não executar (speedup fica vazio no log)
+     * @param iguais compara o resultado sequencial com o paralelo (o sequencial é null quando foi pulado)
+     */
+    private static <T> void medirERegistrar(InfoHardware hw, int repeticoes, long semente, int numThreads,
+                                            String tamanho, double operacoes, String modo, String estrategia, String kernel,
+                                            Medicao.Calculo<T> sequencial, Medicao.Calculo<T> paralelo,
+                                            BiPredicate<T, T> iguais, double picoGops) throws InterruptedException {
         // --- 2. Execução Sequencial ---
         // Serve como 'Base Line' para calcular o ganho de desempenho.
-        System.out.println("\n>>> Executando Sequencial (pode demorar)...");
-        long inicioSeq = System.nanoTime(); // Medição precisa em nanosegundos
-        long[][] resSeq = multiplicarSequencial(matA, matB);
-        long fimSeq = System.nanoTime();
-        
-        // Conversão para segundos (1e9 = 1.000.000.000)
-        double tempoSeq = (fimSeq - inicioSeq) / 1e9;
-        System.out.printf("Tempo Sequencial: %.4f s\n", tempoSeq);
+        Medicao<T> seq = null;
+        double tempoSeq = Double.NaN;
+        if (sequencial != null) {
+            System.out.println("\n>>> Executando Sequencial (" + kernel + ", " + repeticoes + "x, pode demorar)...");
+            seq = Medicao.executar(repeticoes, sequencial);
+            // Mediana das repetições (menos sensível a picos de GC ou de outros processos)
+            tempoSeq = seq.getMediana();
+            System.out.printf("Tempo Sequencial: %.4f s | min %.4f | p95 %.4f | desvio %.4f\n",
+                    tempoSeq, seq.getMinimo(), seq.getP95(), seq.getDesvioPadrao());
+        } else {
+            System.out.println("\n>>> Sequencial pulado (validação por Freivalds)");
+        }
 
         // --- 3. Execução Paralela ---
-        System.out.println(">>> Executando Paralelo (" + numThreads + " threads)...");
-        long inicioPar = System.nanoTime();
-        long[][] resPar = multiplicarParalelo(matA, matB, numThreads);
-        long fimPar = System.nanoTime();
-        
-        double tempoPar = (fimPar - inicioPar) / 1e9;
-        System.out.printf("Tempo Paralelo:   %.4f s\n", tempoPar);
+        System.out.println(">>> Executando Paralelo (" + numThreads + " threads, " + estrategia + ", " + repeticoes + "x)...");
+        Medicao<T> par = Medicao.executar(repeticoes, paralelo);
+        double tempoPar = par.getMediana();
+        System.out.printf("Tempo Paralelo:   %.4f s | min %.4f | p95 %.4f | desvio %.4f\n",
+                tempoPar, par.getMinimo(), par.getP95(), par.getDesvioPadrao());
 
         // --- 4. Análise de Resultados ---
-        // Speedup = Tempo Sequencial / Tempo Paralelo.
+        // Speedup = Tempo Sequencial / Tempo Paralelo (pelas medianas).
         // Se Sp > 1, houve ganho. Se Sp < 1, o overhead das threads piorou o tempo.
         double speedup = tempoSeq / tempoPar;
-        System.out.printf("Speedup (Sp):     %.2f x\n", speedup);
+        if (seq != null) System.out.printf("Speedup (Sp):     %.2f x\n", speedup);
+        // Desempenho absoluto: uma multiplicação e uma soma por termo (2·M·K·N no caso denso)
+        double gopsSeq = operacoes / tempoSeq / 1e9;
+        double gopsPar = operacoes / tempoPar / 1e9;
+        if (seq != null) {
+            System.out.printf("Desempenho:       Seq %.2f GOP/s | Par %.2f GOP/s\n", gopsSeq, gopsPar);
+        } else {
+            System.out.printf("Desempenho:       Par %.2f GOP/s\n", gopsPar);
+        }
+        if (picoGops > 0) {
+            System.out.printf("Pico teórico:     %.2f GOP/s (Par atinge %.1f%%)\n", picoGops, 100 * gopsPar / picoGops);
+        }
+        if (seq != null) {
+            System.out.printf("GC: Seq %d ms / Par %d ms | Alocado: Seq %d B / Par %d B\n",
+                    seq.getTempoGcMs(), par.getTempoGcMs(), seq.getBytesAlocados(), par.getBytesAlocados());
+        } else {
+            System.out.printf("GC: Par %d ms | Alocado: Par %d B\n", par.getTempoGcMs(), par.getBytesAlocados());
+        }
 
-        // Validação de Corretude: Garante que a versão paralela não introduziu erros de cálculo.
-        boolean validado = compararMatrizes(resSeq, resPar);
+        // Validação de Corretude: Garante que a versão paralela não introduziu erros de cálculo
+        // (e que todas as repetições produziram a mesma matriz).
+        boolean validado = iguais.test(seq == null ? null : seq.getResultado(), par.getResultado())
+                && (seq == null || seq.isConsistente()) && par.isConsistente();
         if (validado) {
-            System.out.println("Validação: OK (Matrizes idênticas)");
+            System.out.println(seq == null ? "Validação: OK (Freivalds)" : "Validação: OK (Matrizes idênticas)");
         } else {
-            System.err.println("Validação: ERRO (Diferenças encontradas entre Seq e Par)");
+            System.err.println(seq == null ? "Validação: ERRO (Freivalds encontrou diferença no resultado paralelo)"
+                    : "Validação: ERRO (Diferenças encontradas entre Seq e Par)");
         }
 
         // --- 5. Persistência de Dados ---
-        // Salva em TXT (append) para facilitar a criação de tabelas e gráficos depois.
-        salvarLog(nomePc, N, numThreads, tempoSeq, tempoPar, speedup);
-        
-        scanner.close();
+        // Salva em TXT (append) para facilitar a criação de tabelas e gráficos depois,
+        // e em CSV/JSON Lines (com o ambiente e as estatísticas) para scripts de análise.
+        salvarLog(hw.getResumo(), tamanho, numThreads, estrategia + "/" + kernel, tempoSeq, tempoPar, speedup);
+        RegistroResultados.registrar(ARQUIVO_RESULTADOS, new RegistroResultados.Configuracao("MultiplicacaoMatrizes",
+                modo, tamanho, numThreads, estrategia, kernel, semente), hw, seq, par, validado);
     }
 
     /**
@@ -88,10 +525,12 @@ public class MultiplicacaoMatrizesLog {
      * Percorre Linha de A x Coluna de B.
      */
     public static long[][] multiplicarSequencial(long[][] A, long[][] B) {
-        long[][] C = new long[N][N];
-        for (int i = 0; i < N; i++) {           // Itera sobre linhas da Matriz A
-            for (int j = 0; j < N; j++) {       // Itera sobre colunas da Matriz B
-                for (int k = 0; k < N; k++) {   // Somatório do produto escalar
+        // As dimensões vêm das próprias matrizes: A (m x kMax) · B (kMax x n)
+        int m = A.length, kMax = B.length, n = B[0].length;
+        long[][] C = new long[m][n];
+        for (int i = 0; i < m; i++) {              // Itera sobre linhas da Matriz A
+            for (int j = 0; j < n; j++) {          // Itera sobre colunas da Matriz B
+                for (int k = 0; k < kMax; k++) {   // Somatório do produto escalar
                     C[i][j] += A[i][k] * B[k][j];
                 }
             }
@@ -105,32 +544,84 @@ public class MultiplicacaoMatrizesLog {
      * Cada thread fica responsável por calcular um bloco de linhas da matriz resultante.
      */
     public static long[][] multiplicarParalelo(long[][] A, long[][] B, int numThreads) throws InterruptedException {
-        long[][] C = new long[N][N];
+        int n = A.length; // Linhas de C (= linhas de A)
+        long[][] C = new long[n][B[0].length];
         WorkerThread[] threads = new WorkerThread[numThreads];
+        // Instrumentação opcional (null quando desligada)
+        LinhaDoTempoThreads linha = LinhaDoTempoThreads.iniciar("multiplicarParalelo", numThreads);
         
         // Define quantas linhas cada thread vai processar
-        int linhasPorThread = N / numThreads;
+        int linhasPorThread = n / numThreads;
 
         for (int i = 0; i < numThreads; i++) {
             int linhaInicio = i * linhasPorThread;
             
             // Tratamento de resto: A última thread pega todas as linhas restantes
             // para garantir que nenhuma linha seja esquecida se a divisão não for exata.
-            int linhaFim = (i == numThreads - 1) ? N : (linhaInicio + linhasPorThread);
+            int linhaFim = (i == numThreads - 1) ? n : (linhaInicio + linhasPorThread);
             
             // Cria e inicia a thread trabalhadora
-            threads[i] = new WorkerThread(A, B, C, linhaInicio, linhaFim);
-            threads[i].start();
+            LinhaDoTempoThreads.Registro registro = (linha == null) ? null : linha.novoRegistro(i);
+            threads[i] = new WorkerThread(A, B, C, linhaInicio, linhaFim, registro);
+            LinhaDoTempoThreads.disparar(threads[i], registro);
         }
 
         // Barreira de Sincronização: O main espera todas as threads terminarem
         for (int i = 0; i < numThreads; i++) {
             threads[i].join();
         }
+        if (linha != null) linha.concluir();
         
         return C;
     }
 
+    /**
+     * Variante com Escalonamento Dinâmico (usada pelo autoajuste).
+     * As linhas são agrupadas em blocos de 'linhasPorTarefa'; cada thread pega o próximo bloco livre
+     * num contador atômico até acabarem. Com 'linhasPorTarefa' = 0 volta à divisão estática
+     * (uma faixa contígua por thread).
+     */
+    public static long[][] multiplicarParalelo(long[][] A, long[][] B, int numThreads, int linhasPorTarefa) throws InterruptedException {
+        long[][] C = new long[A.length][B[0].length];
+        multiplicarLinhasParalelo(A, B, C, A.length, numThreads, linhasPorTarefa);
+        return C;
+    }
+
+    // Calcula as 'linhas' primeiras linhas de C = A x B (o autoajuste usa só uma amostra de linhas)
+    static void multiplicarLinhasParalelo(long[][] A, long[][] B, long[][] C, int linhas,
+                                          int numThreads, int linhasPorTarefa) throws InterruptedException {
+        int bloco = (linhasPorTarefa == 0) ? (linhas + numThreads - 1) / numThreads : linhasPorTarefa;
+        AtomicInteger proximaLinha = new AtomicInteger();
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            threads[t] = new Thread(() -> {
+                int inicio;
+                while ((inicio = proximaLinha.getAndAdd(bloco)) < linhas) {
+                    multiplicarLinhas(A, B, C, inicio, Math.min(inicio + bloco, linhas));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    // Núcleo do cálculo: linhas [linhaInicio, linhaFim) de C (mesmo laço i-j-k da WorkerThread)
+    static void multiplicarLinhas(long[][] A, long[][] B, long[][] C, int linhaInicio, int linhaFim) {
+        int colunas = B[0].length;
+        int k = B.length;
+        for (int i = linhaInicio; i < linhaFim; i++) {
+            for (int j = 0; j < colunas; j++) {
+                long soma = 0;
+                for (int x = 0; x < k; x++) {
+                    soma += A[i][x] * B[x][j];
+                }
+                C[i][j] = soma;
+            }
+        }
+    }
+
     /**
      * Classe interna que representa uma unidade de trabalho (Thread).
      * Recebe as referências das matrizes e o intervalo de linhas que deve calcular.
@@ -138,40 +629,56 @@ public class MultiplicacaoMatrizesLog {
     static class WorkerThread extends Thread {
         private final long[][] A, B, C;
         private final int linhaInicio, linhaFim;
+        // Marcas da linha do tempo (null = instrumentação desligada)
+        private final LinhaDoTempoThreads.Registro registro;
 
         public WorkerThread(long[][] A, long[][] B, long[][] C, int linhaInicio, int linhaFim) {
+            this(A, B, C, linhaInicio, linhaFim, null);
+        }
+
+        public WorkerThread(long[][] A, long[][] B, long[][] C, int linhaInicio, int linhaFim,
+                            LinhaDoTempoThreads.Registro registro) {
             this.A = A;
             this.B = B;
             this.C = C; // Referência para escrever o resultado
             this.linhaInicio = linhaInicio;
             this.linhaFim = linhaFim;
+            this.registro = registro;
         }
 
         @Override
         public void run() {
+            if (registro != null) registro.inicio();
             // Executa o cálculo APENAS nas linhas designadas (linhaInicio até linhaFim).
             // Isso evita "Race Conditions" pois cada thread escreve em posições de memória exclusivas em C.
+            int colunas = B[0].length, kMax = B.length;
             for (int i = linhaInicio; i < linhaFim; i++) {
-                for (int j = 0; j < N; j++) {
+                for (int j = 0; j < colunas; j++) {
                     long soma = 0;
-                    for (int k = 0; k < N; k++) {
+                    for (int k = 0; k < kMax; k++) {
                         soma += A[i][k] * B[k][j];
                     }
                     C[i][j] = soma;
                 }
             }
+            // Elementos = células de C calculadas por esta thread
+            if (registro != null) registro.fim((long) (linhaFim - linhaInicio) * colunas);
         }
     }
 
     // --- Métodos Auxiliares ---
 
-    // Salva os resultados em formato texto formatado para leitura humana e importação (CSV-like)
-    private static void salvarLog(String pc, int tamanho, int threads, double tSeq, double tPar, double sp) {
+    // Salva os resultados em formato texto formatado para leitura humana e importação (CSV-like).
+    // Sequencial pulado (tSeq NaN): T.Seq e Sp ficam vazios, como no CSV do RegistroResultados.
+    private static void salvarLog(String pc, String tamanho, int threads, String estrategia, double tSeq, double tPar, double sp) {
         try (FileWriter fw = new FileWriter("resultados_matriz.txt", true); // 'true' ativa modo append
              PrintWriter pw = new PrintWriter(fw)) {
             
-            pw.printf("PC: %s | Matriz: %dx%d | Threads: %d | T.Seq: %.4fs | T.Par: %.4fs | Sp: %.2f%n", 
-                      pc, tamanho, tamanho, threads, tSeq, tPar, sp);
+            // Locale.ROOT: ponto decimal sempre, seja qual for o idioma da máquina.
+            String campoSeq = Double.isNaN(tSeq) ? "" : String.format(Locale.ROOT, "%.4fs", tSeq);
+            String campoSp = Double.isNaN(sp) ? "" : String.format(Locale.ROOT, "%.2f", sp);
+            pw.printf(Locale.ROOT, "PC: %s | Matriz: %s | Threads: %d | Estratégia: %s | T.Seq: %s | T.Par: %.4fs | Sp: %s%n",
+                      pc, tamanho, threads, estrategia, campoSeq, tPar, campoSp);
             
             System.out.println("\n[!] Salvo em 'resultados_matriz.txt'");
         } catch (IOException e) {
@@ -179,22 +686,15 @@ public class MultiplicacaoMatrizesLog {
         }
     }
 
-    // Preenche matriz com valores aleatórios (0 a 9)
-    private static long[][] gerarMatriz(int n) {
-        Random rand = new Random();
-        long[][] m = new long[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                m[i][j] = rand.nextInt(10); 
-            }
-        }
-        return m;
+    // Descrição das dimensões no log: "1000x1000" para o caso quadrado, "MxK·KxN" nos demais
+    private static String dimensoes(int m, int k, int n) {
+        return (m == k && k == n) ? m + "x" + m : m + "x" + k + "·" + k + "x" + n;
     }
 
     // Verifica célula por célula se os resultados são iguais
     private static boolean compararMatrizes(long[][] m1, long[][] m2) {
-        for (int i = 0; i < N; i++) {
-            for (int j = 0; j < N; j++) {
+        for (int i = 0; i < m1.length; i++) {
+            for (int j = 0; j < m1[i].length; j++) {
                 if (m1[i][j] != m2[i][j]) return false;
             }
         }
@@ -0,0 +1,131 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Multiplicação Recursiva "Cache-Oblivious" com Fork/Join
+ * * Problema: multiplicarParalelo divide só por faixas de linhas, uma por thread. Cada thread
+ * percorre B inteira para cada linha (pouco reaproveitamento de B na cache), e quando N não é
+ * múltiplo de numThreads a última thread fica com todo o resto.
+ * * Estratégia: C[m x n] += A[m x k] · B[k x n] é dividido ao meio recursivamente, sempre na
+ * MAIOR das três dimensões, até os blocos caberem na cache (folha):
+ * - dividir m (linhas de A e C) ou n (colunas de B e C): as duas metades escrevem em partes
+ *   DIFERENTES de C, então rodam em paralelo (fork/join);
+ * - dividir k: as duas metades somam na MESMA parte de C, então rodam uma depois da outra.
+ * Os blocos ficam pequenos o bastante para L1/L2 qualquer que seja N, sem ajustar para uma
+ * cache específica (daí "cache-oblivious"); o roubo de tarefas do ForkJoinPool equilibra a carga.
+ * * A folha usa o laço i-k-j da MatrizPlana, restrito ao bloco.
+ */
+public class MultiplicacaoRecursiva {
+
+    // Folha padrão quando a L2 é desconhecida
+    static final int FOLHA_PADRAO = 64;
+
+    /**
+     * Folha automática: maior potência de 2 em que os três blocos (A, B e C) ocupam no máximo
+     * metade da L2 (3 * folha² * 8 bytes).
+     */
+    static int folhaAutomatica(InfoHardware hw) {
+        if (hw.getCacheL2() <= 0) return FOLHA_PADRAO;
+        int folha = 16;
+        while (3L * (2 * folha) * (2 * folha) * Long.BYTES <= hw.getCacheL2() / 2) {
+            folha *= 2;
+        }
+        return folha;
+    }
+
+    // --- Algoritmo Sequencial (mesma recursão, sem fork) ---
+    public static MatrizPlana multiplicarSequencial(MatrizPlana A, MatrizPlana B, int folha) {
+        MatrizPlana C = new MatrizPlana(A.getLinhas(), B.getColunas());
+        new Tarefa(A, B, C, 0, A.getLinhas(), 0, B.getColunas(), 0, A.getColunas(), folha, false).compute();
+        return C;
+    }
+
+    // --- Algoritmo Paralelo (ForkJoinPool com 'numThreads' threads) ---
+    public static MatrizPlana multiplicarParalelo(MatrizPlana A, MatrizPlana B, int numThreads, int folha) {
+        MatrizPlana C = new MatrizPlana(A.getLinhas(), B.getColunas());
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            pool.invoke(new Tarefa(A, B, C, 0, A.getLinhas(), 0, B.getColunas(), 0, A.getColunas(), folha, true));
+        } finally {
+            pool.shutdown();
+        }
+        return C;
+    }
+
+    /**
+     * Bloco C[i0..i1, j0..j1] += A[i0..i1, k0..k1] · B[k0..k1, j0..j1].
+     */
+    static final class Tarefa extends RecursiveAction {
+        private final MatrizPlana A, B, C;
+        private final int i0, i1, j0, j1, k0, k1;
+        private final int folha;
+        private final boolean paralelo;
+
+        Tarefa(MatrizPlana A, MatrizPlana B, MatrizPlana C, int i0, int i1, int j0, int j1, int k0, int k1,
+               int folha, boolean paralelo) {
+            this.A = A;
+            this.B = B;
+            this.C = C;
+            this.i0 = i0;
+            this.i1 = i1;
+            this.j0 = j0;
+            this.j1 = j1;
+            this.k0 = k0;
+            this.k1 = k1;
+            this.folha = folha;
+            this.paralelo = paralelo;
+        }
+
+        @Override
+        protected void compute() {
+            int m = i1 - i0, n = j1 - j0, k = k1 - k0;
+            if (m <= folha && n <= folha && k <= folha) {
+                multiplicarBloco(A, B, C, i0, i1, j0, j1, k0, k1);
+                return;
+            }
+            if (m >= n && m >= k) {
+                // Metades de linhas: regiões disjuntas de C
+                int meio = i0 + m / 2;
+                executar(new Tarefa(A, B, C, i0, meio, j0, j1, k0, k1, folha, paralelo),
+                         new Tarefa(A, B, C, meio, i1, j0, j1, k0, k1, folha, paralelo));
+            } else if (n >= k) {
+                // Metades de colunas: regiões disjuntas de C
+                int meio = j0 + n / 2;
+                executar(new Tarefa(A, B, C, i0, i1, j0, meio, k0, k1, folha, paralelo),
+                         new Tarefa(A, B, C, i0, i1, meio, j1, k0, k1, folha, paralelo));
+            } else {
+                // Metades de k: ambas acumulam no mesmo bloco de C, então em sequência
+                int meio = k0 + k / 2;
+                new Tarefa(A, B, C, i0, i1, j0, j1, k0, meio, folha, paralelo).compute();
+                new Tarefa(A, B, C, i0, i1, j0, j1, meio, k1, folha, paralelo).compute();
+            }
+        }
+
+        private void executar(Tarefa primeira, Tarefa segunda) {
+            if (paralelo) {
+                invokeAll(primeira, segunda);
+            } else {
+                primeira.compute();
+                segunda.compute();
+            }
+        }
+    }
+
+    // Folha: laço i-k-j da MatrizPlana restrito ao bloco
+    static void multiplicarBloco(MatrizPlana A, MatrizPlana B, MatrizPlana C,
+                                 int i0, int i1, int j0, int j1, int k0, int k1) {
+        long[] a = A.getDados(), b = B.getDados(), c = C.getDados();
+        int colunasA = A.getColunas(), colunasB = B.getColunas();
+        for (int i = i0; i < i1; i++) {
+            int linhaC = i * colunasB;
+            int linhaA = i * colunasA;
+            for (int k = k0; k < k1; k++) {
+                long aik = a[linhaA + k];
+                int linhaB = k * colunasB;
+                for (int j = j0; j < j1; j++) {
+                    c[linhaC + j] += aik * b[linhaB + j];
+                }
+            }
+        }
+    }
+}
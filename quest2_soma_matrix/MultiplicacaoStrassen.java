@@ -0,0 +1,301 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multiplicação de Strassen–Winograd com Corte para o Kernel Clássico
+ * * Problema: o laço triplo é O(N³): dobrar N custa 8x. Strassen troca uma das 8 multiplicações
+ * de blocos por somas, ficando em O(N^2.807): dobrar N custa ~7x.
+ * * Estratégia (variante de Winograd: 7 multiplicações e 15 somas por nível):
+ *   S1 = A21 + A22   S2 = S1 - A11   S3 = A11 - A21   S4 = A12 - S2
+ *   T1 = B12 - B11   T2 = B22 - T1   T3 = B22 - B12   T4 = T2 - B21
+ *   M1 = A11·B11  M2 = A12·B21  M3 = S4·B22  M4 = A22·T4  M5 = S1·T1  M6 = S2·T2  M7 = S3·T3
+ *   C11 = M1 + M2          U2 = M1 + M6   U3 = U2 + M7   U4 = U2 + M5
+ *   C12 = U4 + M3          C21 = U3 - M4  C22 = U3 + M5
+ * - Corte: a recursão para quando o MENOR lado do bloco chega a 'corte'; a folha usa o kernel
+ *   clássico i-k-j (abaixo disso as somas extras custam mais do que a multiplicação economizada).
+ * - Padding: M, K e N são completados com zeros separadamente até c·2^d, com o mesmo número de
+ *   divisões d para os três (o necessário para levar o menor lado ao corte); com N = 1000 e corte
+ *   128, d = 3 e o lado fica 1000. Formatos muito longe do quadrado (ex: 8 x 50000 x 8) têm d = 0
+ *   e vão direto para o kernel i-k-j da MatrizPlana, sem cópia nem padding.
+ * - Paralelismo: nos primeiros níveis as 7 multiplicações viram tarefas do ForkJoinPool.
+ * - Área de trabalho: os 15 blocos temporários de cada nível vêm de um pool de buffers
+ *   reaproveitados (por tamanho), em vez de novas alocações a cada chamada recursiva.
+ * * Com inteiros não há arredondamento: o resultado é exatamente igual ao do kernel clássico.
+ */
+public class MultiplicacaoStrassen {
+
+    static final int CORTE_PADRAO = 128;
+    // Maior long[] que a JVM aloca (alguns bytes de cabeçalho abaixo de Integer.MAX_VALUE)
+    private static final long MAX_ELEMENTOS = Integer.MAX_VALUE - 8;
+    // Níveis em que as 7 multiplicações rodam em paralelo (7 tarefas no 1º nível, 49 no 2º)
+    private static final int NIVEIS_PARALELOS = 2;
+
+    private final int corte;
+    private final PoolBuffers pool = new PoolBuffers();
+
+    public MultiplicacaoStrassen(int corte) {
+        this.corte = Math.max(1, corte);
+    }
+
+    // --- Algoritmo Sequencial (mesma recursão, sem fork) ---
+    public MatrizPlana multiplicarSequencial(MatrizPlana A, MatrizPlana B) {
+        if (niveis(A.getLinhas(), A.getColunas(), B.getColunas()) == 0) {
+            return MatrizPlana.multiplicarSequencial(A, B);
+        }
+        return multiplicar(A, B, null);
+    }
+
+    // --- Algoritmo Paralelo (as 7 multiplicações dos primeiros níveis no ForkJoinPool) ---
+    public MatrizPlana multiplicarParalelo(MatrizPlana A, MatrizPlana B, int numThreads) {
+        if (niveis(A.getLinhas(), A.getColunas(), B.getColunas()) == 0) {
+            try {
+                return MatrizPlana.multiplicarParalelo(A, B, numThreads);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrompido no kernel i-k-j", e);
+            }
+        }
+        ForkJoinPool forkJoin = new ForkJoinPool(numThreads);
+        try {
+            return multiplicar(A, B, forkJoin);
+        } finally {
+            forkJoin.shutdown();
+        }
+    }
+
+    /** Níveis de recursão: divisões ao meio até o menor dos três lados caber no corte. */
+    int niveis(int m, int k, int n) {
+        long menor = Math.min(m, Math.min(k, n));
+        int divisoes = 0;
+        while (((menor + (1L << divisoes) - 1) >> divisoes) > corte) {
+            divisoes++;
+        }
+        return divisoes;
+    }
+
+    /** Lado completado com zeros: o menor c·2^d >= n (em long, para não estourar). */
+    static long comPadding(int n, int divisoes) {
+        return ((n + (1L << divisoes) - 1) >> divisoes) << divisoes;
+    }
+
+    /** "M x K x N" depois do padding e o número de níveis, para o relatório. */
+    String descreverPadding(int m, int k, int n) {
+        int d = niveis(m, k, n);
+        if (d == 0) return m + " x " + k + " x " + n + " (sem recursão: kernel i-k-j)";
+        return comPadding(m, d) + " x " + comPadding(k, d) + " x " + comPadding(n, d) + " (" + d + " níveis)";
+    }
+
+    /** Número de buffers de trabalho realmente alocados desde a criação (o resto foi reaproveitado). */
+    public int getBuffersAlocados() {
+        return pool.alocados.get();
+    }
+
+    public String getDescricao() {
+        return "Strassen/corte=" + corte;
+    }
+
+    private MatrizPlana multiplicar(MatrizPlana A, MatrizPlana B, ForkJoinPool forkJoin) {
+        int m = A.getLinhas(), k = A.getColunas(), n = B.getColunas();
+        int d = niveis(m, k, n);
+        int pm = (int) comPadding(m, d), pk = (int) comPadding(k, d), pn = (int) comPadding(n, d);
+        long[] a = completar(A, pm, pk);
+        long[] b = completar(B, pk, pn);
+        long[] c = new long[elementos(pm, pn)];
+
+        Tarefa raiz = new Tarefa(new Bloco(a, 0, pk), new Bloco(b, 0, pn), new Bloco(c, 0, pn), pm, pk, pn, d,
+                forkJoin == null ? NIVEIS_PARALELOS : 0);
+        if (forkJoin == null) raiz.compute();
+        else forkJoin.invoke(raiz);
+
+        // Recorta o canto m x n do resultado
+        MatrizPlana C = new MatrizPlana(m, n);
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(c, i * pn, C.getDados(), i * n, n);
+        }
+        return C;
+    }
+
+    // Copia a matriz para um retângulo linhas x colunas completado com zeros
+    private static long[] completar(MatrizPlana M, int linhas, int colunas) {
+        long[] destino = new long[elementos(linhas, colunas)];
+        int original = M.getColunas();
+        for (int i = 0; i < M.getLinhas(); i++) {
+            System.arraycopy(M.getDados(), i * original, destino, i * colunas, original);
+        }
+        return destino;
+    }
+
+    // Tamanho do array de uma matriz com padding; recusa o que não cabe num long[] em vez de estourar
+    private static int elementos(long linhas, long colunas) {
+        long total = linhas * colunas;
+        if (linhas > Integer.MAX_VALUE || colunas > Integer.MAX_VALUE || total > MAX_ELEMENTOS) {
+            throw new IllegalArgumentException("Strassen: matriz com padding " + linhas + " x " + colunas
+                    + " não cabe num long[]");
+        }
+        return (int) total;
+    }
+
+    /** Visão de um bloco retangular dentro de um array (início e distância entre linhas). */
+    static final class Bloco {
+        final long[] d;
+        final int off;
+        final int ld;
+
+        Bloco(long[] d, int off, int ld) {
+            this.d = d;
+            this.off = off;
+            this.ld = ld;
+        }
+
+        // Quadrante (0,0), (0,1), (1,0) ou (1,1) de um bloco de 2hl x 2hc
+        Bloco quadrante(int linha, int coluna, int hl, int hc) {
+            return new Bloco(d, off + linha * hl * ld + coluna * hc, ld);
+        }
+    }
+
+    /** C (m x n) = A (m x k) · B (k x n), ainda com 'niveis' divisões ao meio pela frente. */
+    private final class Tarefa extends RecursiveAction {
+        private final Bloco A, B, C;
+        private final int m, k, n;
+        private final int niveis;
+        // Níveis abaixo deste começam a executar as multiplicações em sequência
+        private final int nivel;
+
+        Tarefa(Bloco A, Bloco B, Bloco C, int m, int k, int n, int niveis, int nivel) {
+            this.A = A;
+            this.B = B;
+            this.C = C;
+            this.m = m;
+            this.k = k;
+            this.n = n;
+            this.niveis = niveis;
+            this.nivel = nivel;
+        }
+
+        @Override
+        protected void compute() {
+            if (niveis == 0) {
+                multiplicarClassico(A, B, C, m, k, n);
+                return;
+            }
+            int hm = m / 2, hk = k / 2, hn = n / 2;
+            Bloco a11 = A.quadrante(0, 0, hm, hk), a12 = A.quadrante(0, 1, hm, hk), a21 = A.quadrante(1, 0, hm, hk), a22 = A.quadrante(1, 1, hm, hk);
+            Bloco b11 = B.quadrante(0, 0, hk, hn), b12 = B.quadrante(0, 1, hk, hn), b21 = B.quadrante(1, 0, hk, hn), b22 = B.quadrante(1, 1, hk, hn);
+            Bloco c11 = C.quadrante(0, 0, hm, hn), c12 = C.quadrante(0, 1, hm, hn), c21 = C.quadrante(1, 0, hm, hn), c22 = C.quadrante(1, 1, hm, hn);
+
+            // Área de trabalho do nível: 4 somas de A (S), 4 de B (T) e 7 produtos (M), no formato de C
+            ArrayDeque<long[]> emUso = new ArrayDeque<>();
+            Bloco s1 = temporario(hm, hk, emUso), s2 = temporario(hm, hk, emUso), s3 = temporario(hm, hk, emUso), s4 = temporario(hm, hk, emUso);
+            Bloco t1 = temporario(hk, hn, emUso), t2 = temporario(hk, hn, emUso), t3 = temporario(hk, hn, emUso), t4 = temporario(hk, hn, emUso);
+            Bloco[] mm = new Bloco[7];
+            for (int i = 0; i < 7; i++) mm[i] = temporario(hm, hn, emUso);
+            try {
+                somar(a21, a22, s1, hm, hk);
+                subtrair(s1, a11, s2, hm, hk);
+                subtrair(a11, a21, s3, hm, hk);
+                subtrair(a12, s2, s4, hm, hk);
+                subtrair(b12, b11, t1, hk, hn);
+                subtrair(b22, t1, t2, hk, hn);
+                subtrair(b22, b12, t3, hk, hn);
+                subtrair(t2, b21, t4, hk, hn);
+
+                int abaixo = niveis - 1;
+                Tarefa[] produtos = {
+                        new Tarefa(a11, b11, mm[0], hm, hk, hn, abaixo, nivel + 1),
+                        new Tarefa(a12, b21, mm[1], hm, hk, hn, abaixo, nivel + 1),
+                        new Tarefa(s4, b22, mm[2], hm, hk, hn, abaixo, nivel + 1),
+                        new Tarefa(a22, t4, mm[3], hm, hk, hn, abaixo, nivel + 1),
+                        new Tarefa(s1, t1, mm[4], hm, hk, hn, abaixo, nivel + 1),
+                        new Tarefa(s2, t2, mm[5], hm, hk, hn, abaixo, nivel + 1),
+                        new Tarefa(s3, t3, mm[6], hm, hk, hn, abaixo, nivel + 1)};
+                if (nivel < NIVEIS_PARALELOS) {
+                    invokeAll(produtos);
+                } else {
+                    for (Tarefa t : produtos) t.compute();
+                }
+
+                // Combinação: U2 e U3 reaproveitam os buffers de M6 e M7
+                somar(mm[0], mm[1], c11, hm, hn);      // C11 = M1 + M2
+                somar(mm[0], mm[5], mm[5], hm, hn);    // U2  = M1 + M6
+                somar(mm[5], mm[6], mm[6], hm, hn);    // U3  = U2 + M7
+                somar(mm[5], mm[4], mm[5], hm, hn);    // U4  = U2 + M5
+                somar(mm[5], mm[2], c12, hm, hn);      // C12 = U4 + M3
+                subtrair(mm[6], mm[3], c21, hm, hn);   // C21 = U3 - M4
+                somar(mm[6], mm[4], c22, hm, hn);      // C22 = U3 + M5
+            } finally {
+                for (long[] buffer : emUso) pool.devolver(buffer);
+            }
+        }
+    }
+
+    // Os temporários cabem nas matrizes com padding, então linhas * colunas não estoura
+    private Bloco temporario(int linhas, int colunas, ArrayDeque<long[]> emUso) {
+        long[] buffer = pool.obter(linhas * colunas);
+        emUso.add(buffer);
+        return new Bloco(buffer, 0, colunas);
+    }
+
+    // Corte: kernel clássico i-k-j sobre as visões (C é sobrescrita, não acumulada)
+    static void multiplicarClassico(Bloco A, Bloco B, Bloco C, int m, int k, int n) {
+        long[] a = A.d, b = B.d, c = C.d;
+        for (int i = 0; i < m; i++) {
+            int linhaC = C.off + i * C.ld;
+            Arrays.fill(c, linhaC, linhaC + n, 0);
+            int linhaA = A.off + i * A.ld;
+            for (int p = 0; p < k; p++) {
+                long aip = a[linhaA + p];
+                int linhaB = B.off + p * B.ld;
+                for (int j = 0; j < n; j++) {
+                    c[linhaC + j] += aip * b[linhaB + j];
+                }
+            }
+        }
+    }
+
+    private static void somar(Bloco x, Bloco y, Bloco z, int linhas, int colunas) {
+        for (int i = 0; i < linhas; i++) {
+            int lx = x.off + i * x.ld, ly = y.off + i * y.ld, lz = z.off + i * z.ld;
+            for (int j = 0; j < colunas; j++) {
+                z.d[lz + j] = x.d[lx + j] + y.d[ly + j];
+            }
+        }
+    }
+
+    private static void subtrair(Bloco x, Bloco y, Bloco z, int linhas, int colunas) {
+        for (int i = 0; i < linhas; i++) {
+            int lx = x.off + i * x.ld, ly = y.off + i * y.ld, lz = z.off + i * z.ld;
+            for (int j = 0; j < colunas; j++) {
+                z.d[lz + j] = x.d[lx + j] - y.d[ly + j];
+            }
+        }
+    }
+
+    /**
+     * Pool de buffers de trabalho, separados por tamanho. Thread-safe: as tarefas paralelas
+     * pegam e devolvem buffers ao mesmo tempo. Os buffers não são zerados (toda operação
+     * sobrescreve o bloco inteiro).
+     */
+    static final class PoolBuffers {
+        private final Map<Integer, ConcurrentLinkedDeque<long[]>> livres = new ConcurrentHashMap<>();
+        private final AtomicInteger alocados = new AtomicInteger();
+
+        long[] obter(int tamanho) {
+            long[] buffer = livres.computeIfAbsent(tamanho, t -> new ConcurrentLinkedDeque<>()).pollFirst();
+            if (buffer == null) {
+                alocados.incrementAndGet();
+                buffer = new long[tamanho];
+            }
+            return buffer;
+        }
+
+        void devolver(long[] buffer) {
+            livres.computeIfAbsent(buffer.length, t -> new ConcurrentLinkedDeque<>()).addFirst(buffer);
+        }
+    }
+}
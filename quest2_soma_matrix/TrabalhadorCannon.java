@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Processo Trabalhador do Cannon (aberto pelo MultiplicacaoDistribuida, não é chamado à mão)
+ * * Uso: java TrabalhadorCannon <endereço do coordenador> <id>
+ * * Ciclo de vida:
+ * 1. Abre o próprio servidor e se apresenta ao coordenador (id + endereço).
+ * 2. Recebe a posição (i, j) na grade e os endereços dos vizinhos da esquerda e de cima; conecta
+ *    neles (para enviar A e B) e aceita as conexões dos vizinhos da direita e de baixo (para receber).
+ * 3. Para cada comando MULTIPLICAR: recebe os blocos A e B, roda os q passos do Cannon e devolve
+ *    C(i, j) com os tempos de cálculo e de comunicação. FIM encerra o processo.
+ * * Troca de blocos: a thread de envio escreve A e B enquanto a thread principal lê os blocos que
+ * chegam em buffers reserva; no fim do passo os buffers são trocados (sem cópia).
+ */
+public class TrabalhadorCannon {
+
+    public static void main(String[] args) throws Exception {
+        String enderecoCoordenador = args[0];
+        int id = Integer.parseInt(args[1]);
+
+        // --- 1. Apresentação ---
+        Path caminho = enderecoCoordenador.startsWith("unix:")
+                ? Path.of(enderecoCoordenador.substring(5)).resolveSibling("trabalhador" + id + ".sock")
+                : null;
+        ServerSocketChannel servidor = MultiplicacaoDistribuida.abrirServidor(caminho);
+        SocketChannel coordenador = MultiplicacaoDistribuida.conectar(enderecoCoordenador);
+        MultiplicacaoDistribuida.escrever(coordenador, ByteBuffer.allocate(Integer.BYTES).putInt(id).flip());
+        MultiplicacaoDistribuida.escreverTexto(coordenador, MultiplicacaoDistribuida.descrever(servidor));
+
+        // --- 2. Grade e vizinhos ---
+        ByteBuffer cfg = ByteBuffer.allocate(3 * Integer.BYTES);
+        MultiplicacaoDistribuida.ler(coordenador, cfg);
+        cfg.flip();
+        int q = cfg.getInt();
+        cfg.getInt(); // linha i da grade
+        cfg.getInt(); // coluna j da grade
+        String enderecoEsquerda = MultiplicacaoDistribuida.lerTexto(coordenador);
+        String enderecoCima = MultiplicacaoDistribuida.lerTexto(coordenador);
+
+        SocketChannel paraEsquerda = null, paraCima = null, daDireita = null, deBaixo = null;
+        if (q > 1) {
+            // Conectar primeiro não trava: a conexão espera na fila do servidor do vizinho até o accept
+            paraEsquerda = conectarVizinho(enderecoEsquerda, MultiplicacaoDistribuida.CANAL_A);
+            paraCima = conectarVizinho(enderecoCima, MultiplicacaoDistribuida.CANAL_B);
+            // Com prazo: se um vizinho morreu antes de conectar, este trabalhador também desiste
+            // (e o coordenador vê a conexão dele cair)
+            for (int c = 0; c < 2; c++) {
+                SocketChannel canal = MultiplicacaoDistribuida.aceitar(servidor,
+                        MultiplicacaoDistribuida.PRAZO_CONEXAO_MS, () -> { });
+                MultiplicacaoDistribuida.configurar(canal);
+                ByteBuffer cab = ByteBuffer.allocate(Integer.BYTES);
+                MultiplicacaoDistribuida.ler(canal, cab);
+                if (cab.flip().getInt() == MultiplicacaoDistribuida.CANAL_A) daDireita = canal;
+                else deBaixo = canal;
+            }
+        }
+        servidor.close();
+
+        // --- 3. Trabalhos ---
+        ExecutorService envio = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "envio-" + id);
+            t.setDaemon(true);
+            return t;
+        });
+        ByteBuffer cab = ByteBuffer.allocate(4 * Integer.BYTES);
+        try {
+            while (true) {
+                cab.clear().limit(Integer.BYTES);
+                MultiplicacaoDistribuida.ler(coordenador, cab);
+                if (cab.getInt(0) == MultiplicacaoDistribuida.CMD_FIM) break;
+                cab.limit(4 * Integer.BYTES);
+                MultiplicacaoDistribuida.ler(coordenador, cab);
+                cab.flip().getInt();
+                int mb = cab.getInt(), kb = cab.getInt(), nb = cab.getInt();
+                executarCannon(q, mb, kb, nb, coordenador, paraEsquerda, paraCima, daDireita, deBaixo, envio);
+            }
+        } finally {
+            envio.shutdownNow();
+            coordenador.close();
+            for (SocketChannel canal : new SocketChannel[]{paraEsquerda, paraCima, daDireita, deBaixo}) {
+                if (canal != null) canal.close();
+            }
+            if (caminho != null) Files.deleteIfExists(caminho);
+        }
+    }
+
+    private static SocketChannel conectarVizinho(String endereco, int tipo) throws IOException {
+        SocketChannel canal = MultiplicacaoDistribuida.conectar(endereco);
+        MultiplicacaoDistribuida.escrever(canal, ByteBuffer.allocate(Integer.BYTES).putInt(tipo).flip());
+        return canal;
+    }
+
+    // Um trabalho: q passos de cálculo local seguidos de deslocamento de A (esquerda) e B (cima)
+    private static void executarCannon(int q, int mb, int kb, int nb, SocketChannel coordenador,
+                                       SocketChannel paraEsquerda, SocketChannel paraCima,
+                                       SocketChannel daDireita, SocketChannel deBaixo,
+                                       ExecutorService envio) throws IOException, InterruptedException {
+        ByteBuffer a = direto(mb * kb), b = direto(kb * nb);
+        ByteBuffer aReserva = direto(mb * kb), bReserva = direto(kb * nb);
+        MultiplicacaoDistribuida.ler(coordenador, a);
+        MultiplicacaoDistribuida.ler(coordenador, b);
+
+        long[] c = new long[mb * nb];
+        long calculo = 0, comunicacao = 0;
+        for (int passo = 0; passo < q; passo++) {
+            long t0 = System.nanoTime();
+            multiplicarBloco(a.clear().asLongBuffer(), b.clear().asLongBuffer(), c, mb, kb, nb);
+            long t1 = System.nanoTime();
+            calculo += t1 - t0;
+            if (passo == q - 1) break; // depois do último passo não há deslocamento
+
+            // Envio (thread separada) e recepção (esta thread) ao mesmo tempo
+            ByteBuffer enviarA = a.clear(), enviarB = b.clear();
+            Future<?> enviado = envio.submit(() -> {
+                MultiplicacaoDistribuida.escrever(paraEsquerda, enviarA);
+                MultiplicacaoDistribuida.escrever(paraCima, enviarB);
+                return null;
+            });
+            MultiplicacaoDistribuida.ler(daDireita, aReserva.clear());
+            MultiplicacaoDistribuida.ler(deBaixo, bReserva.clear());
+            try {
+                enviado.get();
+            } catch (ExecutionException e) {
+                throw new IOException("Falha no envio dos blocos", e.getCause());
+            }
+            ByteBuffer t = a; a = aReserva; aReserva = t;
+            t = b; b = bReserva; bReserva = t;
+            comunicacao += System.nanoTime() - t1;
+        }
+
+        // Devolve C(i, j) e os tempos
+        ByteBuffer blocoC = direto(mb * nb);
+        blocoC.asLongBuffer().put(c);
+        MultiplicacaoDistribuida.escrever(coordenador, blocoC);
+        MultiplicacaoDistribuida.escrever(coordenador,
+                ByteBuffer.allocate(2 * Long.BYTES).putLong(calculo).putLong(comunicacao).flip());
+    }
+
+    private static ByteBuffer direto(int longs) {
+        return ByteBuffer.allocateDirect(longs * Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    // C += A · B no bloco local (i-k-j, A e B lidos direto dos buffers diretos)
+    static void multiplicarBloco(LongBuffer a, LongBuffer b, long[] c, int mb, int kb, int nb) {
+        for (int i = 0; i < mb; i++) {
+            int linhaC = i * nb;
+            for (int x = 0; x < kb; x++) {
+                long aix = a.get(i * kb + x);
+                if (aix == 0) continue; // linhas/colunas de padding
+                int linhaB = x * nb;
+                for (int j = 0; j < nb; j++) {
+                    c[linhaC + j] += aix * b.get(linhaB + j);
+                }
+            }
+        }
+    }
+}
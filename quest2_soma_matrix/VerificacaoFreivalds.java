@@ -0,0 +1,289 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verificação Probabilística do Resultado (algoritmo de Freivalds)
+ * * Problema: validar C = A·B refazendo a multiplicação sequencial custa O(N³) (o mesmo que o
+ * próprio teste) e exige um segundo C na memória: com N grande a validação dobra o tempo da rodada.
+ * * Estratégia: sorteia um vetor r com entradas 0 ou 1 e compara A·(B·r) com C·r. São três
+ * produtos matriz-vetor, O(N²) cada. Se C != A·B, cada rodada detecta a diferença com probabilidade
+ * de pelo menos 1/2, então 'rodadas' independentes erram com probabilidade <= 2^-rodadas.
+ * - Aritmética long com estouro (módulo 2^64) não atrapalha: o kernel de C estoura da mesma forma,
+ *   e o argumento do 1/2 vale em qualquer anel (com r_j em {0,1}, no máximo um dos dois valores
+ *   anula a soma).
+ * - Paralelismo: os produtos matriz-vetor são divididos em faixas de linhas, uma por thread de um
+ *   pool criado para a verificação. A falha de uma faixa é relançada (nunca vira "válido").
+ * - Diagnóstico: achada uma linha i com diferença, a linha i de A·B é recalculada (O(K·N)) para
+ *   informar a primeira coluna errada.
+ * * As matrizes são lidas linha a linha por um LeitorLinha, o que serve tanto para long[][] quanto
+ * para as matrizes fora do heap (sem copiá-las inteiras). As esparsas entram como OperadorVetor
+ * (o próprio SpMV): ler uma linha densa de uma esparsa custaria O(K) por linha, não O(não nulos).
+ */
+public class VerificacaoFreivalds {
+
+    /** Copia a linha i da matriz para 'destino'. */
+    @FunctionalInterface
+    interface LeitorLinha {
+        void ler(int i, long[] destino);
+    }
+
+    /** Produto y = M·v de uma matriz que não é lida linha a linha (esparsa, vetor coluna...). */
+    @FunctionalInterface
+    interface OperadorVetor {
+        long[] aplicar(long[] v) throws InterruptedException;
+    }
+
+    /** Resultado da verificação: válido ou a posição (linha, coluna) da primeira diferença. */
+    public static final class Resultado {
+        private final int rodadas;
+        // Primeira linha com diferença (-1 = válido) e a primeira coluna errada nela
+        private final int linha;
+        private final int coluna;
+        private final double tempo;
+
+        Resultado(int rodadas, int linha, int coluna, double tempo) {
+            this.rodadas = rodadas;
+            this.linha = linha;
+            this.coluna = coluna;
+            this.tempo = tempo;
+        }
+
+        public boolean isValido() {
+            return linha < 0;
+        }
+
+        /** Rodadas executadas. */
+        public int getRodadas() {
+            return rodadas;
+        }
+
+        public int getLinha() {
+            return linha;
+        }
+
+        public int getColuna() {
+            return coluna;
+        }
+
+        /** Tempo da verificação em segundos. */
+        public double getTempo() {
+            return tempo;
+        }
+
+        @Override
+        public String toString() {
+            if (isValido()) {
+                return String.format("%d rodadas em %.4f s, chance de erro não detectado <= 2^-%d",
+                        rodadas, tempo, rodadas);
+            }
+            if (coluna < 0) return String.format("diferença na linha %d (%d rodadas, %.4f s)", linha, rodadas, tempo);
+            return String.format("diferença na linha %d, coluna %d (%d rodadas, %.4f s)", linha, coluna, rodadas, tempo);
+        }
+    }
+
+    public static Resultado verificar(long[][] A, long[][] B, long[][] C, int rodadas, long semente, int numThreads)
+            throws InterruptedException {
+        return verificar(A, B, leitor(C), rodadas, semente, numThreads);
+    }
+
+    /** C lido pelo próprio layout do algoritmo (ver os leitor(...)), sem convertê-lo para long[][]. */
+    static Resultado verificar(long[][] A, long[][] B, LeitorLinha C, int rodadas, long semente, int numThreads)
+            throws InterruptedException {
+        return verificar(A.length, B.length, B[0].length, leitor(A), leitor(B), C, rodadas, semente, numThreads);
+    }
+
+    public static Resultado verificar(MatrizForaDoHeap A, MatrizForaDoHeap B, MatrizForaDoHeap C, int rodadas,
+                                      long semente, int numThreads) throws InterruptedException {
+        return verificar(A.getLinhas(), B.getLinhas(), B.getColunas(), leitor(A), leitor(B), leitor(C),
+                rodadas, semente, numThreads);
+    }
+
+    private static LeitorLinha leitor(MatrizForaDoHeap M) {
+        return (i, d) -> M.janela(i).get(M.deslocamento(i), d, 0, d.length);
+    }
+
+    static LeitorLinha leitor(long[][] M) {
+        return (i, d) -> System.arraycopy(M[i], 0, d, 0, d.length);
+    }
+
+    // Matriz plana: a linha i é o trecho [i·colunas, (i+1)·colunas) do array
+    static LeitorLinha leitor(MatrizPlana M) {
+        long[] dados = M.getDados();
+        int colunas = M.getColunas();
+        return (i, d) -> System.arraycopy(dados, i * colunas, d, 0, d.length);
+    }
+
+    // Resultado double do GEMM (valores inteiros exatos): convertido só a linha pedida
+    static LeitorLinha leitor(double[] c, int colunas) {
+        return (i, d) -> {
+            int base = i * colunas;
+            for (int j = 0; j < d.length; j++) {
+                d[j] = (long) c[base + j];
+            }
+        };
+    }
+
+    // Densa como operador (um produto escalar por linha)
+    static OperadorVetor operador(long[][] M) {
+        return v -> {
+            long[] y = new long[M.length];
+            for (int i = 0; i < M.length; i++) y[i] = produtoEscalar(M[i], v);
+            return y;
+        };
+    }
+
+    // Vetor como matriz de uma coluna (x · v[0])
+    static OperadorVetor operadorColuna(long[] x) {
+        return v -> {
+            long[] y = new long[x.length];
+            for (int i = 0; i < x.length; i++) y[i] = x[i] * v[0];
+            return y;
+        };
+    }
+
+    /**
+     * Freivalds sobre operadores: compara A·(B·r) com C·r, onde n é o número de colunas de B e C.
+     * Sem o diagnóstico da coluna (exigiria ler linhas densas): informa só a primeira linha errada.
+     */
+    static Resultado verificar(int n, OperadorVetor A, OperadorVetor B, OperadorVetor C, int rodadas, long semente)
+            throws InterruptedException {
+        long inicio = System.nanoTime();
+        SplittableRandom rand = new SplittableRandom(semente);
+        long[] r = new long[n];
+        for (int rodada = 1; rodada <= rodadas; rodada++) {
+            for (int j = 0; j < n; j++) r[j] = rand.nextInt(2);
+            long[] abr = A.aplicar(B.aplicar(r));
+            long[] cr = C.aplicar(r);
+            for (int i = 0; i < cr.length; i++) {
+                if (abr[i] != cr[i]) return new Resultado(rodada, i, -1, (System.nanoTime() - inicio) / 1e9);
+            }
+        }
+        return new Resultado(rodadas, -1, -1, (System.nanoTime() - inicio) / 1e9);
+    }
+
+    /** A (m x k), B (k x n), C (m x n). */
+    static Resultado verificar(int m, int k, int n, LeitorLinha A, LeitorLinha B, LeitorLinha C,
+                               int rodadas, long semente, int numThreads) throws InterruptedException {
+        long inicio = System.nanoTime();
+        SplittableRandom rand = new SplittableRandom(semente);
+        long[] r = new long[n];
+        long[] br = new long[k];
+        AtomicInteger primeiraLinha = new AtomicInteger(Integer.MAX_VALUE);
+        int executadas = 0;
+        ExecutorService pool = (numThreads > 1) ? Executors.newFixedThreadPool(numThreads, tarefa -> {
+            Thread t = new Thread(tarefa, "freivalds");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+
+        try {
+            for (int rodada = 1; rodada <= rodadas; rodada++) {
+                executadas = rodada;
+                for (int j = 0; j < n; j++) r[j] = rand.nextInt(2);
+
+                // 1) br = B·r (faixas de linhas de B)
+                paraCadaFaixa(pool, k, numThreads, (de, ate) -> {
+                    long[] linha = new long[n];
+                    for (int x = de; x < ate; x++) {
+                        B.ler(x, linha);
+                        br[x] = produtoEscalar(linha, r);
+                    }
+                });
+
+                // 2) Compara A·br com C·r linha a linha (faixas de linhas de A e C)
+                paraCadaFaixa(pool, m, numThreads, (de, ate) -> {
+                    long[] linhaA = new long[k];
+                    long[] linhaC = new long[n];
+                    for (int i = de; i < ate && i < primeiraLinha.get(); i++) {
+                        A.ler(i, linhaA);
+                        C.ler(i, linhaC);
+                        if (produtoEscalar(linhaA, br) != produtoEscalar(linhaC, r)) {
+                            primeiraLinha.accumulateAndGet(i, Math::min);
+                            return;
+                        }
+                    }
+                });
+
+                // Achada uma diferença, as rodadas seguintes só olham as linhas anteriores a ela
+                // (uma linha errada pode escapar numa rodada: a primeira não é necessariamente a achada)
+                if (primeiraLinha.get() == 0) break;
+            }
+        } finally {
+            if (pool != null) pool.shutdownNow();
+        }
+        int linha = primeiraLinha.get();
+        if (linha == Integer.MAX_VALUE) {
+            return new Resultado(executadas, -1, -1, (System.nanoTime() - inicio) / 1e9);
+        }
+        // Com a diferença na linha 0 o laço para antes: o Resultado informa as rodadas que rodaram
+        int coluna = primeiraColunaErrada(linha, k, n, A, B, C);
+        return new Resultado(executadas, linha, coluna, (System.nanoTime() - inicio) / 1e9);
+    }
+
+    // Recalcula a linha i de A·B (laço i-k-j de uma linha) e devolve a primeira coluna diferente de C
+    private static int primeiraColunaErrada(int i, int k, int n, LeitorLinha A, LeitorLinha B, LeitorLinha C) {
+        long[] linhaA = new long[k];
+        long[] linhaB = new long[n];
+        long[] esperada = new long[n];
+        A.ler(i, linhaA);
+        for (int x = 0; x < k; x++) {
+            B.ler(x, linhaB);
+            long aix = linhaA[x];
+            for (int j = 0; j < n; j++) {
+                esperada[j] += aix * linhaB[j];
+            }
+        }
+        long[] linhaC = new long[n];
+        C.ler(i, linhaC);
+        for (int j = 0; j < n; j++) {
+            if (linhaC[j] != esperada[j]) return j;
+        }
+        return -1; // só acontece se C mudou durante a verificação
+    }
+
+    private static long produtoEscalar(long[] a, long[] b) {
+        long soma = 0;
+        for (int j = 0; j < a.length; j++) {
+            soma += a[j] * b[j];
+        }
+        return soma;
+    }
+
+    @FunctionalInterface
+    private interface AcaoFaixa {
+        void executar(int de, int ate);
+    }
+
+    // Divide [0, total) em 'numThreads' faixas contíguas (a última pega o resto) e espera todas;
+    // a exceção de uma faixa é relançada aqui
+    private static void paraCadaFaixa(ExecutorService pool, int total, int numThreads, AcaoFaixa acao)
+            throws InterruptedException {
+        int partes = Math.max(1, Math.min(numThreads, total));
+        if (pool == null || partes == 1) {
+            acao.executar(0, total);
+            return;
+        }
+        Future<?>[] faixas = new Future<?>[partes];
+        int porThread = total / partes;
+        for (int t = 0; t < partes; t++) {
+            int de = t * porThread;
+            int ate = (t == partes - 1) ? total : de + porThread;
+            faixas[t] = pool.submit(() -> acao.executar(de, ate));
+        }
+        for (Future<?> f : faixas) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                for (Future<?> outra : faixas) outra.cancel(true);
+                Throwable causa = e.getCause();
+                if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+                if (causa instanceof Error) throw (Error) causa;
+                throw new IllegalStateException(causa);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Anel de Registros de Log (fila limitada, sem locks, vários produtores e um consumidor)
+ * * Problema: cada log() criava um SimpleDateFormat e postava o seu próprio invokeLater; com muitos
+ * eventos a EDT passava o tempo montando texto, uma linha por vez.
+ * * Estratégia (fila limitada de Vyukov): um array circular de 'capacidade' posições (potência
+ * de 2), cada uma com um número de sequência:
+ * - Produtor (qualquer thread): reserva a próxima posição com CAS na cauda, grava o registro e só
+ *   então publica a sequência (escrita volátil, que torna o registro visível ao consumidor).
+ * - Consumidor (só a EDT): lê as posições publicadas em ordem, em lotes, e libera cada uma para a
+ *   volta seguinte do anel.
+ * - Anel cheio: o produtor NÃO espera; o registro é descartado e contado (logar nunca trava quem
+ *   está trabalhando).
+ * * A formatação (hora, texto) fica para o consumidor: o produtor guarda só o instante e a mensagem.
+ */
+public class AnelLog {
+
+    /** Recebe os registros drenados, em ordem de publicação. */
+    @FunctionalInterface
+    public interface Consumidor {
+        void aceitar(long instanteMs, String texto);
+    }
+
+    private final int mascara;
+    private final AtomicLongArray sequencias;
+    private final long[] instantes;
+    private final String[] textos;
+    private final AtomicLong cauda = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    // Só o consumidor mexe na cabeça
+    private long cabeca;
+
+    public AnelLog(int capacidadeMinima) {
+        int capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima - 1)) << 1;
+        this.mascara = capacidade - 1;
+        this.sequencias = new AtomicLongArray(capacidade);
+        this.instantes = new long[capacidade];
+        this.textos = new String[capacidade];
+        for (int i = 0; i < capacidade; i++) sequencias.set(i, i);
+    }
+
+    /** Enfileira a mensagem; devolve false se o anel estava cheio (registro descartado). */
+    public boolean publicar(String texto) {
+        long instante = System.currentTimeMillis();
+        while (true) {
+            long pos = cauda.get();
+            int i = (int) pos & mascara;
+            long diferenca = sequencias.get(i) - pos;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(pos, pos + 1)) {
+                    instantes[i] = instante;
+                    textos[i] = texto;
+                    sequencias.set(i, pos + 1); // publica
+                    return true;
+                }
+            } else if (diferenca < 0) {
+                // A posição ainda não foi consumida na volta anterior: anel cheio
+                descartados.incrementAndGet();
+                return false;
+            }
+            // diferenca > 0: outro produtor reservou esta posição; tenta a próxima
+        }
+    }
+
+    /** Entrega até 'maximo' registros publicados ao consumidor (chamar sempre da mesma thread). */
+    public int drenar(Consumidor consumidor, int maximo) {
+        int lidos = 0;
+        while (lidos < maximo) {
+            int i = (int) cabeca & mascara;
+            if (sequencias.get(i) != cabeca + 1) break; // ainda não publicado
+            String texto = textos[i];
+            long instante = instantes[i];
+            textos[i] = null;
+            sequencias.set(i, cabeca + mascara + 1); // libera para a próxima volta
+            cabeca++;
+            consumidor.aceitar(instante, texto);
+            lidos++;
+        }
+        return lidos;
+    }
+
+    /** Registros perdidos por anel cheio desde a criação. */
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    public int getCapacidade() {
+        return mascara + 1;
+    }
+}
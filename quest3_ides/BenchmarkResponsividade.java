@@ -0,0 +1,213 @@
+import javax.swing.*;
+import java.awt.ActiveEvent;
+import java.awt.EventQueue;
+import java.awt.GraphicsEnvironment;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark Automático de Responsividade (Questão 3 sem usuário)
+ * * Problema: o experimento dependia de alguém clicando no botão 3 enquanto a tarefa pesada rodava;
+ * não dava para repetir nem rodar num servidor Linux sem tela.
+ * * Estratégia:
+ * - O SimuladorAppMetricas (um JPanel) é montado sem janela; funciona com java.awt.headless=true
+ *   ou num framebuffer virtual (Xvfb).
+ * - Os modos são disparados por ActionEvents sintéticos postados na EventQueue, os mesmos que um
+ *   clique geraria; a tarefa pesada faz cálculo de verdade (passos de CPU calibrados), não sleep.
+ * - Um injetor posta "cliques" no botão 3 a uma taxa fixa (ritmo fixo, como a SondaLatenciaEDT,
+ *   para não esconder o congelamento). Cada evento leva o instante da postagem: no despacho, a
+ *   espera na fila vai para um HistogramaLatencia.
+ * - Por rodada: tempo total, vazão de eventos despachados DURANTE o trabalho e percentis da
+ *   latência de despacho, acrescentados em ARQUIVO_RESULTADOS (CSV).
+ */
+public class BenchmarkResponsividade {
+
+    private static final String ARQUIVO_RESULTADOS = "resultados_benchmark_q3.csv";
+    // Limite de uma rodada (a tarefa pesada leva ~11 passos)
+    private static final long PRAZO_RODADA_S = 600;
+
+    /** Medição de uma rodada; fora 'postados', só a EDT mexe nos campos. */
+    private static final class Rodada {
+        final AtomicLong postados = new AtomicLong();
+        final HistogramaLatencia latencias = new HistogramaLatencia();
+        long[] despachosNs = new long[1024];
+        int despachados;
+        long inicioNs;
+        double tempoTotal;
+
+        void registrar(long postadoNs, long despachoNs) {
+            latencias.registrar(despachoNs - postadoNs);
+            if (despachados == despachosNs.length) despachosNs = Arrays.copyOf(despachosNs, despachados * 2);
+            despachosNs[despachados++] = despachoNs;
+        }
+
+        // Eventos despachados entre o início e o fim do trabalho (o que a interface conseguiu atender)
+        int despachadosDuranteTrabalho() {
+            long fimNs = inicioNs + (long) (tempoTotal * 1e9);
+            int n = 0;
+            for (int i = 0; i < despachados; i++) {
+                if (despachosNs[i] >= inicioNs && despachosNs[i] <= fimNs) n++;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * ActionEvent sintético que passa pela EventQueue como um clique: ao ser despachado (na EDT)
+     * mede a espera na fila e entrega o evento aos ActionListeners do botão.
+     */
+    private static final class EventoSintetico extends ActionEvent implements ActiveEvent {
+        private final long postadoNs = System.nanoTime();
+        private final Rodada rodada; // null = evento que dispara o modo (não medido)
+
+        EventoSintetico(JButton botao, Rodada rodada) {
+            super(botao, ACTION_PERFORMED, botao.getActionCommand());
+            this.rodada = rodada;
+        }
+
+        @Override
+        public void dispatch() {
+            long agora = System.nanoTime();
+            if (rodada != null) rodada.registrar(postadoNs, agora);
+            for (ActionListener l : ((JButton) getSource()).getActionListeners()) {
+                l.actionPerformed(this);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("=== Q3: BENCHMARK AUTOMÁTICO DE RESPONSIVIDADE ===");
+        System.out.println("Ambiente: " + (GraphicsEnvironment.isHeadless() ? "headless (sem tela)" : "com tela"));
+
+        System.out.print("Taxa de eventos sintéticos (eventos/s, ex: 200): ");
+        int taxa = Math.max(1, scanner.nextInt());
+        System.out.print("Duração de cada passo de CPU (ms, 0 = Thread.sleep de 500 ms): ");
+        long passoMs = Math.max(0, scanner.nextLong());
+        System.out.print("Repetições por modo: ");
+        int repeticoes = Math.max(1, scanner.nextInt());
+        System.out.print("Modos: 1 = sequencial, 2 = thread, 3 = ambos: ");
+        int opcao = scanner.nextInt();
+
+        long iteracoes = 0;
+        if (passoMs > 0) {
+            double porMs = calibrar();
+            iteracoes = Math.max(1, (long) (porMs * passoMs));
+            System.out.printf(Locale.ROOT, "Calibração: %.0f iterações/ms -> %d iterações por passo%n", porMs, iteracoes);
+        }
+        String trabalho = passoMs > 0 ? "cpu" : "sleep";
+
+        SimuladorAppMetricas[] ref = new SimuladorAppMetricas[1];
+        long iteracoesPasso = iteracoes;
+        SwingUtilities.invokeAndWait(() -> {
+            ref[0] = new SimuladorAppMetricas();
+            ref[0].setIteracoesCpuPorPasso(iteracoesPasso);
+        });
+        SimuladorAppMetricas painel = ref[0];
+
+        String[] modos = opcao == 1 ? new String[]{"sequencial"}
+                : opcao == 2 ? new String[]{"thread"} : new String[]{"sequencial", "thread"};
+        System.out.println("\nmodo        rep  tempo(s)  postados  despachados  durante  vazão(ev/s)  p50(ms)  p99(ms)  máx(ms)");
+        for (String modo : modos) {
+            JButton botao = modo.equals("sequencial") ? painel.getBtnSequencial() : painel.getBtnThread();
+            for (int r = 1; r <= repeticoes; r++) {
+                Rodada rodada = medir(painel, botao, taxa);
+                int durante = rodada.despachadosDuranteTrabalho();
+                double vazao = durante / Math.max(1e-9, rodada.tempoTotal);
+                HistogramaLatencia h = rodada.latencias;
+                System.out.printf(Locale.ROOT, "%-10s %4d %9.3f %9d %12d %8d %12.1f %8.2f %8.2f %8.2f%n",
+                        modo, r, rodada.tempoTotal, rodada.postados.get(), rodada.despachados, durante, vazao,
+                        h.percentil(50) / 1e6, h.percentil(99) / 1e6, h.getMaximo() / 1e6);
+                salvar(modo, trabalho, passoMs, taxa, r, rodada, durante, vazao);
+            }
+        }
+        System.out.println("\n[!] Resultados salvos em '" + ARQUIVO_RESULTADOS + "'");
+        // Os javax.swing.Timer do painel mantêm a EDT viva
+        System.exit(0);
+    }
+
+    /**
+     * Uma rodada: liga o injetor, dispara o modo pelo botão e espera o aviso de fim do simulador.
+     * Depois esvazia a fila para que os eventos retidos (modo sequencial) também sejam medidos.
+     */
+    private static Rodada medir(SimuladorAppMetricas painel, JButton botao, int taxa) throws Exception {
+        Rodada rodada = new Rodada();
+        CountDownLatch fim = new CountDownLatch(1);
+        SwingUtilities.invokeAndWait(() -> painel.setAoFinalizar((modo, tempo) -> {
+            rodada.tempoTotal = tempo;
+            fim.countDown();
+        }));
+
+        EventQueue fila = Toolkit.getDefaultToolkit().getSystemEventQueue();
+        JButton alvo = painel.getBtnInteracao();
+        ScheduledExecutorService injetor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "injetor-eventos");
+            t.setDaemon(true);
+            return t;
+        });
+        SwingUtilities.invokeAndWait(() -> rodada.inicioNs = System.nanoTime());
+        fila.postEvent(new EventoSintetico(botao, null));
+        injetor.scheduleAtFixedRate(() -> {
+            rodada.postados.incrementAndGet();
+            fila.postEvent(new EventoSintetico(alvo, rodada));
+        }, 0, 1_000_000_000L / taxa, TimeUnit.NANOSECONDS);
+
+        boolean terminou = fim.await(PRAZO_RODADA_S, TimeUnit.SECONDS);
+        injetor.shutdownNow();
+        injetor.awaitTermination(5, TimeUnit.SECONDS);
+        // FIFO: quando este invokeAndWait volta, todos os eventos postados antes já foram despachados
+        SwingUtilities.invokeAndWait(() -> { });
+        if (!terminou) throw new IllegalStateException("rodada passou de " + PRAZO_RODADA_S + " s");
+        return rodada;
+    }
+
+    // Iterações de xorshift por milissegundo nesta máquina (depois de aquecer o JIT)
+    private static double calibrar() {
+        long sumidouro = 0;
+        for (int i = 0; i < 20; i++) sumidouro += SimuladorAppMetricas.calcularPasso(1 << 20, i);
+        long iteracoes = 1 << 20;
+        while (true) {
+            long t0 = System.nanoTime();
+            sumidouro += SimuladorAppMetricas.calcularPasso(iteracoes, sumidouro);
+            long dt = System.nanoTime() - t0;
+            if (dt >= 200_000_000L) return iteracoes / (dt / 1e6);
+            iteracoes *= 2;
+        }
+    }
+
+    private static void salvar(String modo, String trabalho, long passoMs, int taxa, int repeticao,
+                               Rodada rodada, int durante, double vazao) {
+        HistogramaLatencia h = rodada.latencias;
+        boolean novo = !Files.exists(Paths.get(ARQUIVO_RESULTADOS));
+        try (PrintWriter pw = new PrintWriter(new FileWriter(ARQUIVO_RESULTADOS, true))) {
+            if (novo) {
+                pw.println("data_hora,modo,trabalho,passo_ms,taxa_eventos_hz,repeticao,headless,tempo_total_s,"
+                        + "eventos_postados,eventos_despachados,despachados_durante,vazao_durante_ev_s,"
+                        + "p50_ms,p99_ms,p999_ms,max_ms");
+            }
+            pw.printf(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%b,%.3f,%d,%d,%d,%.2f,%.4f,%.4f,%.4f,%.4f%n",
+                    OffsetDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME), modo, trabalho, passoMs,
+                    taxa, repeticao, GraphicsEnvironment.isHeadless(), rodada.tempoTotal,
+                    rodada.postados.get(), rodada.despachados, durante, vazao,
+                    h.percentil(50) / 1e6, h.percentil(99) / 1e6, h.percentil(99.9) / 1e6, h.getMaximo() / 1e6);
+        } catch (IOException e) {
+            System.err.println("[ERRO] Não foi possível salvar os resultados: " + e.getMessage());
+        }
+    }
+}
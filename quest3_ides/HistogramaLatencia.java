@@ -0,0 +1,77 @@
+import java.util.Arrays;
+
+/**
+ * Histograma de Latências de Alta Resolução (log-linear, em nanossegundos)
+ * * Problema: guardar todas as amostras para ordenar e tirar percentis cresce sem limite; uma
+ * média esconde justamente os travamentos (que estão na cauda: p99, p99.9, máximo).
+ * * Estratégia (a mesma ideia do HdrHistogram): abaixo de 64 ns cada valor tem o seu contador;
+ * acima, cada potência de 2 é dividida em 32 intervalos iguais (escolhidos pelos 6 bits mais altos
+ * do valor). O erro relativo de qualquer percentil fica abaixo de 1/32 (~3%), de 1 ns até anos,
+ * com 1920 contadores fixos. O máximo é guardado exato.
+ * * Não é thread-safe: a sonda registra e lê tudo na própria EDT.
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUBFAIXA = 6;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+
+    // Índices 0 a 63: valores exatos; depois, 32 intervalos por potência de 2 (e = 1 .. 58)
+    private final long[] contagens = new long[(64 - BITS_SUBFAIXA) * SUBFAIXAS / 2 + SUBFAIXAS];
+    private long total;
+    private long maximo;
+
+    public void registrar(long valorNs) {
+        long v = Math.max(0, valorNs);
+        contagens[indice(v)]++;
+        total++;
+        if (v > maximo) maximo = v;
+    }
+
+    public void zerar() {
+        Arrays.fill(contagens, 0);
+        total = 0;
+        maximo = 0;
+    }
+
+    public long getContagem() {
+        return total;
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    /** Percentil p (0 a 100) em ns: limite superior do intervalo onde ele cai (nunca acima do máximo). */
+    public long percentil(double p) {
+        if (total == 0) return 0;
+        long alvo = Math.max(1, (long) Math.ceil(total * p / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) return Math.min(limiteSuperior(i), maximo);
+        }
+        return maximo;
+    }
+
+    /** "p50 0,120 ms | p99 ... | p99.9 ... | máx ... (n amostras)" */
+    public String getResumo() {
+        return String.format("p50 %.3f ms | p99 %.3f ms | p99.9 %.3f ms | máx %.3f ms (%d amostras)",
+                percentil(50) / 1e6, percentil(99) / 1e6, percentil(99.9) / 1e6, maximo / 1e6, total);
+    }
+
+    private static int indice(long v) {
+        if (v < SUBFAIXAS) return (int) v;
+        // e = quantas vezes o valor passa de 6 bits; os 6 bits mais altos escolhem a subfaixa
+        int e = 64 - Long.numberOfLeadingZeros(v) - BITS_SUBFAIXA;
+        int sub = (int) (v >>> e) - SUBFAIXAS / 2;
+        return e * SUBFAIXAS / 2 + SUBFAIXAS / 2 + sub;
+    }
+
+    // Maior valor que cai no intervalo i
+    private static long limiteSuperior(int i) {
+        if (i < SUBFAIXAS) return i;
+        int e = (i - SUBFAIXAS / 2) / (SUBFAIXAS / 2);
+        int sub = (i - SUBFAIXAS / 2) % (SUBFAIXAS / 2);
+        return ((long) (sub + SUBFAIXAS / 2 + 1) << e) - 1;
+    }
+}
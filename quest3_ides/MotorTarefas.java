@@ -0,0 +1,220 @@
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Motor de Tarefas em Segundo Plano (cancelamento, timeout e progresso agregado)
+ * * Problema: o modo Thread criava uma Thread crua por clique, não podia ser cancelado (a
+ * InterruptedException era engolida) e postava um invokeLater por passo de progresso: com
+ * centenas de tarefas a EDT recebia milhares de eventos por segundo.
+ * * Estratégia:
+ * - Execução: threads virtuais (uma por tarefa, baratas para centenas de tarefas que dormem) ou um
+ *   pool limitado de threads de plataforma (para trabalho de CPU, sem disputar mais núcleos do que há).
+ * - Cancelamento: Future.cancel(true) interrompe a tarefa; o Progresso verifica a interrupção a cada
+ *   passo. Timeout: um agendador cancela a tarefa se ela passar do prazo (estado EXPIRADA).
+ * - Progresso: as tarefas só gravam campos voláteis e marcam o motor como "sujo". Quem desenha
+ *   (PainelTarefas) consulta o motor uma vez por quadro: no máximo um repaint por quadro, seja qual
+ *   for o número de tarefas. As tarefas terminadas entram numa fila drenada no mesmo quadro.
+ */
+public class MotorTarefas {
+
+    public enum Estado { PENDENTE, RODANDO, CONCLUIDA, CANCELADA, EXPIRADA, FALHOU }
+
+    /** Canal de progresso entregue ao trabalho (chamado da thread da tarefa). */
+    public interface Progresso {
+        /** Atualiza o progresso (0 a 100) e as unidades feitas; lança InterruptedException se cancelada. */
+        void atualizar(int percentual, long unidades) throws InterruptedException;
+    }
+
+    /** O trabalho em si: deve chamar progresso.atualizar() com frequência e repassar a interrupção. */
+    @FunctionalInterface
+    public interface Trabalho {
+        void executar(Progresso progresso) throws InterruptedException;
+    }
+
+    /** Uma tarefa submetida (uma linha no painel). */
+    public final class Tarefa implements Progresso {
+        private final int id;
+        private final String nome;
+        private volatile Estado estado = Estado.PENDENTE;
+        private volatile int percentual;
+        private volatile long unidades;
+        private volatile long inicioNs, fimNs;
+        private volatile boolean expirou;
+        private volatile Future<?> futuro;
+
+        private Tarefa(int id, String nome) {
+            this.id = id;
+            this.nome = nome;
+        }
+
+        @Override
+        public void atualizar(int percentual, long unidades) throws InterruptedException {
+            if (Thread.currentThread().isInterrupted()) throw new InterruptedException();
+            this.percentual = percentual;
+            this.unidades = unidades;
+            marcarSujo();
+        }
+
+        public void cancelar() {
+            Future<?> f = futuro;
+            if (f != null) f.cancel(true);
+            // Ainda na fila do pool: o run() nunca vai executar, então o fim é registrado aqui
+            if (estado == Estado.PENDENTE) terminar(expirou ? Estado.EXPIRADA : Estado.CANCELADA);
+        }
+
+        private void terminar(Estado fim) {
+            synchronized (this) {
+                if (estado.ordinal() >= Estado.CONCLUIDA.ordinal()) return; // já terminou
+                estado = fim;
+            }
+            fimNs = System.nanoTime();
+            finalizadas.add(this);
+            ativas.decrementAndGet();
+            marcarSujo();
+        }
+
+        public int getId() { return id; }
+        public String getNome() { return nome; }
+        public Estado getEstado() { return estado; }
+        public int getPercentual() { return percentual; }
+        public long getUnidades() { return unidades; }
+
+        public boolean isTerminada() {
+            return estado.ordinal() >= Estado.CONCLUIDA.ordinal();
+        }
+
+        /** Segundos em execução (até agora, se ainda rodando). */
+        public double getDuracao() {
+            long ini = inicioNs;
+            if (ini == 0) return 0;
+            long fim = fimNs;
+            return ((fim == 0 ? System.nanoTime() : fim) - ini) / 1e9;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final String descricao;
+    private final ScheduledExecutorService prazos = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "motor-prazos");
+        t.setDaemon(true);
+        return t;
+    });
+    private final List<Tarefa> tarefas = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<Tarefa> finalizadas = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sujo = new AtomicBoolean();
+    private final AtomicInteger proximoId = new AtomicInteger(1);
+    private final AtomicInteger ativas = new AtomicInteger();
+
+    private MotorTarefas(ExecutorService executor, String descricao) {
+        this.executor = executor;
+        this.descricao = descricao;
+    }
+
+    /** Uma thread virtual por tarefa (sem limite). */
+    public static MotorTarefas comThreadsVirtuais() {
+        return new MotorTarefas(Executors.newVirtualThreadPerTaskExecutor(), "threads virtuais");
+    }
+
+    /** Pool fixo de 'threads' threads de plataforma (daemon); o excesso espera na fila como PENDENTE. */
+    public static MotorTarefas comPoolLimitado(int threads) {
+        AtomicInteger contador = new AtomicInteger();
+        return new MotorTarefas(Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "motor-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }), "pool de " + threads + " threads");
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * Submete um trabalho.
+     * @param timeoutMs prazo a partir da submissão (0 = sem prazo)
+     */
+    public Tarefa submeter(String nome, Trabalho trabalho, long timeoutMs) {
+        Tarefa tarefa = new Tarefa(proximoId.getAndIncrement(), nome);
+        tarefas.add(tarefa);
+        ativas.incrementAndGet();
+        tarefa.futuro = executor.submit(() -> {
+            synchronized (tarefa) {
+                if (tarefa.isTerminada()) return; // cancelada antes de começar
+                tarefa.estado = Estado.RODANDO;
+            }
+            tarefa.inicioNs = System.nanoTime();
+            marcarSujo();
+            try {
+                trabalho.executar(tarefa);
+                tarefa.percentual = 100;
+                tarefa.terminar(Estado.CONCLUIDA);
+            } catch (InterruptedException e) {
+                tarefa.terminar(tarefa.expirou ? Estado.EXPIRADA : Estado.CANCELADA);
+            } catch (RuntimeException e) {
+                tarefa.terminar(Estado.FALHOU);
+            }
+        });
+        if (timeoutMs > 0) {
+            prazos.schedule(() -> {
+                if (!tarefa.isTerminada()) {
+                    tarefa.expirou = true;
+                    tarefa.cancelar();
+                }
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        marcarSujo();
+        return tarefa;
+    }
+
+    /** Cancela todas as tarefas que ainda não terminaram. */
+    public void cancelarTodas() {
+        for (Tarefa t : tarefas) {
+            if (!t.isTerminada()) t.cancelar();
+        }
+    }
+
+    /** Remove da lista as tarefas já terminadas. */
+    public void removerTerminadas() {
+        tarefas.removeIf(Tarefa::isTerminada);
+        marcarSujo();
+    }
+
+    /** Tarefas na ordem de submissão (cópia imutável no momento da chamada). */
+    public List<Tarefa> getTarefas() {
+        return List.copyOf(tarefas);
+    }
+
+    public int getAtivas() {
+        return ativas.get();
+    }
+
+    /**
+     * Consome a marca de "sujo": true se algo mudou desde a última chamada.
+     * Chamada uma vez por quadro por quem desenha.
+     */
+    public boolean consumirMudancas() {
+        return sujo.getAndSet(false);
+    }
+
+    /** Entrega as tarefas que terminaram desde a última chamada. */
+    public void drenarFinalizadas(Consumer<Tarefa> consumidor) {
+        Tarefa t;
+        while ((t = finalizadas.poll()) != null) {
+            consumidor.accept(t);
+        }
+    }
+
+    // Só escreve se ainda não estiver marcado (evita disputa da linha de cache a cada passo)
+    private void marcarSujo() {
+        if (!sujo.get()) sujo.set(true);
+    }
+}
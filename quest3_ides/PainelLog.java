@@ -0,0 +1,92 @@
+import javax.swing.*;
+import java.awt.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Painel de Log Limitado e em Lotes
+ * * Problema: o JTextArea crescia sem limite e cada linha era um append + reposicionamento do
+ * cursor na EDT; sob muitos eventos o documento e o layout de texto dominavam a EDT.
+ * * Estratégia:
+ * - As linhas entram num AnelLog (sem locks); qualquer thread pode logar sem tocar no Swing.
+ * - Um javax.swing.Timer drena o anel uma vez por quadro (~60 Hz) e acrescenta o lote inteiro
+ *   ao modelo com um único evento (addAll) e uma única rolagem.
+ * - JList com altura de célula fixa: só as linhas visíveis são desenhadas, seja qual for o total.
+ * - Retenção: acima de 'retencao' linhas as mais antigas saem do modelo. Linhas perdidas (anel
+ *   cheio ou retenção) são contadas e exibidas no rodapé.
+ */
+public class PainelLog extends JPanel {
+
+    // Um quadro a 60 Hz e o máximo de linhas movidas para o modelo por quadro
+    private static final int PERIODO_QUADRO_MS = 16;
+    private static final int LOTE_MAXIMO = 4096;
+    // Formatador compartilhado (DateTimeFormatter é imutável e thread-safe)
+    private static final DateTimeFormatter FORMATO_HORA =
+            DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final AnelLog anel;
+    private final int retencao;
+    private final DefaultListModel<String> modelo = new DefaultListModel<>();
+    private final JList<String> lista = new JList<>(modelo);
+    private final JLabel lblRodape = new JLabel();
+    private final List<String> lote = new ArrayList<>();
+    private long removidasRetencao = 0;
+
+    /**
+     * @param capacidadeAnel linhas que podem esperar entre dois quadros
+     * @param retencao máximo de linhas mantidas na lista
+     */
+    public PainelLog(int capacidadeAnel, int retencao) {
+        super(new BorderLayout());
+        this.anel = new AnelLog(capacidadeAnel);
+        this.retencao = Math.max(1, retencao);
+
+        lista.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        // Altura fixa: a JList não precisa medir cada linha (só as visíveis são renderizadas)
+        lista.setFixedCellHeight(lista.getFontMetrics(lista.getFont()).getHeight() + 2);
+        lista.setFocusable(false);
+        add(new JScrollPane(lista), BorderLayout.CENTER);
+        lblRodape.setFont(new Font("Monospaced", Font.PLAIN, 11));
+        add(lblRodape, BorderLayout.SOUTH);
+        atualizarRodape();
+
+        new Timer(PERIODO_QUADRO_MS, e -> descarregar()).start();
+    }
+
+    /** Pode ser chamado de qualquer thread. */
+    public void publicar(String texto) {
+        anel.publicar(texto);
+    }
+
+    /** Esvazia a lista e o que estiver pendente no anel (usar na EDT). */
+    public void limpar() {
+        anel.drenar((instante, texto) -> { }, Integer.MAX_VALUE);
+        modelo.clear();
+        atualizarRodape();
+    }
+
+    // Um quadro: drena o anel, acrescenta o lote de uma vez, aplica a retenção e rola até o fim
+    private void descarregar() {
+        if (anel.drenar((instante, texto) -> lote.add("[" + FORMATO_HORA.format(Instant.ofEpochMilli(instante)) + "] " + texto),
+                LOTE_MAXIMO) == 0) {
+            return;
+        }
+        modelo.addAll(lote);
+        lote.clear();
+        int excesso = modelo.size() - retencao;
+        if (excesso > 0) {
+            modelo.removeRange(0, excesso - 1);
+            removidasRetencao += excesso;
+        }
+        lista.ensureIndexIsVisible(modelo.size() - 1);
+        atualizarRodape();
+    }
+
+    private void atualizarRodape() {
+        lblRodape.setText(String.format(" Linhas: %d (máx %d) | Descartadas: %d (anel cheio: %d, retenção: %d)",
+                modelo.size(), retencao, anel.getDescartados() + removidasRetencao, anel.getDescartados(), removidasRetencao));
+    }
+}
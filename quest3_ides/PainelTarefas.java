@@ -0,0 +1,138 @@
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Painel de Tarefas: uma linha por tarefa do MotorTarefas e a vazão agregada.
+ * * Um javax.swing.Timer por quadro (~60 Hz) pergunta ao motor se algo mudou; se sim, tira uma
+ * cópia da lista e redesenha a tabela UMA vez (a JTable só pinta as linhas visíveis). As tarefas
+ * terminadas no quadro são entregues a 'aoTerminar' no mesmo passo, já na EDT.
+ */
+public class PainelTarefas extends JPanel {
+
+    private static final int PERIODO_QUADRO_MS = 16;
+    private static final String[] COLUNAS = {"#", "Tarefa", "Estado", "Progresso", "Tempo (s)"};
+
+    private final MotorTarefas motor;
+    private final ModeloTabela modelo = new ModeloTabela();
+    private final JLabel lblVazao = new JLabel();
+
+    // Janela de medição da vazão (zerada a cada nova execução)
+    private long inicioJanelaNs = System.nanoTime();
+    private int concluidas, canceladas, expiradas, falhas;
+    private long unidadesConcluidas;
+
+    /**
+     * @param aoTerminar chamado na EDT para cada tarefa terminada
+     * @param aoMudar chamado na EDT depois de cada quadro com mudanças
+     */
+    public PainelTarefas(MotorTarefas motor, Consumer<MotorTarefas.Tarefa> aoTerminar, Runnable aoMudar) {
+        super(new BorderLayout());
+        this.motor = motor;
+
+        JTable tabela = new JTable(modelo);
+        tabela.setFillsViewportHeight(true);
+        tabela.getColumnModel().getColumn(0).setPreferredWidth(40);
+        tabela.getColumnModel().getColumn(1).setPreferredWidth(160);
+        tabela.getColumnModel().getColumn(3).setPreferredWidth(200);
+        tabela.getColumnModel().getColumn(3).setCellRenderer(new RenderizadorProgresso());
+        add(new JScrollPane(tabela), BorderLayout.CENTER);
+        lblVazao.setFont(new Font("Monospaced", Font.PLAIN, 11));
+        add(lblVazao, BorderLayout.SOUTH);
+        atualizarVazao();
+
+        new Timer(PERIODO_QUADRO_MS, e -> {
+            boolean mudou = motor.consumirMudancas();
+            motor.drenarFinalizadas(t -> {
+                contar(t);
+                aoTerminar.accept(t);
+            });
+            if (mudou) {
+                modelo.atualizar(motor.getTarefas());
+                aoMudar.run();
+            }
+            // O relógio da vazão anda mesmo sem mudanças enquanto houver tarefas ativas
+            if (mudou || motor.getAtivas() > 0) atualizarVazao();
+        }).start();
+    }
+
+    /** Começa uma nova janela de vazão (usar na EDT). */
+    public void zerarVazao() {
+        inicioJanelaNs = System.nanoTime();
+        concluidas = canceladas = expiradas = falhas = 0;
+        unidadesConcluidas = 0;
+        atualizarVazao();
+    }
+
+    private void contar(MotorTarefas.Tarefa t) {
+        switch (t.getEstado()) {
+            case CONCLUIDA: concluidas++; unidadesConcluidas += t.getUnidades(); break;
+            case CANCELADA: canceladas++; break;
+            case EXPIRADA: expiradas++; break;
+            default: falhas++;
+        }
+    }
+
+    private void atualizarVazao() {
+        double segundos = Math.max(1e-9, (System.nanoTime() - inicioJanelaNs) / 1e9);
+        lblVazao.setText(String.format(" %s | Ativas: %d | Concluídas: %d | Canceladas: %d | Expiradas: %d | Falhas: %d"
+                        + " | Vazão: %.1f tarefas/s, %.1f passos/s",
+                motor.getDescricao(), motor.getAtivas(), concluidas, canceladas, expiradas, falhas,
+                concluidas / segundos, unidadesConcluidas / segundos));
+    }
+
+    /** Modelo sobre a cópia da lista de tarefas tirada no último quadro. */
+    private static final class ModeloTabela extends AbstractTableModel {
+        private List<MotorTarefas.Tarefa> linhas = List.of();
+
+        void atualizar(List<MotorTarefas.Tarefa> novas) {
+            linhas = novas;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return linhas.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUNAS.length;
+        }
+
+        @Override
+        public String getColumnName(int coluna) {
+            return COLUNAS[coluna];
+        }
+
+        @Override
+        public Object getValueAt(int linha, int coluna) {
+            MotorTarefas.Tarefa t = linhas.get(linha);
+            switch (coluna) {
+                case 0: return t.getId();
+                case 1: return t.getNome();
+                case 2: return t.getEstado();
+                case 3: return t.getPercentual();
+                default: return String.format("%.2f", t.getDuracao());
+            }
+        }
+    }
+
+    /** Desenha a coluna de progresso como uma barra (um único JProgressBar reaproveitado). */
+    private static final class RenderizadorProgresso extends JProgressBar implements TableCellRenderer {
+        RenderizadorProgresso() {
+            super(0, 100);
+            setStringPainted(true);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable tabela, Object valor, boolean selecionada,
+                                                       boolean foco, int linha, int coluna) {
+            setValue((Integer) valor);
+            return this;
+        }
+    }
+}
@@ -1,8 +1,15 @@
 import javax.swing.*;
 import java.awt.*;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.BiConsumer;
 
 /**
  * Questão 3: Simulação de Aplicação Interativa (Thread vs Sequencial)
@@ -12,11 +19,18 @@ import java.util.Date;
  * * Cenário:
  * 1. Modo Sequencial: Executa uma tarefa pesada na thread principal de interface (EDT), causando congelamento.
  * 2. Modo Thread: Executa a tarefa em segundo plano (Background), mantendo a interface ativa.
+ * * Métrica de responsividade: a SondaLatenciaEDT mede quanto os eventos esperam na fila da EDT
+ * (p50/p99/p99.9/máx ao vivo no painel de status); ao fim de cada execução os percentis são
+ * acrescentados em ARQUIVO_LATENCIAS para comparar os dois modos.
+ * * O modo Thread e os lotes de tarefas rodam no MotorTarefas (threads virtuais ou pool limitado,
+ * com -Dsimulador.motor=pool), com cancelamento, prazo e progresso agregado por quadro.
+ * * O simulador é um JPanel (a janela só é criada no main): assim o BenchmarkResponsividade pode
+ * montá-lo sem tela (java.awt.headless=true) e dirigi-lo com eventos sintéticos.
  */
-public class SimuladorAppMetricas extends JFrame {
+public class SimuladorAppMetricas extends JPanel {
 
     // Componentes da Interface Gráfica
-    private JTextArea logArea;
+    private PainelLog painelLog;
     private JProgressBar progressBar;
     private JButton btnSequencial;
     private JButton btnThread;
@@ -27,15 +41,41 @@ public class SimuladorAppMetricas extends JFrame {
     private JLabel lblCliques;
     private int contadorCliques = 0;
 
+    // Sonda de latência da EDT: batimento a cada PERIODO_SONDA_MS, painel atualizado a cada PERIODO_PAINEL_MS
+    private static final long PERIODO_SONDA_MS = 5;
+    private static final int PERIODO_PAINEL_MS = 250;
+    private static final String ARQUIVO_LATENCIAS = "resultados_latencia_edt.csv";
+    private final SondaLatenciaEDT sonda = new SondaLatenciaEDT(PERIODO_SONDA_MS);
+    private JLabel lblLatencia;
+
+    // Log: linhas que podem esperar entre dois quadros (anel) e máximo mantido na lista.
+    // Configurável com -Dsimulador.log.retencao=N
+    private static final int CAPACIDADE_ANEL_LOG = 8192;
+    private static final int RETENCAO_LOG = Integer.getInteger("simulador.log.retencao", 5000);
+
+    // Motor das tarefas em segundo plano e a execução em andamento (modo Thread ou lote)
+    private final MotorTarefas motor = "pool".equals(System.getProperty("simulador.motor"))
+            ? MotorTarefas.comPoolLimitado(Runtime.getRuntime().availableProcessors())
+            : MotorTarefas.comThreadsVirtuais();
+    private PainelTarefas painelTarefas;
+    private JTabbedPane abas;
+    private JSpinner spnLote;
+    private JSpinner spnPrazo;
+    private String modoExecucao = null; // null = nenhuma execução no motor
+    private long inicioExecucao;
+
+    // Tarefa pesada: 0 = Thread.sleep por passo (demonstração); > 0 = iterações de cálculo por passo
+    // (trabalho real de CPU). Configurável com -Dsimulador.cpu.iteracoes=N ou setIteracoesCpuPorPasso
+    private volatile long iteracoesCpuPorPasso = Long.getLong("simulador.cpu.iteracoes", 0);
+    private static volatile long sumidouro; // impede o JIT de descartar o cálculo
+    // Avisado na EDT ao fim de cada execução (modo, tempo total em segundos)
+    private BiConsumer<String, Double> aoFinalizar = (modo, tempo) -> { };
+
     public SimuladorAppMetricas() {
-        // Configuração da Janela Principal
-        setTitle("TP2 - Q3: Simulador com Métricas");
-        setSize(600, 500);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLayout(new BorderLayout());
+        super(new BorderLayout());
 
         // --- PAINEL SUPERIOR (Botões de Controle) ---
-        JPanel panelTopo = new JPanel(new GridLayout(4, 1, 5, 5));
+        JPanel panelTopo = new JPanel(new GridLayout(6, 1, 5, 5));
         
         btnSequencial = new JButton("1. Iniciar Sequencial (Bloqueante)");
         btnSequencial.setBackground(new Color(255, 200, 200)); // Vermelho para indicar perigo/erro
@@ -56,17 +96,28 @@ public class SimuladorAppMetricas extends JFrame {
         panelStatus.add(lblTempo);
         panelStatus.add(lblCliques);
 
+        // Latência da EDT ao vivo (espera dos eventos na fila)
+        lblLatencia = new JLabel(textoLatencia(), SwingConstants.CENTER);
+        lblLatencia.setFont(new Font("Monospaced", Font.PLAIN, 12));
+
         panelTopo.add(btnSequencial);
         panelTopo.add(btnThread);
         panelTopo.add(btnInteracao);
         panelTopo.add(panelStatus);
+        panelTopo.add(lblLatencia);
+        panelTopo.add(criarPainelLote());
 
         add(panelTopo, BorderLayout.NORTH);
 
         // --- PAINEL CENTRAL (Log de Eventos) ---
-        logArea = new JTextArea();
-        logArea.setEditable(false); // O usuário não deve editar o log manualmente
-        add(new JScrollPane(logArea), BorderLayout.CENTER);
+        // Lista limitada, atualizada em lotes (um por quadro); não editável pelo usuário
+        painelLog = new PainelLog(CAPACIDADE_ANEL_LOG, RETENCAO_LOG);
+        // Tarefas do motor: uma linha por tarefa, redesenhadas no máximo uma vez por quadro
+        painelTarefas = new PainelTarefas(motor, this::aoTerminarTarefa, this::aoMudarTarefas);
+        abas = new JTabbedPane();
+        abas.addTab("Log", painelLog);
+        abas.addTab("Tarefas", painelTarefas);
+        add(abas, BorderLayout.CENTER);
 
         // --- PAINEL INFERIOR (Barra de Progresso) ---
         progressBar = new JProgressBar(0, 100);
@@ -97,35 +148,20 @@ public class SimuladorAppMetricas extends JFrame {
             
             log(">>> Modo Sequencial Finalizado em " + tempoTotal + "s.");
             log(">>> Cliques processados DURANTE a execução: 0 (Visualmente travado)");
+
+            // Os batimentos postados durante o congelamento ainda estão na fila: exporta depois deles
+            SwingUtilities.invokeLater(() -> exportarLatencias("sequencial", tempoTotal));
         });
 
         // CASO 2: EXECUÇÃO COM THREAD (O "Bom Exemplo")
-        // Cria uma nova Thread (Worker) para processar a tarefa pesada.
+        // A tarefa pesada vai para o MotorTarefas (fora da EDT).
         // A EDT fica livre para escutar cliques do mouse e redesenhar a janela.
         btnThread.addActionListener(e -> {
             resetarMetricas();
             log(">>> Iniciando Modo Thread...");
             log("[INFO] A interface deve responder. Clique no botão 3!");
-
-            // Criação da Thread Paralela
-            new Thread(() -> {
-                long inicio = System.currentTimeMillis();
-                
-                // Executa o trabalho pesado fora da thread de interface
-                executarTarefaPesada();
-                
-                long fim = System.currentTimeMillis();
-                double tempoTotal = (fim - inicio) / 1000.0;
-                
-                // SwingUtilities.invokeLater:
-                // Garante que a atualização final da UI (Label e Log) ocorra de volta na EDT.
-                // Regra do Swing: Não toque em componentes visuais diretamente de outras threads.
-                SwingUtilities.invokeLater(() -> {
-                    lblTempo.setText("Tempo Final: " + tempoTotal + "s");
-                    log(">>> Modo Thread Finalizado em " + tempoTotal + "s.");
-                    log(">>> Total de cliques processados em tempo real: " + contadorCliques);
-                });
-            }).start();
+            iniciarExecucao("thread");
+            motor.submeter("Tarefa pesada", this::executarTarefaPesada, prazoMs());
         });
 
         // BOTÃO DE TESTE (Prova de Responsividade)
@@ -136,33 +172,149 @@ public class SimuladorAppMetricas extends JFrame {
             lblCliques.setText("Cliques Processados: " + contadorCliques);
             log("[INTERAÇÃO] Clique registrado: " + contadorCliques);
         });
+
+        // Sonda sempre ligada; o painel lê o histograma na própria EDT (javax.swing.Timer)
+        sonda.iniciar();
+        new Timer(PERIODO_PAINEL_MS, e -> lblLatencia.setText(textoLatencia())).start();
+    }
+
+    // Percentis da espera na fila da EDT desde o início da execução atual
+    private String textoLatencia() {
+        HistogramaLatencia h = sonda.getHistograma();
+        return String.format("EDT p50 %.2f | p99 %.2f | p99.9 %.2f | máx %.2f ms (%d)",
+                h.percentil(50) / 1e6, h.percentil(99) / 1e6, h.percentil(99.9) / 1e6, h.getMaximo() / 1e6, h.getContagem());
+    }
+
+    /**
+     * Fim de uma execução: mostra os percentis no log e acrescenta uma linha no CSV
+     * (ponto decimal sempre, como os resultados das questões 1 e 2).
+     */
+    private void exportarLatencias(String modo, double tempoTotal) {
+        aoFinalizar.accept(modo, tempoTotal);
+        HistogramaLatencia h = sonda.getHistograma();
+        lblLatencia.setText(textoLatencia());
+        log(">>> Latência da EDT: " + h.getResumo());
+        boolean novo = !Files.exists(Paths.get(ARQUIVO_LATENCIAS));
+        try (PrintWriter pw = new PrintWriter(new FileWriter(ARQUIVO_LATENCIAS, true))) {
+            if (novo) pw.println("data_hora,modo,tempo_total_s,periodo_sonda_ms,amostras,p50_ms,p99_ms,p999_ms,max_ms");
+            pw.printf(Locale.ROOT, "%s,%s,%.3f,%d,%d,%.4f,%.4f,%.4f,%.4f%n",
+                    OffsetDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME), modo, tempoTotal,
+                    sonda.getPeriodoMs(), h.getContagem(), h.percentil(50) / 1e6, h.percentil(99) / 1e6,
+                    h.percentil(99.9) / 1e6, h.getMaximo() / 1e6);
+            log("[!] Latências salvas em '" + ARQUIVO_LATENCIAS + "'");
+        } catch (IOException e) {
+            log("[ERRO] Não foi possível salvar as latências: " + e.getMessage());
+        }
     }
 
     /**
      * Simula uma tarefa computacionalmente intensiva ou de I/O (ex: Download, Processamento de Imagem).
-     * Usa Thread.sleep para forçar a demora.
+     * Usa Thread.sleep para forçar a demora, ou cálculo de verdade se iteracoesCpuPorPasso > 0.
+     * Modo SEQUENCIAL: roda na EDT e atualiza a barra direto (que só aparece no fim, a EDT está
+     * ocupada no sleep).
      */
     private void executarTarefaPesada() {
+        try {
+            executarTarefaPesada((progresso, passos) -> progressBar.setValue(progresso));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Mesma tarefa para o motor: o progresso só é gravado na tarefa (o PainelTarefas redesenha por
+     * quadro) e a interrupção é repassada, o que permite cancelar e aplicar o prazo.
+     */
+    private void executarTarefaPesada(MotorTarefas.Progresso progresso) throws InterruptedException {
+        long iteracoes = iteracoesCpuPorPasso;
         for (int i = 0; i <= 10; i++) {
-            try {
+            if (iteracoes > 0) {
+                sumidouro += calcularPasso(iteracoes, i + 1);
+            } else {
                 // Simula atraso de 500ms por iteração (Total ~5 segundos)
-                Thread.sleep(500); 
-            } catch (InterruptedException ex) {}
+                Thread.sleep(500);
+            }
+            progresso.atualizar(i * 10, i + 1);
+        }
+    }
 
-            int progresso = i * 10;
-            
-            // Lógica Híbrida de Atualização de UI:
-            // Precisamos atualizar a barra de progresso.
-            
-            if (SwingUtilities.isEventDispatchThread()) {
-                // Se estamos no modo SEQUENCIAL, já estamos na thread certa.
-                // Porém, visualmente, a barra não vai se mover até o fim, pois a thread está ocupada no sleep.
-                progressBar.setValue(progresso); 
-            } else {
-                // Se estamos no modo THREAD, precisamos pedir para a EDT atualizar a barra
-                // assim que possível. Isso cria a animação suave.
-                SwingUtilities.invokeLater(() -> progressBar.setValue(progresso)); 
+    /** Um passo de trabalho de CPU: 'iteracoes' rodadas de xorshift (sem memória, só ALU). */
+    static long calcularPasso(long iteracoes, long semente) {
+        long x = semente * 0x9E3779B97F4A7C15L | 1;
+        for (long j = 0; j < iteracoes; j++) {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+        }
+        return x;
+    }
+
+    // Linha de controle dos lotes: quantidade, prazo por tarefa, iniciar e cancelar
+    private JPanel criarPainelLote() {
+        JPanel painel = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 2));
+        spnLote = new JSpinner(new SpinnerNumberModel(200, 1, 10000, 50));
+        spnPrazo = new JSpinner(new SpinnerNumberModel(0, 0, 600, 1));
+        JButton btnLote = new JButton("Iniciar lote");
+        JButton btnCancelar = new JButton("Cancelar todas");
+        painel.add(new JLabel("Tarefas no lote:"));
+        painel.add(spnLote);
+        painel.add(new JLabel("Prazo (s, 0 = sem):"));
+        painel.add(spnPrazo);
+        painel.add(btnLote);
+        painel.add(btnCancelar);
+
+        // Teste de estresse: centenas de tarefas simultâneas no motor
+        btnLote.addActionListener(e -> {
+            int quantidade = (Integer) spnLote.getValue();
+            resetarMetricas();
+            log(">>> Iniciando lote de " + quantidade + " tarefas (" + motor.getDescricao() + ")...");
+            iniciarExecucao("lote-" + quantidade);
+            long prazo = prazoMs();
+            for (int i = 1; i <= quantidade; i++) {
+                motor.submeter("Lote #" + i, this::executarTarefaPesada, prazo);
             }
+            abas.setSelectedComponent(painelTarefas);
+        });
+        btnCancelar.addActionListener(e -> {
+            log(">>> Cancelando " + motor.getAtivas() + " tarefas ativas...");
+            motor.cancelarTodas();
+        });
+        return painel;
+    }
+
+    private long prazoMs() {
+        return (Integer) spnPrazo.getValue() * 1000L;
+    }
+
+    private void iniciarExecucao(String modo) {
+        modoExecucao = modo;
+        inicioExecucao = System.currentTimeMillis();
+        painelTarefas.zerarVazao();
+    }
+
+    // Chamado na EDT pelo PainelTarefas, uma vez por tarefa terminada
+    private void aoTerminarTarefa(MotorTarefas.Tarefa t) {
+        if (t.getEstado() != MotorTarefas.Estado.CONCLUIDA) {
+            log("[TAREFA] " + t.getNome() + ": " + t.getEstado());
+        }
+    }
+
+    // Chamado na EDT no máximo uma vez por quadro: barra = média das tarefas; fim da execução
+    private void aoMudarTarefas() {
+        java.util.List<MotorTarefas.Tarefa> tarefas = motor.getTarefas();
+        if (!tarefas.isEmpty()) {
+            long soma = 0;
+            for (MotorTarefas.Tarefa t : tarefas) soma += t.getPercentual();
+            progressBar.setValue((int) (soma / tarefas.size()));
+        }
+        if (modoExecucao != null && motor.getAtivas() == 0) {
+            double tempoTotal = (System.currentTimeMillis() - inicioExecucao) / 1000.0;
+            String modo = modoExecucao;
+            modoExecucao = null;
+            lblTempo.setText("Tempo Final: " + tempoTotal + "s");
+            log(">>> Modo " + modo + " Finalizado em " + tempoTotal + "s.");
+            log(">>> Total de cliques processados em tempo real: " + contadorCliques);
+            exportarLatencias(modo, tempoTotal);
         }
     }
 
@@ -172,29 +324,41 @@ public class SimuladorAppMetricas extends JFrame {
         lblCliques.setText("Cliques Processados: 0");
         lblTempo.setText("Tempo: Rodando...");
         progressBar.setValue(0);
-        logArea.setText("");
+        painelLog.limpar();
+        motor.removerTerminadas();
+        sonda.zerar();
+        lblLatencia.setText(textoLatencia());
     }
 
-    // Método seguro para adicionar texto ao log vindo de qualquer thread
+    // --- Ganchos para o BenchmarkResponsividade ---
+
+    JButton getBtnSequencial() { return btnSequencial; }
+    JButton getBtnThread() { return btnThread; }
+    JButton getBtnInteracao() { return btnInteracao; }
+
+    void setIteracoesCpuPorPasso(long iteracoes) {
+        this.iteracoesCpuPorPasso = iteracoes;
+    }
+
+    /** Registra quem é avisado (na EDT) ao fim de cada execução. */
+    void setAoFinalizar(BiConsumer<String, Double> aoFinalizar) {
+        this.aoFinalizar = aoFinalizar;
+    }
+
+    // Método seguro para adicionar texto ao log vindo de qualquer thread:
+    // só enfileira no anel (sem locks); a EDT mostra as linhas no próximo quadro
     private void log(String texto) {
-        String hora = new SimpleDateFormat("HH:mm:ss").format(new Date());
-        
-        Runnable updateLog = () -> {
-            logArea.append("[" + hora + "] " + texto + "\n");
-            // Rola o scroll automaticamente para baixo
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        };
-
-        // Verifica se precisa agendar a atualização ou se pode fazer direto
-        if (SwingUtilities.isEventDispatchThread()) {
-            updateLog.run();
-        } else {
-            SwingUtilities.invokeLater(updateLog);
-        }
+        painelLog.publicar(texto);
     }
 
     public static void main(String[] args) {
         // Inicia a aplicação dentro da Thread de Eventos do Swing (Best Practice)
-        SwingUtilities.invokeLater(() -> new SimuladorAppMetricas().setVisible(true));
+        SwingUtilities.invokeLater(() -> {
+            JFrame janela = new JFrame("TP2 - Q3: Simulador com Métricas");
+            janela.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            janela.setContentPane(new SimuladorAppMetricas());
+            janela.setSize(760, 640);
+            janela.setVisible(true);
+        });
     }
 }
\ No newline at end of file
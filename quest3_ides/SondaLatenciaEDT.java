@@ -0,0 +1,57 @@
+import java.awt.EventQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sonda de Latência da EDT (batimentos com carimbo de tempo)
+ * * Problema: contar cliques no botão 3 só diz SE a interface respondeu, não QUANTO os eventos
+ * esperaram na fila da Event Dispatch Thread.
+ * * Estratégia: uma thread de fundo posta um "batimento" na EventQueue a cada 'periodoMs', com o
+ * System.nanoTime() da postagem. Quando a EDT o executa, registra (agora - postagem) no histograma:
+ * é o tempo que qualquer evento (clique, repaint) teria esperado naquele instante.
+ * - Os batimentos saem no ritmo fixo mesmo com a EDT travada (não esperam o anterior terminar):
+ *   assim um congelamento de 5 s vira centenas de amostras altas, em vez de uma só
+ *   (o "coordinated omission" que esconderia o travamento).
+ * - O histograma só é tocado pela EDT (registro, leitura ao vivo e exportação).
+ */
+public class SondaLatenciaEDT {
+
+    private final HistogramaLatencia histograma = new HistogramaLatencia();
+    private final long periodoMs;
+    private final ScheduledExecutorService agendador;
+
+    public SondaLatenciaEDT(long periodoMs) {
+        this.periodoMs = periodoMs;
+        this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sonda-edt");
+            t.setDaemon(true); // não impede a JVM de encerrar
+            return t;
+        });
+    }
+
+    public void iniciar() {
+        agendador.scheduleAtFixedRate(() -> {
+            long postado = System.nanoTime();
+            EventQueue.invokeLater(() -> histograma.registrar(System.nanoTime() - postado));
+        }, 0, periodoMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void parar() {
+        agendador.shutdownNow();
+    }
+
+    public long getPeriodoMs() {
+        return periodoMs;
+    }
+
+    /** Histograma acumulado desde o último zerar() (usar só na EDT). */
+    public HistogramaLatencia getHistograma() {
+        return histograma;
+    }
+
+    /** Começa uma nova medição (usar só na EDT). */
+    public void zerar() {
+        histograma.zerar();
+    }
+}